@@ -19,6 +19,12 @@ public class DownloadableArtifact implements Serializable {
     private PatternType patternType;
     private String sourcePattern;
     private boolean explode;
+    /**
+     * Checksums and size of the artifact, if already known from the search results
+     */
+    private String sha1;
+    private String md5;
+    private Long size;
 
     public DownloadableArtifact() {
     }
@@ -101,4 +107,28 @@ public class DownloadableArtifact implements Serializable {
     public void setExplode(boolean explode) {
         this.explode = explode;
     }
+
+    public String getSha1() {
+        return sha1;
+    }
+
+    public void setSha1(String sha1) {
+        this.sha1 = sha1;
+    }
+
+    public String getMd5() {
+        return md5;
+    }
+
+    public void setMd5(String md5) {
+        this.md5 = md5;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
 }
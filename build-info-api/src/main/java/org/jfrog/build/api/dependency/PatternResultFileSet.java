@@ -16,6 +16,7 @@
 
 package org.jfrog.build.api.dependency;
 
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -28,6 +29,13 @@ public class PatternResultFileSet {
     private String sourcePattern;
     private Set<String> files = new HashSet<>();
 
+    /**
+     * Receives the files of a streamed search, one by one, in the order they were returned by Artifactory.
+     */
+    public interface FileConsumer {
+        void accept(String repoUri, String file) throws IOException;
+    }
+
     public PatternResultFileSet() {
     }
 
@@ -2,6 +2,7 @@ package org.jfrog.build.api.dependency;
 
 import org.apache.commons.lang.StringUtils;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,6 +20,13 @@ public class PropertySearchResult {
         this.results = results;
     }
 
+    /**
+     * Receives the entries of a streamed search, one by one, in the order they were returned by Artifactory.
+     */
+    public interface SearchEntryConsumer {
+        void accept(SearchEntry entry) throws IOException;
+    }
+
     public static class SearchEntry {
         private String uri;
         private String artifactoryUrl;
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import org.apache.commons.lang.StringUtils;
 import org.jfrog.build.api.BuildInfoFields;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -21,12 +22,20 @@ public class AqlSearchResult {
         this.results = results;
     }
 
+    /**
+     * Receives the entries of a streamed search, one by one, in the order they were returned by Artifactory.
+     */
+    public interface SearchEntryConsumer {
+        void accept(SearchEntry entry) throws IOException;
+    }
+
     public static class SearchEntry {
         private String repo;
         private String path;
         private String name;
         private String actualSha1;
         private String actualMd5;
+        private Long size;
         private String[] virtualRepos = new String[]{};
         private HashMap<String, String> properties = new HashMap<>();
 
@@ -52,6 +61,10 @@ public class AqlSearchResult {
             this.actualMd5 = actualMd5;
         }
 
+        public void setSize(Long size) {
+            this.size = size;
+        }
+
         @JsonProperty("virtual_repos")
         public void setVirtualRepos(String[] virtualRepos) {
             this.virtualRepos = virtualRepos;
@@ -88,6 +101,13 @@ public class AqlSearchResult {
             return actualMd5;
         }
 
+        /**
+         * @return the file size in bytes, or null if the size wasn't included in the query
+         */
+        public Long getSize() {
+            return size;
+        }
+
         @JsonProperty("virtual_repos")
         public String[] getVirtualRepos() {
             return virtualRepos;
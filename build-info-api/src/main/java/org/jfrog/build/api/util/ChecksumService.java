@@ -0,0 +1,227 @@
+package org.jfrog.build.api.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Calculates file checksums once per process.
+ * The checksums are kept by the canonical path, size and last modified time of the file, so a file which is used by
+ * several modules of a build is read only once, and a file which was modified since is read again.
+ * The checksums of several files are calculated in parallel on a bounded pool.
+ */
+public abstract class ChecksumService {
+
+    private static final int MAX_ENTRIES = 100000;
+    private static final int THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final Map<FileKey, FileChecksums> CHECKSUMS = new ConcurrentHashMap<>();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(THREADS, createThreadFactory());
+
+    /**
+     * Get the checksums of the given file, calculated by {@link FileChecksumCalculator#calculateChecksums(File, String...)}
+     * unless they were already calculated for the same file, size and last modified time.
+     *
+     * @param file       File to calculate
+     * @param algorithms Algorithms to use for calculation
+     * @return Map with algorithm keys and checksum values
+     * @throws NoSuchAlgorithmException Thrown if any of the given algorithms aren't supported
+     * @throws IOException              Thrown if any error occurs while reading the file or calculating the checksums
+     */
+    public static Map<String, String> calculateChecksums(File file, String... algorithms) throws NoSuchAlgorithmException, IOException {
+        return getResult(getChecksumsFuture(file, algorithms, Runnable::run));
+    }
+
+    /**
+     * Get the checksums of the given files. The checksums which weren't calculated yet are calculated in parallel.
+     *
+     * @param files      Files to calculate
+     * @param algorithms Algorithms to use for calculation
+     * @return Map with the given files as keys and their checksums, by algorithm, as values
+     * @throws NoSuchAlgorithmException Thrown if any of the given algorithms aren't supported
+     * @throws IOException              Thrown if any error occurs while reading a file or calculating the checksums
+     */
+    public static Map<File, Map<String, String>> calculateChecksums(Collection<File> files, String... algorithms)
+            throws NoSuchAlgorithmException, IOException {
+        Map<File, CompletableFuture<Map<String, String>>> futures = new LinkedHashMap<>();
+        for (File file : files) {
+            futures.put(file, getChecksumsFuture(file, algorithms, EXECUTOR));
+        }
+        Map<File, Map<String, String>> checksums = new LinkedHashMap<>();
+        for (Map.Entry<File, CompletableFuture<Map<String, String>>> entry : futures.entrySet()) {
+            checksums.put(entry.getKey(), getResult(entry.getValue()));
+        }
+        return checksums;
+    }
+
+    /**
+     * Forget all the calculated checksums.
+     */
+    public static void clear() {
+        CHECKSUMS.clear();
+    }
+
+    private static CompletableFuture<Map<String, String>> getChecksumsFuture(File file, String[] algorithms, Executor executor)
+            throws IOException {
+        if (file == null || !file.isFile() || algorithms == null) {
+            // Let the calculator report the invalid arguments
+            return calculate(file, algorithms, executor);
+        }
+        FileKey key = new FileKey(file);
+        FileChecksums previous = CHECKSUMS.get(key);
+        if (previous != null && previous.algorithms.containsAll(Arrays.asList(algorithms))) {
+            // Calculated or being calculated with these algorithms
+            return previous.checksums.thenApply(checksums -> selectAlgorithms(checksums, algorithms));
+        }
+        if (CHECKSUMS.size() >= MAX_ENTRIES) {
+            CHECKSUMS.clear();
+        }
+        // Keep the previously calculated algorithms of the file
+        Set<String> allAlgorithms = new LinkedHashSet<>(Arrays.asList(algorithms));
+        if (previous != null) {
+            allAlgorithms.addAll(previous.algorithms);
+        }
+        FileChecksums next = new FileChecksums(allAlgorithms);
+        boolean added = previous == null ? CHECKSUMS.putIfAbsent(key, next) == null : CHECKSUMS.replace(key, previous, next);
+        if (!added) {
+            // Calculated by another thread meanwhile
+            return getChecksumsFuture(file, algorithms, executor);
+        }
+        CompletableFuture<Map<String, String>> calculation;
+        if (previous == null) {
+            calculation = calculate(file, allAlgorithms, executor);
+        } else {
+            // Wait for the previous calculation, which may still be running, and add only the missing algorithms
+            Set<String> missingAlgorithms = new LinkedHashSet<>(allAlgorithms);
+            missingAlgorithms.removeAll(previous.algorithms);
+            calculation = previous.checksums.handle((checksums, error) -> checksums).thenCompose(previousChecksums -> {
+                if (previousChecksums == null) {
+                    // The previous calculation failed
+                    return calculate(file, allAlgorithms, executor);
+                }
+                return calculate(file, missingAlgorithms, executor).thenApply(checksums -> {
+                    Map<String, String> merged = new HashMap<>(previousChecksums);
+                    merged.putAll(checksums);
+                    return merged;
+                });
+            });
+        }
+        calculation.whenComplete((checksums, error) -> {
+            if (error != null) {
+                CHECKSUMS.remove(key, next);
+                next.checksums.completeExceptionally(error);
+            } else {
+                next.checksums.complete(checksums);
+            }
+        });
+        return next.checksums.thenApply(checksums -> selectAlgorithms(checksums, algorithms));
+    }
+
+    private static CompletableFuture<Map<String, String>> calculate(File file, Set<String> algorithms, Executor executor) {
+        return calculate(file, algorithms.toArray(new String[0]), executor);
+    }
+
+    private static CompletableFuture<Map<String, String>> calculate(File file, String[] algorithms, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return FileChecksumCalculator.calculateChecksums(file, algorithms);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (NoSuchAlgorithmException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private static Map<String, String> selectAlgorithms(Map<String, String> checksums, String[] algorithms) {
+        Map<String, String> selected = new HashMap<>();
+        for (String algorithm : algorithms) {
+            selected.put(algorithm, checksums.get(algorithm));
+        }
+        return selected;
+    }
+
+    private static Map<String, String> getResult(CompletableFuture<Map<String, String>> future) throws NoSuchAlgorithmException, IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while calculating checksums", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof NoSuchAlgorithmException) {
+                throw (NoSuchAlgorithmException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static ThreadFactory createThreadFactory() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "checksum_calculator_" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * The checksums of a file, which may still be calculated, and the algorithms they include.
+     */
+    private static class FileChecksums {
+        private final Set<String> algorithms;
+        private final CompletableFuture<Map<String, String>> checksums = new CompletableFuture<>();
+
+        private FileChecksums(Set<String> algorithms) {
+            this.algorithms = algorithms;
+        }
+    }
+
+    private static class FileKey {
+        private final String path;
+        private final long size;
+        private final long lastModified;
+
+        private FileKey(File file) throws IOException {
+            this.path = file.getCanonicalPath();
+            this.size = file.length();
+            this.lastModified = file.lastModified();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            FileKey fileKey = (FileKey) o;
+            return size == fileKey.size && lastModified == fileKey.lastModified && path.equals(fileKey.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, size, lastModified);
+        }
+    }
+}
@@ -31,7 +31,13 @@ import java.util.Map;
  */
 public abstract class FileChecksumCalculator {
 
-    private static final int BUFFER_SIZE = 32768;
+    public static final String SHA256_ALGORITHM = "SHA-256";
+    private static final int BUFFER_SIZE = 65536;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    /**
+     * Read buffer of each thread, reused by all the calculations of the thread
+     */
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
 
     /**
      * Calculates the given file's checksums
@@ -72,7 +78,8 @@ public abstract class FileChecksumCalculator {
     }
 
     /**
-     * Calculates the given file's checksums
+     * Calculates the given file's checksums.
+     * The file is read once, and each chunk is passed to all the digests.
      *
      * @param fileToCalculate File to calculate
      * @param algorithms      Algorithms to use for calculation
@@ -84,44 +91,37 @@ public abstract class FileChecksumCalculator {
      */
     private static Map<String, String> calculate(File fileToCalculate, String... algorithms)
             throws NoSuchAlgorithmException, IOException {
-        Map<String, MessageDigest> digestMap = new HashMap<>();
-        Map<String, String> checksumMap = new HashMap<>();
-
-        for (String algorithm : algorithms) {
-            digestMap.put(algorithm, MessageDigest.getInstance(algorithm));
+        MessageDigest[] digests = new MessageDigest[algorithms.length];
+        for (int i = 0; i < algorithms.length; i++) {
+            digests[i] = MessageDigest.getInstance(algorithms[i]);
         }
 
-        FileInputStream inputStream = new FileInputStream(fileToCalculate);
-
-        byte[] buffer = new byte[BUFFER_SIZE];
-        try {
-            int size = inputStream.read(buffer, 0, BUFFER_SIZE);
-
-            while (size >= 0) {
-                for (String algorithm : algorithms) {
-                    digestMap.get(algorithm).update(buffer, 0, size);
+        byte[] buffer = BUFFER.get();
+        try (FileInputStream inputStream = new FileInputStream(fileToCalculate)) {
+            int size;
+            while ((size = inputStream.read(buffer, 0, BUFFER_SIZE)) >= 0) {
+                for (MessageDigest digest : digests) {
+                    digest.update(buffer, 0, size);
                 }
-                size = inputStream.read(buffer, 0, BUFFER_SIZE);
-            }
-        } finally {
-            if (inputStream != null) {
-                inputStream.close();
             }
         }
 
-        for (String algorithm : algorithms) {
-            byte[] bytes = digestMap.get(algorithm).digest();
-            StringBuilder sb = new StringBuilder();
-            for (byte aBinaryData : bytes) {
-                String t = Integer.toHexString(aBinaryData & 0xff);
-                if (t.length() == 1) {
-                    sb.append("0");
-                }
-                sb.append(t);
-            }
-            checksumMap.put(algorithm, sb.toString().trim());
+        Map<String, String> checksumMap = new HashMap<>();
+        for (int i = 0; i < algorithms.length; i++) {
+            checksumMap.put(algorithms[i], encodeHex(digests[i].digest()));
         }
-
         return checksumMap;
     }
+
+    /**
+     * @return the lowercase hex representation of the given bytes
+     */
+    public static String encodeHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+            hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xf];
+        }
+        return new String(hex);
+    }
 }
\ No newline at end of file
@@ -16,6 +16,7 @@
 
 package org.jfrog.build.api;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.jfrog.build.api.util.FileChecksumCalculator;
 import org.testng.Assert;
@@ -25,6 +26,7 @@ import java.io.*;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Map;
+import java.util.Random;
 
 import static org.testng.Assert.assertEquals;
 
@@ -98,6 +100,27 @@ public class FileChecksumCalculatorTest {
         assertEquals(checksumsMap.get("sha1"), sha1, "Unexpected test file SHA1 checksum value.");
     }
 
+    /**
+     * Tests the calculation of several checksums of files larger than the read buffer, and of an empty file
+     */
+    public void testMultipleAlgorithms() throws IOException, NoSuchAlgorithmException {
+        for (int size : new int[]{0, 1000, 65536, 200001}) {
+            byte[] content = new byte[size];
+            new Random(size).nextBytes(content);
+            File tempFile = File.createTempFile("moo", "test");
+            try {
+                FileUtils.writeByteArrayToFile(tempFile, content);
+                Map<String, String> checksumsMap = FileChecksumCalculator.calculateChecksums(tempFile,
+                        "md5", "sha1", FileChecksumCalculator.SHA256_ALGORITHM);
+                assertEquals(checksumsMap.get("md5"), DigestUtils.md5Hex(content));
+                assertEquals(checksumsMap.get("sha1"), DigestUtils.sha1Hex(content));
+                assertEquals(checksumsMap.get(FileChecksumCalculator.SHA256_ALGORITHM), DigestUtils.sha256Hex(content));
+            } finally {
+                FileUtils.deleteQuietly(tempFile);
+            }
+        }
+    }
+
     /**
      * Returns the checksum of the given file
      *
@@ -0,0 +1,126 @@
+package org.jfrog.build.api.util;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests the memoization of checksums by the ChecksumService class
+ */
+@Test
+public class ChecksumServiceTest {
+    private File workspace;
+
+    @BeforeMethod
+    public void createWorkspace() throws IOException {
+        ChecksumService.clear();
+        workspace = Files.createTempDirectory("checksum-service").toFile();
+    }
+
+    @AfterMethod
+    public void deleteWorkspace() throws IOException {
+        FileUtils.deleteDirectory(workspace);
+    }
+
+    public void testCalculatedOnce() throws IOException, NoSuchAlgorithmException {
+        File file = writeFile("file", "content");
+        assertEquals(ChecksumService.calculateChecksums(file, "md5", "sha1").get("sha1"), DigestUtils.sha1Hex("content"));
+
+        // Replace the content without changing the size and the last modified time, to detect whether it was read
+        long lastModified = file.lastModified();
+        FileUtils.writeStringToFile(file, "CONTENT", StandardCharsets.UTF_8);
+        assertEquals(file.setLastModified(lastModified), true);
+        Map<String, String> checksums = ChecksumService.calculateChecksums(file, "md5", "sha1");
+        assertEquals(checksums.get("md5"), DigestUtils.md5Hex("content"));
+        assertEquals(checksums.get("sha1"), DigestUtils.sha1Hex("content"));
+
+        // A modified file is read again
+        assertEquals(file.setLastModified(lastModified + 10000), true);
+        assertEquals(ChecksumService.calculateChecksums(file, "md5", "sha1").get("sha1"), DigestUtils.sha1Hex("CONTENT"));
+    }
+
+    public void testAdditionalAlgorithm() throws IOException, NoSuchAlgorithmException {
+        File file = writeFile("file", "content");
+        ChecksumService.calculateChecksums(file, "md5");
+        Map<String, String> checksums = ChecksumService.calculateChecksums(file, "sha1", FileChecksumCalculator.SHA256_ALGORITHM);
+        assertEquals(checksums.size(), 2);
+        assertEquals(checksums.get("sha1"), DigestUtils.sha1Hex("content"));
+        assertEquals(checksums.get(FileChecksumCalculator.SHA256_ALGORITHM), DigestUtils.sha256Hex("content"));
+    }
+
+    public void testCalculateInParallel() throws IOException, NoSuchAlgorithmException {
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            files.add(writeFile("file" + i, "content" + i));
+        }
+        Map<File, Map<String, String>> checksums = ChecksumService.calculateChecksums(files, "md5", "sha1");
+        assertEquals(checksums.size(), files.size());
+        for (int i = 0; i < files.size(); i++) {
+            assertEquals(checksums.get(files.get(i)).get("md5"), DigestUtils.md5Hex("content" + i));
+        }
+    }
+
+    public void testAdditionalAlgorithmWhileCalculating() throws Exception {
+        List<File> files = new ArrayList<>();
+        byte[] content = new byte[1024 * 1024];
+        for (int i = 0; i < 40; i++) {
+            content[0] = (byte) i;
+            File file = new File(workspace, "file" + i);
+            FileUtils.writeByteArrayToFile(file, content);
+            files.add(file);
+        }
+        // Request SHA-256 while MD5 and SHA-1 of the same files are still calculated
+        CompletableFuture<Map<File, Map<String, String>>> calculation = CompletableFuture.supplyAsync(() -> {
+            try {
+                return ChecksumService.calculateChecksums(files, "md5", "sha1");
+            } catch (IOException | NoSuchAlgorithmException e) {
+                throw new CompletionException(e);
+            }
+        });
+        for (int i = files.size() - 1; i >= 0; i--) {
+            content[0] = (byte) i;
+            Map<String, String> checksums = ChecksumService.calculateChecksums(files.get(i), FileChecksumCalculator.SHA256_ALGORITHM);
+            assertEquals(checksums.get(FileChecksumCalculator.SHA256_ALGORITHM), DigestUtils.sha256Hex(content));
+        }
+        Map<File, Map<String, String>> checksums = calculation.get(60, TimeUnit.SECONDS);
+        for (int i = 0; i < files.size(); i++) {
+            content[0] = (byte) i;
+            assertEquals(checksums.get(files.get(i)).get("sha1"), DigestUtils.sha1Hex(content));
+            // All the algorithms are kept
+            assertEquals(ChecksumService.calculateChecksums(files.get(i), "md5", FileChecksumCalculator.SHA256_ALGORITHM).get("md5"),
+                    DigestUtils.md5Hex(content));
+        }
+    }
+
+    @Test(expectedExceptions = NoSuchAlgorithmException.class)
+    public void testUnknownAlgorithm() throws IOException, NoSuchAlgorithmException {
+        ChecksumService.calculateChecksums(writeFile("file", "content"), "unknown");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNonExistingFile() throws IOException, NoSuchAlgorithmException {
+        ChecksumService.calculateChecksums(new File(workspace, "missing"), "md5");
+    }
+
+    private File writeFile(String name, String content) throws IOException {
+        File file = new File(workspace, name);
+        FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
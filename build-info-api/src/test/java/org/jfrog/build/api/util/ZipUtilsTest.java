@@ -0,0 +1,82 @@
+package org.jfrog.build.api.util;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests the extraction of archives by the ZipUtils class
+ */
+@Test
+public class ZipUtilsTest {
+    private static final int ENTRIES = 200;
+    private File workspace;
+    private File archive;
+
+    @BeforeMethod
+    public void createArchive() throws IOException {
+        workspace = Files.createTempDirectory("zip-utils").toFile();
+        archive = new File(workspace, "archive.zip");
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(new FileOutputStream(archive))) {
+            zipOutputStream.putNextEntry(new ZipEntry("dir/"));
+            for (int i = 0; i < ENTRIES; i++) {
+                zipOutputStream.putNextEntry(new ZipEntry("dir/sub" + (i % 10) + "/file" + i + ".txt"));
+                zipOutputStream.write(("content " + i).getBytes(StandardCharsets.UTF_8));
+            }
+            // Path traversal is removed from entry names
+            zipOutputStream.putNextEntry(new ZipEntry("../../outside.txt"));
+            zipOutputStream.write("outside".getBytes(StandardCharsets.UTF_8));
+            // The last entry of a duplicate name wins
+            zipOutputStream.putNextEntry(new ZipEntry("./dir/sub0/file0.txt"));
+            zipOutputStream.write("duplicate".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @AfterMethod
+    public void deleteWorkspace() throws IOException {
+        FileUtils.deleteDirectory(workspace);
+    }
+
+    public void testExtract() throws IOException {
+        File destination = new File(workspace, "sequential");
+        ZipUtils.extract(archive, destination);
+        assertExtracted(destination);
+    }
+
+    public void testExtractInParallel() throws IOException {
+        File destination = new File(workspace, "parallel");
+        ZipUtils.extract(archive, destination, 4);
+        assertExtracted(destination);
+    }
+
+    public void testIsSequentialArchive() {
+        for (String name : new String[]{"a.tar", "a.tar.gz", "a.tgz", "a.gz"}) {
+            assertTrue(ZipUtils.isSequentialArchive(name), name);
+        }
+        for (String name : new String[]{"a.zip", "a.jar", "a", "dir/a.txt"}) {
+            assertFalse(ZipUtils.isSequentialArchive(name), name);
+        }
+    }
+
+    private void assertExtracted(File destination) throws IOException {
+        for (int i = 1; i < ENTRIES; i++) {
+            assertEquals(FileUtils.readFileToString(new File(destination, "dir/sub" + (i % 10) + "/file" + i + ".txt"), StandardCharsets.UTF_8), "content " + i);
+        }
+        assertEquals(FileUtils.readFileToString(new File(destination, "dir/sub0/file0.txt"), StandardCharsets.UTF_8), "duplicate");
+        assertEquals(FileUtils.readFileToString(new File(destination, "outside.txt"), StandardCharsets.UTF_8), "outside");
+        assertFalse(new File(workspace, "outside.txt").exists());
+    }
+}
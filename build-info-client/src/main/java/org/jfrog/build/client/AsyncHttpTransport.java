@@ -0,0 +1,546 @@
+package org.jfrog.build.client;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpRequestInterceptor;
+import org.apache.hc.core5.http.UnsupportedHttpVersionException;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.nio.support.BasicRequestProducer;
+import org.apache.hc.core5.http.nio.support.classic.AbstractClassicEntityProducer;
+import org.apache.hc.core5.http.nio.support.classic.ContentInputStream;
+import org.apache.hc.core5.http.nio.support.classic.SharedInputBuffer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http2.H2ConnectionException;
+import org.apache.hc.core5.http2.impl.nio.ProtocolNegotiationException;
+import org.apache.hc.core5.net.URIAuthority;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.jfrog.build.api.util.Log;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Transport based on the non-blocking Apache HttpClient 5 engine.
+ * When the server negotiates HTTP/2 (using TLS ALPN), requests are multiplexed over a few connections instead of
+ * requiring a connection per concurrent request. If the server doesn't negotiate HTTP/2, all following requests are
+ * sent using the fallback transport.
+ * Requests sent by {@link #executeAsync(HttpUriRequest)} are always sent by the non-blocking engine, and the number of
+ * such requests in flight is bounded.
+ */
+public class AsyncHttpTransport implements HttpTransport {
+    public static final int DEFAULT_MAX_IN_FLIGHT_REQUESTS = 100;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Headers that are managed by the transport or not allowed in HTTP/2
+    private static final Set<String> EXCLUDED_HEADERS = new HashSet<>(Arrays.asList("connection", "keep-alive",
+            "proxy-connection", "transfer-encoding", "upgrade", "host", "content-length", "expect"));
+
+    // Schedules the retries of all the transports. The scheduled tasks only send the requests without blocking.
+    private static final ScheduledExecutorService RETRY_EXECUTOR = Executors.newSingleThreadScheduledExecutor(createThreadFactory("jfrog-http-retry"));
+
+    private final CloseableHttpAsyncClient client;
+    private final HttpTransport fallback;
+    private final RequestRetryPolicy retryPolicy;
+    private final Semaphore inFlightRequests;
+    // Threads writing the request bodies to the non-blocking engine, and completing the futures returned by
+    // executeAsync, so that callbacks never run on the I/O dispatch threads. Idle threads are released.
+    private final ThreadPoolExecutor workerExecutor;
+    private volatile boolean closed;
+    // Null until the first response is received
+    private volatile Boolean http2Negotiated;
+    private final Log log;
+
+    /**
+     * @param client      - Started async http client
+     * @param fallback    - Transport to use if the server doesn't negotiate HTTP/2, or null to keep using the async client
+     * @param retryPolicy - Decides which failed requests are retried, like the blocking http client
+     * @param maxInFlight - Max requests sent by executeAsync that are not completed yet
+     * @param log         - The logger
+     */
+    AsyncHttpTransport(CloseableHttpAsyncClient client, HttpTransport fallback, RequestRetryPolicy retryPolicy, int maxInFlight, Log log) {
+        this.client = client;
+        this.fallback = fallback;
+        this.retryPolicy = retryPolicy;
+        int maxInFlightRequests = maxInFlight > 0 ? maxInFlight : DEFAULT_MAX_IN_FLIGHT_REQUESTS;
+        this.inFlightRequests = new Semaphore(maxInFlightRequests);
+        this.workerExecutor = new ThreadPoolExecutor(maxInFlightRequests, maxInFlightRequests, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), createThreadFactory("jfrog-http-worker"));
+        this.workerExecutor.allowCoreThreadTimeOut(true);
+        this.log = log;
+    }
+
+    /**
+     * @return true if the server negotiated HTTP/2, false if it didn't, or null if no response was received yet.
+     */
+    public Boolean isHttp2Negotiated() {
+        return http2Negotiated;
+    }
+
+    @Override
+    public CloseableHttpResponse execute(HttpUriRequest request) throws IOException {
+        if (fallback != null && Boolean.FALSE.equals(http2Negotiated)) {
+            return fallback.execute(request);
+        }
+        for (int executionCount = 1; ; executionCount++) {
+            CloseableHttpResponse response;
+            try {
+                response = getResponse(send(request));
+            } catch (IOException e) {
+                if (fallback != null && http2Negotiated == null && isRepeatable(request) && isProtocolNegotiationFailure(e)) {
+                    log.debug("Request " + request.getRequestLine() + " failed: " + e.getMessage() + ". Falling back to HTTP/1.1.");
+                    http2Negotiated = false;
+                    return fallback.execute(request);
+                }
+                // Don't retry after the calling thread was interrupted
+                long interval = retryPolicy.getRetryInterval(request, e, executionCount,
+                        isRepeatable(request) && !Thread.currentThread().isInterrupted());
+                if (interval < 0) {
+                    throw e;
+                }
+                waitBeforeRetry(interval);
+                continue;
+            }
+            if (fallback != null && Boolean.FALSE.equals(http2Negotiated)) {
+                log.debug("HTTP/2 was not negotiated by the server. Using HTTP/1.1 for the next requests.");
+            }
+            long interval = retryPolicy.getRetryInterval(request, response, executionCount, isRepeatable(request));
+            if (interval < 0) {
+                return response;
+            }
+            response.close();
+            waitBeforeRetry(interval);
+        }
+    }
+
+    /**
+     * Send the request without blocking, retrying failed requests like {@link #execute(HttpUriRequest)}.
+     * The returned future completes as soon as the response headers are received, while the response body is streamed
+     * through the entity of the response. The caller must close the response.
+     * If the max number of requests are already in flight, this method blocks until one of them completes.
+     *
+     * @param request - The request to send. Its URI must be absolute.
+     * @return future of the response.
+     */
+    public CompletableFuture<CloseableHttpResponse> executeAsync(HttpUriRequest request) {
+        CompletableFuture<CloseableHttpResponse> result = new CompletableFuture<>();
+        try {
+            inFlightRequests.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(new InterruptedIOException("Interrupted while waiting to send request"));
+            return result;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable releasePermit = () -> {
+            if (released.compareAndSet(false, true)) {
+                inFlightRequests.release();
+            }
+        };
+        try {
+            sendWithRetries(request, 1, result, releasePermit);
+        } catch (RuntimeException e) {
+            releasePermit.run();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Send the request and complete the result with the response, or retry if the request failed.
+     * Runs on the I/O dispatch threads, and therefore must never block.
+     */
+    private void sendWithRetries(HttpUriRequest request, int executionCount, CompletableFuture<CloseableHttpResponse> result, Runnable releasePermit) {
+        if (result.isDone()) {
+            // Cancelled by the caller
+            releasePermit.run();
+            return;
+        }
+        send(request).whenComplete((response, throwable) -> {
+            if (throwable != null) {
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                long interval = cause instanceof IOException ? retryPolicy.getRetryInterval(request, (IOException) cause,
+                        executionCount, isRepeatable(request) && !result.isDone()) : -1;
+                if (interval < 0) {
+                    releasePermit.run();
+                    runCallback(() -> result.completeExceptionally(cause));
+                    return;
+                }
+                scheduleRetry(request, interval, executionCount, result, releasePermit);
+                return;
+            }
+            long interval = retryPolicy.getRetryInterval(request, response, executionCount, isRepeatable(request));
+            if (interval < 0) {
+                response.consumer.setOnExchangeEnd(releasePermit);
+                runCallback(() -> {
+                    if (!result.complete(response)) {
+                        // Cancelled by the caller
+                        response.close();
+                    }
+                });
+                return;
+            }
+            response.close();
+            scheduleRetry(request, interval, executionCount, result, releasePermit);
+        });
+    }
+
+    private void scheduleRetry(HttpUriRequest request, long interval, int executionCount, CompletableFuture<CloseableHttpResponse> result, Runnable releasePermit) {
+        RETRY_EXECUTOR.schedule(() -> {
+            if (closed) {
+                releasePermit.run();
+                runCallback(() -> result.completeExceptionally(new IOException("Transport closed")));
+                return;
+            }
+            sendWithRetries(request, executionCount + 1, result, releasePermit);
+        }, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Send the request once. The returned future is completed by the I/O dispatch threads.
+     *
+     * @param request - The request to send
+     * @return future of the response.
+     */
+    private CompletableFuture<StreamingResponse> send(HttpUriRequest request) {
+        BasicHttpRequest asyncRequest = new BasicHttpRequest(request.getMethod(), request.getURI());
+        for (Header header : request.getAllHeaders()) {
+            if (!EXCLUDED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                asyncRequest.addHeader(header.getName(), header.getValue());
+            }
+        }
+        StreamingResponseConsumer responseConsumer = new StreamingResponseConsumer();
+        Future<Void> exchange = client.execute(new BasicRequestProducer(asyncRequest, createEntityProducer(request)),
+                responseConsumer, null, HttpClientContext.create(), null);
+        responseConsumer.exchange.set(exchange);
+        return responseConsumer.responseFuture;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            client.close();
+        } catch (IOException e) {
+            // Do nothing
+        }
+        workerExecutor.shutdown();
+    }
+
+    /**
+     * Complete the future returned by executeAsync on a callback thread. If the transport is closed, complete it on the
+     * current thread.
+     */
+    private void runCallback(Runnable callback) {
+        try {
+            workerExecutor.execute(callback);
+        } catch (RejectedExecutionException e) {
+            callback.run();
+        }
+    }
+
+    private static ThreadFactory createThreadFactory(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private CloseableHttpResponse getResponse(CompletableFuture<? extends CloseableHttpResponse> responseFuture) throws IOException {
+        try {
+            return responseFuture.get();
+        } catch (InterruptedException e) {
+            responseFuture.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for response");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private void waitBeforeRetry(long interval) throws InterruptedIOException {
+        try {
+            Thread.sleep(interval);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting before retry");
+        }
+    }
+
+    /**
+     * @return true if the input exception was caused by a failure to negotiate the protocol with the server - ALPN or
+     * HTTP/2 errors, as opposed to I/O errors like timeouts or refused connections, which are retried as usual.
+     */
+    static boolean isProtocolNegotiationFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ProtocolNegotiationException || cause instanceof H2ConnectionException ||
+                    cause instanceof UnsupportedHttpVersionException) {
+                return true;
+            }
+            if (cause instanceof SSLException && (StringUtils.containsIgnoreCase(cause.getMessage(), "ALPN") ||
+                    StringUtils.containsIgnoreCase(cause.getMessage(), "application_protocol"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isRepeatable(HttpUriRequest request) {
+        if (!(request instanceof HttpEntityEnclosingRequest)) {
+            return true;
+        }
+        HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+        return entity == null || entity.isRepeatable();
+    }
+
+    private AsyncEntityProducer createEntityProducer(HttpUriRequest request) {
+        if (!(request instanceof HttpEntityEnclosingRequest)) {
+            return null;
+        }
+        HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+        if (entity == null) {
+            return null;
+        }
+        ContentType contentType = entity.getContentType() == null ? null : ContentType.parseLenient(entity.getContentType().getValue());
+        return new AbstractClassicEntityProducer(BUFFER_SIZE, contentType, workerExecutor) {
+            @Override
+            protected void produceData(ContentType contentType, OutputStream outputStream) throws IOException {
+                entity.writeTo(outputStream);
+            }
+        };
+    }
+
+    /**
+     * Add the authorization header to requests sent to the JFrog server.
+     * Requests redirected to a different host (for example to a cloud storage) are sent without it.
+     */
+    static class PreemptiveAuth implements HttpRequestInterceptor {
+        private final String host;
+        private final String authorization;
+
+        PreemptiveAuth(String host, String authorization) {
+            this.host = host;
+            this.authorization = authorization;
+        }
+
+        @Override
+        public void process(org.apache.hc.core5.http.HttpRequest request, EntityDetails entity, HttpContext context) {
+            URIAuthority authority = request.getAuthority();
+            if (authority == null || !StringUtils.equalsIgnoreCase(host, authority.getHostName())) {
+                return;
+            }
+            if (!request.containsHeader("Authorization")) {
+                request.addHeader("Authorization", authorization);
+            }
+        }
+    }
+
+    /**
+     * Completes the response future when the response headers arrive, and streams the response body through a
+     * bounded buffer. The engine stops reading from the connection when the buffer is full.
+     */
+    private class StreamingResponseConsumer implements AsyncResponseConsumer<Void> {
+        private final CompletableFuture<StreamingResponse> responseFuture = new CompletableFuture<>();
+        private final AtomicReference<Future<Void>> exchange = new AtomicReference<>();
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+        private final SharedInputBuffer buffer = new SharedInputBuffer(BUFFER_SIZE);
+        private final AtomicBoolean exchangeEnded = new AtomicBoolean();
+        private final AtomicReference<Runnable> onExchangeEnd = new AtomicReference<>();
+        private volatile FutureCallback<Void> resultCallback;
+
+        @Override
+        public void consumeResponse(org.apache.hc.core5.http.HttpResponse response, EntityDetails entityDetails,
+                                    HttpContext context, FutureCallback<Void> resultCallback) {
+            org.apache.hc.core5.http.ProtocolVersion version = context.getProtocolVersion();
+            if (http2Negotiated == null && version != null) {
+                http2Negotiated = version.getMajor() >= 2;
+            }
+            this.resultCallback = resultCallback;
+            ProtocolVersion protocolVersion = version == null ? new ProtocolVersion("HTTP", 1, 1) :
+                    new ProtocolVersion(version.getProtocol(), version.getMajor(), version.getMinor());
+            int statusCode = response.getCode();
+            String reasonPhrase = StringUtils.defaultIfEmpty(response.getReasonPhrase(),
+                    EnglishReasonPhraseCatalog.INSTANCE.getReason(statusCode, null));
+            StreamingResponse streamingResponse = new StreamingResponse(new BasicStatusLine(protocolVersion, statusCode, reasonPhrase), this);
+            for (org.apache.hc.core5.http.Header header : response.getHeaders()) {
+                streamingResponse.addHeader(header.getName(), header.getValue());
+            }
+            if (entityDetails != null) {
+                BasicHttpEntity entity = new BasicHttpEntity();
+                entity.setContent(new ResponseInputStream(this));
+                entity.setContentLength(entityDetails.getContentLength());
+                entity.setContentType(entityDetails.getContentType());
+                entity.setContentEncoding(entityDetails.getContentEncoding());
+                streamingResponse.setEntity(entity);
+            } else {
+                resultCallback.completed(null);
+                exchangeEnded();
+            }
+            responseFuture.complete(streamingResponse);
+        }
+
+        @Override
+        public void informationResponse(org.apache.hc.core5.http.HttpResponse response, HttpContext context) {
+        }
+
+        @Override
+        public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+            buffer.updateCapacity(capacityChannel);
+        }
+
+        @Override
+        public void consume(ByteBuffer src) {
+            buffer.fill(src);
+        }
+
+        @Override
+        public void streamEnd(List<? extends org.apache.hc.core5.http.Header> trailers) {
+            buffer.markEndStream();
+            if (resultCallback != null) {
+                resultCallback.completed(null);
+            }
+            exchangeEnded();
+        }
+
+        @Override
+        public void failed(Exception cause) {
+            failure.set(cause);
+            buffer.abort();
+            responseFuture.completeExceptionally(cause);
+            exchangeEnded();
+        }
+
+        @Override
+        public void releaseResources() {
+            exchangeEnded();
+        }
+
+        /**
+         * Run the input action once the exchange ends - when the response body is fully received, the exchange fails or
+         * the response is closed. If the exchange already ended, the action runs immediately.
+         */
+        private void setOnExchangeEnd(Runnable action) {
+            onExchangeEnd.set(action);
+            if (exchangeEnded.get()) {
+                runOnExchangeEnd();
+            }
+        }
+
+        private void exchangeEnded() {
+            exchangeEnded.set(true);
+            runOnExchangeEnd();
+        }
+
+        private void runOnExchangeEnd() {
+            Runnable action = onExchangeEnd.getAndSet(null);
+            if (action != null) {
+                action.run();
+            }
+        }
+
+        /**
+         * Stop receiving the response body.
+         */
+        private void cancel() {
+            if (buffer.isEndStream()) {
+                return;
+            }
+            buffer.abort();
+            Future<Void> future = exchange.get();
+            if (future != null) {
+                future.cancel(true);
+            }
+            exchangeEnded();
+        }
+    }
+
+    private static class ResponseInputStream extends ContentInputStream {
+        private final StreamingResponseConsumer consumer;
+
+        private ResponseInputStream(StreamingResponseConsumer consumer) {
+            super(consumer.buffer);
+            this.consumer = consumer;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return checkFailure(super.read(b, off, len));
+        }
+
+        @Override
+        public int read() throws IOException {
+            return checkFailure(super.read());
+        }
+
+        @Override
+        public void close() {
+            consumer.cancel();
+        }
+
+        /**
+         * The buffer signals end of stream after a failure. Make sure a truncated response body is not mistaken for a complete one.
+         */
+        private int checkFailure(int result) throws IOException {
+            Exception cause = consumer.failure.get();
+            if (result == -1 && cause != null) {
+                throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+            }
+            return result;
+        }
+    }
+
+    private static class StreamingResponse extends BasicHttpResponse implements CloseableHttpResponse {
+        private final StreamingResponseConsumer consumer;
+
+        private StreamingResponse(BasicStatusLine statusLine, StreamingResponseConsumer consumer) {
+            super(statusLine);
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void close() {
+            consumer.cancel();
+        }
+    }
+}
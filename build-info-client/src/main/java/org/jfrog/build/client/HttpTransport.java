@@ -0,0 +1,21 @@
+package org.jfrog.build.client;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+
+import java.io.IOException;
+
+/**
+ * Sends the requests of a {@link JFrogHttpClient}.
+ * The request URI is absolute at this point, and the transport is in charge of authentication, retries and redirects.
+ */
+public interface HttpTransport extends AutoCloseable {
+
+    CloseableHttpResponse execute(HttpUriRequest request) throws IOException;
+
+    /**
+     * Release all connections and cleanup resources.
+     */
+    @Override
+    void close();
+}
@@ -24,6 +24,13 @@ import org.jfrog.build.api.util.Log;
 import javax.net.ssl.SSLContext;
 import java.io.IOException;
 import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Noam Y. Tenne
@@ -36,8 +43,17 @@ public class JFrogHttpClient implements AutoCloseable {
     public static final int DEFAULT_CONNECTION_RETRY = 3;
     private final String url;
     private final PreemptiveHttpClientBuilder clientBuilder;
+    private final AtomicInteger versionRequestsCount = new AtomicInteger();
 
-    private PreemptiveHttpClient deployClient;
+    private volatile PreemptiveHttpClient deployClient;
+    private volatile AsyncHttpTransport asyncTransport;
+    // Threads sending the requests of sendRequestAsync by the blocking http client, when HTTP/2 is disabled
+    private volatile ThreadPoolExecutor requestExecutor;
+    private List<Object> sharedClientKey;
+    private List<Object> sharedAsyncTransportKey;
+    private boolean shareHttpClient;
+    private boolean http2;
+    private volatile ArtifactoryVersion artifactoryVersion;
     private Log log;
 
     private JFrogHttpClient(String url, String username, String password, String accessToken, Log log) {
@@ -120,33 +136,262 @@ public class JFrogHttpClient implements AutoCloseable {
         clientBuilder.setConnectionRetries(connectionRetries);
     }
 
+    /**
+     * Wait time before the first retry. The wait time grows exponentially on the next retries.
+     *
+     * @param retryInitialInterval Wait time in milliseconds, 0 to retry immediately.
+     */
+    public void setRetryInitialInterval(int retryInitialInterval) {
+        clientBuilder.setRetryInitialInterval(retryInitialInterval);
+    }
+
+    /**
+     * Max wait time between retries.
+     *
+     * @param retryMaxInterval Wait time in milliseconds.
+     */
+    public void setRetryMaxInterval(int retryMaxInterval) {
+        clientBuilder.setRetryMaxInterval(retryMaxInterval);
+    }
+
     public ProxyConfiguration getProxyConfiguration() {
         return clientBuilder.getProxyConfiguration();
     }
 
+    /**
+     * Share the underlying http client and async transport, and therefore their connection pools, with other JFrog
+     * http clients having the same URL, credentials, proxy, connection settings and log. Must be set before the first request.
+     *
+     * @param shareHttpClient True to take the http client and async transport from the {@link SharedHttpClientRegistry}.
+     */
+    public void setShareHttpClient(boolean shareHttpClient) {
+        this.shareHttpClient = shareHttpClient;
+    }
+
+    public boolean isHttp2() {
+        return http2;
+    }
+
+    /**
+     * Send the requests over HTTP/2 if the server supports it, so that concurrent requests are multiplexed over a few
+     * connections. If the server doesn't negotiate HTTP/2, the client falls back to HTTP/1.1. Must be set before the first request.
+     *
+     * @param http2 True to try HTTP/2.
+     */
+    public void setHttp2(boolean http2) {
+        this.http2 = http2;
+    }
+
+    public int getMaxInFlightRequests() {
+        return clientBuilder.getMaxInFlightRequests();
+    }
+
+    /**
+     * Max requests sent by {@link #sendRequestAsync(HttpRequestBase)} at the same time. Without HTTP/2, this is also
+     * the number of threads sending these requests. Must be set before the first request.
+     *
+     * @param maxInFlightRequests The max number of in flight asynchronous requests.
+     */
+    public void setMaxInFlightRequests(int maxInFlightRequests) {
+        clientBuilder.setMaxInFlightRequests(maxInFlightRequests);
+    }
+
+    public int getMaxTotalConnections() {
+        return clientBuilder.getMaxTotalConnections();
+    }
+
+    /**
+     * Max connections in the connection pool.
+     *
+     * @param maxTotalConnections The max number of pooled connections.
+     */
+    public void setMaxTotalConnections(int maxTotalConnections) {
+        clientBuilder.setMaxTotalConnections(maxTotalConnections);
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return clientBuilder.getMaxConnectionsPerRoute();
+    }
+
+    /**
+     * Max connections in the connection pool per route (target host).
+     *
+     * @param maxConnectionsPerRoute The max number of pooled connections per route.
+     */
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        clientBuilder.setMaxConnectionsPerRoute(maxConnectionsPerRoute);
+    }
+
     /**
      * Release all connection and cleanup resources.
      */
     @Override
-    public void close() {
-        if (deployClient != null) {
+    public synchronized void close() {
+        if (requestExecutor != null) {
+            requestExecutor.shutdown();
+            requestExecutor = null;
+        }
+        if (asyncTransport != null) {
+            if (sharedAsyncTransportKey != null) {
+                SharedHttpClientRegistry.release(sharedAsyncTransportKey);
+                sharedAsyncTransportKey = null;
+            } else {
+                asyncTransport.close();
+            }
+            asyncTransport = null;
+        }
+        if (deployClient == null) {
+            return;
+        }
+        if (sharedClientKey != null) {
+            SharedHttpClientRegistry.release(sharedClientKey);
+            sharedClientKey = null;
+        } else {
             deployClient.close();
         }
+        deployClient = null;
     }
 
     public PreemptiveHttpClient getHttpClient() {
         if (deployClient == null) {
-            deployClient = clientBuilder.build();
+            synchronized (this) {
+                if (deployClient == null) {
+                    if (shareHttpClient) {
+                        sharedClientKey = clientBuilder.createSharingKey(url);
+                        deployClient = SharedHttpClientRegistry.acquire(sharedClientKey, clientBuilder);
+                    } else {
+                        deployClient = clientBuilder.build();
+                    }
+                }
+            }
         }
         return deployClient;
     }
 
+    /**
+     * @return the transport sending the requests of this client - HTTP/2 capable if enabled, or the http client otherwise.
+     */
+    public HttpTransport getTransport() {
+        return http2 ? getAsyncTransport() : getHttpClient();
+    }
+
+    /**
+     * @return the transport sending the asynchronous requests of this client.
+     */
+    public AsyncHttpTransport getAsyncTransport() {
+        if (asyncTransport == null) {
+            synchronized (this) {
+                if (asyncTransport == null) {
+                    if (shareHttpClient) {
+                        List<Object> key = clientBuilder.createSharingKey(url);
+                        sharedAsyncTransportKey = SharedHttpClientRegistry.createAsyncTransportKey(key, clientBuilder, http2);
+                        asyncTransport = SharedHttpClientRegistry.acquireAsyncTransport(key, clientBuilder, url, http2);
+                    } else {
+                        asyncTransport = clientBuilder.buildAsyncTransport(url, http2 ? getHttpClient() : null);
+                    }
+                }
+            }
+        }
+        return asyncTransport;
+    }
+
     public CloseableHttpResponse sendRequest(HttpRequestBase request) throws IOException {
         log.debug("Base URL: " + request.getURI().toString());
+        HttpTransport client = getTransport();
+        setAbsoluteUri(request);
+        return client.execute(request);
+    }
+
+    /**
+     * Send the request without blocking the calling thread while waiting for the response.
+     * If HTTP/2 is enabled, the request is sent by the non-blocking async transport.
+     * Otherwise, this method is only a thread pool facade over the blocking http client: the request is sent on one
+     * of up to {@link #getMaxInFlightRequests()} threads of this client, which is blocked until the response headers
+     * are received. Further requests wait in an unbounded queue.
+     * The returned future completes when the response headers are received. The caller must close the response.
+     *
+     * @param request - The request to send. Its URI is relative to the server URL.
+     * @return future of the response.
+     */
+    public CompletableFuture<CloseableHttpResponse> sendRequestAsync(HttpRequestBase request) {
+        log.debug("Base URL: " + request.getURI().toString());
+        if (http2) {
+            AsyncHttpTransport client = getAsyncTransport();
+            setAbsoluteUri(request);
+            return client.executeAsync(request);
+        }
         PreemptiveHttpClient client = getHttpClient();
+        setAbsoluteUri(request);
+        CompletableFuture<CloseableHttpResponse> result = new CompletableFuture<>();
+        try {
+            getRequestExecutor().execute(() -> {
+                if (result.isDone()) {
+                    // Cancelled by the caller
+                    return;
+                }
+                try {
+                    CloseableHttpResponse response = client.execute(request);
+                    if (!result.complete(response)) {
+                        response.close();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new IOException("Client closed", e));
+        }
+        return result;
+    }
+
+    private ThreadPoolExecutor getRequestExecutor() {
+        if (requestExecutor == null) {
+            synchronized (this) {
+                if (requestExecutor == null) {
+                    int threads = clientBuilder.getMaxInFlightRequests() > 0 ? clientBuilder.getMaxInFlightRequests() :
+                            AsyncHttpTransport.DEFAULT_MAX_IN_FLIGHT_REQUESTS;
+                    ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "jfrog-http-request");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    executor.allowCoreThreadTimeOut(true);
+                    requestExecutor = executor;
+                }
+            }
+        }
+        return requestExecutor;
+    }
+
+    private void setAbsoluteUri(HttpRequestBase request) {
         String url = request.getURI().toString();
         request.setURI(URI.create((this.url + "/" + StringUtils.removeStart(url, "/"))));
-        return client.execute(request);
+    }
+
+    /**
+     * Version of the server this client is connected to, as returned by the first successful version request.
+     *
+     * @return the cached version or null if the version has not been fetched yet.
+     */
+    public ArtifactoryVersion getArtifactoryVersion() {
+        return artifactoryVersion;
+    }
+
+    public void setArtifactoryVersion(ArtifactoryVersion artifactoryVersion) {
+        this.artifactoryVersion = artifactoryVersion;
+    }
+
+    /**
+     * Number of version requests actually sent to the server by this client.
+     * Requests answered from the cached version are not counted.
+     */
+    public int getVersionRequestsCount() {
+        return versionRequestsCount.get();
+    }
+
+    public void incrementVersionRequestsCount() {
+        versionRequestsCount.incrementAndGet();
     }
 
     public Log getLog() {
@@ -45,7 +45,7 @@ import java.util.Set;
  *
  * @author Yossi Shaul
  */
-public class PreemptiveHttpClient implements AutoCloseable {
+public class PreemptiveHttpClient implements HttpTransport {
 
     private static final boolean REQUEST_SENT_RETRY_ENABLED = true;
     /**
@@ -58,23 +58,31 @@ public class PreemptiveHttpClient implements AutoCloseable {
     private final AuthCache authCache;
     private final CloseableHttpClient httpClient;
     private final int connectionRetries;
+    private final RetryBackoffPolicy retryBackoffPolicy;
+    private volatile RequestRetryPolicy retryPolicy;
     private Log log;
 
     public PreemptiveHttpClient(PoolingHttpClientConnectionManager connectionManager, BasicCredentialsProvider credentialsProvider, String accessToken, AuthCache authCache, HttpClientBuilder clientBuilder, int connectionRetries, Log log) {
+        this(connectionManager, credentialsProvider, accessToken, authCache, clientBuilder, connectionRetries, new RetryBackoffPolicy(), log);
+    }
+
+    public PreemptiveHttpClient(PoolingHttpClientConnectionManager connectionManager, BasicCredentialsProvider credentialsProvider, String accessToken, AuthCache authCache, HttpClientBuilder clientBuilder, int connectionRetries, RetryBackoffPolicy retryBackoffPolicy, Log log) {
         this.connectionManager = connectionManager;
         this.basicCredentialsProvider = credentialsProvider;
         this.accessToken = accessToken;
         this.authCache = authCache;
         this.connectionRetries = connectionRetries;
+        this.retryBackoffPolicy = retryBackoffPolicy;
         this.log = log;
+        this.retryPolicy = new RequestRetryPolicy(connectionRetries, retryBackoffPolicy, log);
 
-        int retryCount = connectionRetries < 0 ? JFrogHttpClient.DEFAULT_CONNECTION_RETRY : connectionRetries;
-        clientBuilder.setRetryHandler(new PreemptiveHttpClient.PreemptiveRetryHandler(retryCount));
+        clientBuilder.setRetryHandler(new PreemptiveHttpClient.PreemptiveRetryHandler(retryPolicy.getConnectionRetries()));
         clientBuilder.setServiceUnavailableRetryStrategy(new PreemptiveHttpClient.PreemptiveRetryStrategy());
         clientBuilder.setRedirectStrategy(new PreemptiveHttpClient.PreemptiveRedirectStrategy());
         this.httpClient = clientBuilder.build();
     }
 
+    @Override
     public CloseableHttpResponse execute(HttpUriRequest request) throws IOException {
         HttpClientContext clientContext = HttpClientContext.create();
         if (StringUtils.isNotEmpty(accessToken)) {
@@ -100,6 +108,7 @@ public class PreemptiveHttpClient implements AutoCloseable {
 
     public void setLog(Log log) {
         this.log = log;
+        this.retryPolicy = new RequestRetryPolicy(connectionRetries, retryBackoffPolicy, log);
     }
 
     /**
@@ -168,27 +177,24 @@ public class PreemptiveHttpClient implements AutoCloseable {
      */
 
     private class PreemptiveRetryStrategy implements ServiceUnavailableRetryStrategy {
+        // The strategy is shared between threads. The interval is calculated in retryRequest() and read right after
+        // that by getRetryInterval() on the same thread.
+        private final ThreadLocal<Long> retryInterval = ThreadLocal.withInitial(() -> 0L);
 
         @Override
         public boolean retryRequest(HttpResponse response, int executionCount, HttpContext context) {
-            // Code 500 means an unexpected behavior of Artifactory, thus we should not retry.
-            if (response.getStatusLine().getStatusCode() > 500) {
-                HttpClientContext clientContext = HttpClientContext.adapt(context);
-                log.warn("Error occurred for request " + clientContext.getRequest().getRequestLine().toString() +
-                        ". Received status code " + response.getStatusLine().getStatusCode() +
-                        " and message: " + response.getStatusLine().getReasonPhrase() + ".");
-                if (executionCount <= connectionRetries) {
-                    log.warn("Attempting retry #" + executionCount);
-                    return true;
-                }
+            HttpClientContext clientContext = HttpClientContext.adapt(context);
+            long interval = retryPolicy.getRetryInterval(clientContext.getRequest(), response, executionCount, true);
+            if (interval < 0) {
+                return false;
             }
-
-            return false;
+            retryInterval.set(interval);
+            return true;
         }
 
         @Override
         public long getRetryInterval() {
-            return 0;
+            return retryInterval.get();
         }
     }
 
@@ -205,17 +211,29 @@ public class PreemptiveHttpClient implements AutoCloseable {
         @Override
         public boolean retryRequest(IOException exception, int executionCount, HttpContext context) {
             HttpClientContext clientContext = HttpClientContext.adapt(context);
-            log.warn("Error occurred for request " + clientContext.getRequest().getRequestLine().toString() + ": " + exception.getMessage() + ".");
-            if (executionCount > connectionRetries) {
-                return false;
+            // The default handler doesn't retry aborted requests, and requests that can't be resent
+            boolean repeatable = super.retryRequest(exception, executionCount, context);
+            long interval = retryPolicy.getRetryInterval(clientContext.getRequest(), exception, executionCount, repeatable);
+            return interval >= 0 && waitBeforeRetry(interval);
+        }
+
+        /**
+         * The retry handler has no retry interval of its own, so wait here before letting the client retry.
+         *
+         * @param interval - Wait time in milliseconds
+         * @return false if the thread was interrupted while waiting, so that the request would not be retried.
+         */
+        private boolean waitBeforeRetry(long interval) {
+            if (interval <= 0) {
+                return true;
             }
-            boolean shouldRetry = super.retryRequest(exception, executionCount, context);
-            if (shouldRetry) {
-                log.warn("Attempting retry #" + executionCount);
+            try {
+                Thread.sleep(interval);
                 return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
             }
-
-            return false;
         }
     }
 
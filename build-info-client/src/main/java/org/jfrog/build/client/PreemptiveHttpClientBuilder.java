@@ -1,6 +1,14 @@
 package org.jfrog.build.client;
 
+import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.lang.StringUtils;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.util.Timeout;
 import org.apache.http.HttpHost;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
@@ -36,7 +44,11 @@ import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
 
 public class PreemptiveHttpClientBuilder {
@@ -49,6 +61,11 @@ public class PreemptiveHttpClientBuilder {
     protected AuthCache authCache = new BasicAuthCache();
     protected String accessToken = StringUtils.EMPTY;
     protected int connectionRetries;
+    protected int maxTotalConnections = CONNECTION_POOL_SIZE;
+    protected int maxConnectionsPerRoute = CONNECTION_POOL_SIZE;
+    protected int retryInitialInterval = RetryBackoffPolicy.DEFAULT_INITIAL_INTERVAL_MILLIS;
+    protected int retryMaxInterval = RetryBackoffPolicy.DEFAULT_MAX_INTERVAL_MILLIS;
+    protected int maxInFlightRequests = AsyncHttpTransport.DEFAULT_MAX_IN_FLIGHT_REQUESTS;
     protected Log log;
 
     private ProxyConfiguration proxyConfiguration;
@@ -111,6 +128,43 @@ public class PreemptiveHttpClientBuilder {
         return this;
     }
 
+    public PreemptiveHttpClientBuilder setRetryInitialInterval(int retryInitialInterval) {
+        this.retryInitialInterval = retryInitialInterval;
+        return this;
+    }
+
+    public PreemptiveHttpClientBuilder setRetryMaxInterval(int retryMaxInterval) {
+        this.retryMaxInterval = retryMaxInterval;
+        return this;
+    }
+
+    public PreemptiveHttpClientBuilder setMaxTotalConnections(int maxTotalConnections) {
+        this.maxTotalConnections = maxTotalConnections;
+        return this;
+    }
+
+    public int getMaxTotalConnections() {
+        return maxTotalConnections;
+    }
+
+    public PreemptiveHttpClientBuilder setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        return this;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public PreemptiveHttpClientBuilder setMaxInFlightRequests(int maxInFlightRequests) {
+        this.maxInFlightRequests = maxInFlightRequests;
+        return this;
+    }
+
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
     public PreemptiveHttpClientBuilder setInsecureTls(boolean insecureTls) {
         this.insecureTls = insecureTls;
         return this;
@@ -130,7 +184,93 @@ public class PreemptiveHttpClientBuilder {
         buildConnectionManager();
         HttpClientBuilder httpClientBuilder = createHttpClientBuilder();
         createCredentialsAndAuthCache();
-        return new PreemptiveHttpClient(connectionManager, credentialsProvider, accessToken, authCache, httpClientBuilder, connectionRetries, log);
+        RetryBackoffPolicy retryBackoffPolicy = new RetryBackoffPolicy(retryInitialInterval, retryMaxInterval);
+        return new PreemptiveHttpClient(connectionManager, credentialsProvider, accessToken, authCache, httpClientBuilder, connectionRetries, retryBackoffPolicy, log);
+    }
+
+    /**
+     * Build a transport sending the requests over HTTP/2 when the server supports it.
+     * The transport uses the same credentials, proxy, TLS, timeout, retry and connection pool settings as the clients
+     * built by {@link #build()}.
+     *
+     * @param url      - The server URL. Credentials are sent preemptively only to its host.
+     * @param fallback - Transport to use if the server doesn't negotiate HTTP/2, or null to always use the async client
+     * @return the transport.
+     */
+    public AsyncHttpTransport buildAsyncTransport(String url, HttpTransport fallback) {
+        ClientTlsStrategyBuilder tlsStrategyBuilder = ClientTlsStrategyBuilder.create();
+        if (insecureTls) {
+            try {
+                tlsStrategyBuilder.setSslContext(SSLContextBuilder.create().loadTrustMaterial(TrustAllStrategy.INSTANCE).build())
+                        .setHostnameVerifier(NoopHostnameVerifier.INSTANCE);
+            } catch (GeneralSecurityException e) {
+                throw new RuntimeException(e);
+            }
+        } else if (sslContext != null) {
+            tlsStrategyBuilder.setSslContext(sslContext);
+        }
+        Timeout timeout = Timeout.ofSeconds(this.timeout);
+        HttpAsyncClientBuilder builder = HttpAsyncClients.custom()
+                .setVersionPolicy(HttpVersionPolicy.NEGOTIATE)
+                .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+                        .setTlsStrategy(tlsStrategyBuilder.build())
+                        .setMaxConnTotal(maxTotalConnections)
+                        .setMaxConnPerRoute(maxConnectionsPerRoute)
+                        .build())
+                .setDefaultRequestConfig(org.apache.hc.client5.http.config.RequestConfig.custom()
+                        .setConnectTimeout(timeout)
+                        .setResponseTimeout(timeout)
+                        .setCircularRedirectsAllowed(true)
+                        .build())
+                .setUserAgent(getUserAgent())
+                // Retries are handled by the transport
+                .disableAutomaticRetries()
+                .addRequestInterceptorFirst(new AsyncHttpTransport.PreemptiveAuth(URI.create(url).getHost(), createAuthorizationHeader()));
+        if (proxyConfiguration != null) {
+            builder.setProxy(new org.apache.hc.core5.http.HttpHost(proxyConfiguration.host, proxyConfiguration.port));
+            if (proxyConfiguration.username != null) {
+                org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider proxyCredentialsProvider = new org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider();
+                proxyCredentialsProvider.setCredentials(
+                        new org.apache.hc.client5.http.auth.AuthScope(proxyConfiguration.host, proxyConfiguration.port),
+                        new org.apache.hc.client5.http.auth.UsernamePasswordCredentials(proxyConfiguration.username,
+                                StringUtils.defaultString(proxyConfiguration.password).toCharArray()));
+                builder.setDefaultCredentialsProvider(proxyCredentialsProvider);
+            }
+        }
+        CloseableHttpAsyncClient client = builder.build();
+        client.start();
+        RetryBackoffPolicy retryBackoffPolicy = new RetryBackoffPolicy(retryInitialInterval, retryMaxInterval);
+        return new AsyncHttpTransport(client, fallback, new RequestRetryPolicy(connectionRetries, retryBackoffPolicy, log), maxInFlightRequests, log);
+    }
+
+    /**
+     * Create a key identifying the clients this builder builds. Clients built from builders with equal keys are
+     * interchangeable, and therefore may be shared.
+     *
+     * @param url - The server URL
+     * @return the sharing key.
+     */
+    List<Object> createSharingKey(String url) {
+        List<Object> proxyKey = proxyConfiguration == null ? null : Arrays.asList(proxyConfiguration.host,
+                proxyConfiguration.port, proxyConfiguration.username, proxyConfiguration.password);
+        // The shared client logs its retries and redirects to the log it was built with
+        return Arrays.asList(url, userName, password, accessToken, proxyKey, userAgent, timeout, connectionRetries,
+                retryInitialInterval, retryMaxInterval, maxTotalConnections, maxConnectionsPerRoute, insecureTls, sslContext, log);
+    }
+
+    /**
+     * Create the preemptive Authorization header value - Bearer if an access token exists, or Basic otherwise.
+     */
+    private String createAuthorizationHeader() {
+        if (StringUtils.isNotEmpty(accessToken)) {
+            return "Bearer " + accessToken;
+        }
+        String credentials = StringUtils.isEmpty(userName) ? "anonymous:" : userName + ":" + StringUtils.defaultString(password);
+        return "Basic " + Base64.encodeBase64String(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String getUserAgent() {
+        return StringUtils.defaultIfEmpty(this.userAgent, "ArtifactoryBuildClient/" + CLIENT_VERSION);
     }
 
     /**
@@ -166,8 +306,8 @@ public class PreemptiveHttpClientBuilder {
         } catch (GeneralSecurityException e) {
             throw new RuntimeException(e);
         }
-        connectionManager.setMaxTotal(CONNECTION_POOL_SIZE);
-        connectionManager.setDefaultMaxPerRoute(CONNECTION_POOL_SIZE);
+        connectionManager.setMaxTotal(maxTotalConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
     }
 
     /**
@@ -193,8 +333,7 @@ public class PreemptiveHttpClientBuilder {
         builder.addInterceptorFirst(new PreemptiveHttpClient.PreemptiveAuth());
 
         // Set the following user agent with each request
-        String userAgent = StringUtils.defaultIfEmpty(this.userAgent, "ArtifactoryBuildClient/" + CLIENT_VERSION);
-        builder.setUserAgent(userAgent);
+        builder.setUserAgent(getUserAgent());
 
         setDefaultCookieSpecRegistry(builder);
         builder.setProxy(proxy);
@@ -0,0 +1,78 @@
+package org.jfrog.build.client;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.jfrog.build.api.util.Log;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+
+/**
+ * Decides whether and when to retry a failed request, and logs the failures and the retries.
+ * Used by both the blocking http client and the async transport, so that both retry the same failures.
+ */
+class RequestRetryPolicy {
+    private final int connectionRetries;
+    private final RetryBackoffPolicy retryBackoffPolicy;
+    private final Log log;
+
+    /**
+     * @param connectionRetries  - Max retries of failed requests. A negative value means the default number of retries.
+     * @param retryBackoffPolicy - Wait time between retries
+     * @param log                - The logger
+     */
+    RequestRetryPolicy(int connectionRetries, RetryBackoffPolicy retryBackoffPolicy, Log log) {
+        this.connectionRetries = connectionRetries < 0 ? JFrogHttpClient.DEFAULT_CONNECTION_RETRY : connectionRetries;
+        this.retryBackoffPolicy = retryBackoffPolicy;
+        this.log = log;
+    }
+
+    int getConnectionRetries() {
+        return connectionRetries;
+    }
+
+    /**
+     * Decide whether to retry a request which received an error response.
+     *
+     * @param request        - The failed request
+     * @param response       - The response of the last attempt
+     * @param executionCount - The number of attempts made so far, starting from 1
+     * @param repeatable     - False if the request can't be sent again, for example if its body can't be reproduced
+     * @return wait time in milliseconds before the next attempt, or -1 if the request shouldn't be retried.
+     */
+    long getRetryInterval(HttpRequest request, HttpResponse response, int executionCount, boolean repeatable) {
+        int statusCode = response.getStatusLine().getStatusCode();
+        // Code 500 means an unexpected behavior of Artifactory, thus we should not retry.
+        if (statusCode <= 500) {
+            return -1;
+        }
+        log.warn("Error occurred for request " + request.getRequestLine() + ". Received status code " + statusCode +
+                " and message: " + response.getStatusLine().getReasonPhrase() + ".");
+        if (executionCount > connectionRetries || !repeatable) {
+            return -1;
+        }
+        return logRetry(executionCount, retryBackoffPolicy.getRetryInterval(response, executionCount));
+    }
+
+    /**
+     * Decide whether to retry a request which failed with an exception. TLS failures are never retried.
+     *
+     * @param request        - The failed request
+     * @param exception      - The failure of the last attempt
+     * @param executionCount - The number of attempts made so far, starting from 1
+     * @param repeatable     - False if the request can't be sent again, for example if its body can't be reproduced
+     * @return wait time in milliseconds before the next attempt, or -1 if the request shouldn't be retried.
+     */
+    long getRetryInterval(HttpRequest request, IOException exception, int executionCount, boolean repeatable) {
+        log.warn("Error occurred for request " + request.getRequestLine() + ": " + exception.getMessage() + ".");
+        if (executionCount > connectionRetries || !repeatable || exception instanceof SSLException) {
+            return -1;
+        }
+        return logRetry(executionCount, retryBackoffPolicy.getRetryInterval(executionCount));
+    }
+
+    private long logRetry(int executionCount, long interval) {
+        log.warn("Attempting retry #" + executionCount + " in " + interval + " ms");
+        return interval;
+    }
+}
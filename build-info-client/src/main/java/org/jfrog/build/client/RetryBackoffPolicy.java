@@ -0,0 +1,109 @@
+package org.jfrog.build.client;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.utils.DateUtils;
+
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Calculates the time to wait before retrying a failed request.
+ * The wait time grows exponentially with the retry number, up to a maximal interval. A random jitter of up to half of
+ * the interval is applied, so that clients failing at the same time won't retry at the same time.
+ * If the server answered with a 'Retry-After' header, its value is used instead (still bounded by the maximal interval).
+ */
+public class RetryBackoffPolicy {
+    public static final int DEFAULT_INITIAL_INTERVAL_MILLIS = 500;
+    public static final int DEFAULT_MAX_INTERVAL_MILLIS = 30000;
+
+    private final long initialIntervalMillis;
+    private final long maxIntervalMillis;
+
+    public RetryBackoffPolicy() {
+        this(DEFAULT_INITIAL_INTERVAL_MILLIS, DEFAULT_MAX_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param initialIntervalMillis - Wait time before the first retry. 0 means retry immediately.
+     * @param maxIntervalMillis     - Max wait time between two attempts.
+     */
+    public RetryBackoffPolicy(long initialIntervalMillis, long maxIntervalMillis) {
+        this.initialIntervalMillis = Math.max(0, initialIntervalMillis);
+        this.maxIntervalMillis = Math.max(this.initialIntervalMillis, maxIntervalMillis);
+    }
+
+    public long getInitialIntervalMillis() {
+        return initialIntervalMillis;
+    }
+
+    public long getMaxIntervalMillis() {
+        return maxIntervalMillis;
+    }
+
+    /**
+     * Get the time to wait before the next attempt.
+     *
+     * @param executionCount - The number of attempts made so far, starting from 1.
+     * @return wait time in milliseconds.
+     */
+    public long getRetryInterval(int executionCount) {
+        if (initialIntervalMillis == 0) {
+            return 0;
+        }
+        // Avoid overflow: 2^30 * initial interval is way above any reasonable max interval
+        int exponent = Math.min(Math.max(executionCount - 1, 0), 30);
+        long interval = Math.min(initialIntervalMillis << exponent, maxIntervalMillis);
+        if (interval < 0) {
+            interval = maxIntervalMillis;
+        }
+        long halfInterval = interval / 2;
+        return halfInterval + ThreadLocalRandom.current().nextLong(interval - halfInterval + 1);
+    }
+
+    /**
+     * Get the time to wait before the next attempt, honoring the 'Retry-After' header of the response if exists.
+     *
+     * @param response       - The failed response.
+     * @param executionCount - The number of attempts made so far, starting from 1.
+     * @return wait time in milliseconds.
+     */
+    public long getRetryInterval(HttpResponse response, int executionCount) {
+        long retryAfter = getRetryAfter(response);
+        if (retryAfter >= 0) {
+            return Math.min(retryAfter, maxIntervalMillis);
+        }
+        return getRetryInterval(executionCount);
+    }
+
+    /**
+     * Parse the 'Retry-After' header. The value can be either delay in seconds or an HTTP date.
+     *
+     * @param response - The HTTP response.
+     * @return the requested delay in milliseconds or -1 if the header is missing or invalid.
+     */
+    static long getRetryAfter(HttpResponse response) {
+        if (response == null) {
+            return -1;
+        }
+        Header header = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+        if (header == null || StringUtils.isBlank(header.getValue())) {
+            return -1;
+        }
+        String value = header.getValue().trim();
+        if (StringUtils.isNumeric(value)) {
+            try {
+                return Long.parseLong(value) * 1000;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        Date date = DateUtils.parseDate(value);
+        if (date == null) {
+            return -1;
+        }
+        return Math.max(0, date.getTime() - System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,168 @@
+package org.jfrog.build.client;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide registry of reference-counted http clients.
+ * JFrog http clients with identical server URL, credentials, proxy, connection settings and log share the same
+ * {@link PreemptiveHttpClient} and {@link AsyncHttpTransport}, so that keep-alive connections and TLS sessions are reused between them.
+ * When the last reference is released, the client is kept open for a short idle period, so that a client created right
+ * after (for example by the next task or phase of the same build) can still reuse its connections.
+ */
+public class SharedHttpClientRegistry {
+    static final long IDLE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(60);
+
+    private static final Map<List<Object>, SharedClient> clients = new HashMap<>();
+    private static ScheduledExecutorService evictionExecutor;
+
+    private SharedHttpClientRegistry() {
+    }
+
+    /**
+     * Get the shared client matching the input key, or build a new one using the client builder.
+     * Each call to this method should be followed by a call to {@link #release(List)}.
+     *
+     * @param key           - The client key, as created by {@link PreemptiveHttpClientBuilder#createSharingKey(String)}.
+     * @param clientBuilder - Builder to use if no matching client exists.
+     * @return the shared client.
+     */
+    static synchronized PreemptiveHttpClient acquire(List<Object> key, PreemptiveHttpClientBuilder clientBuilder) {
+        SharedClient sharedClient = clients.get(key);
+        if (sharedClient == null) {
+            sharedClient = new SharedClient(clientBuilder.build(), null);
+            clients.put(key, sharedClient);
+        }
+        sharedClient.referenceCount++;
+        return (PreemptiveHttpClient) sharedClient.client;
+    }
+
+    /**
+     * Get the shared async transport matching the input key, or build a new one using the client builder.
+     * If the transport falls back to HTTP/1.1, the fallback is the shared client of the same key, and it is referenced
+     * for as long as the transport is open.
+     * Each call to this method should be followed by a call to {@link #release(List)} with the async transport key.
+     *
+     * @param key           - The client key, as created by {@link PreemptiveHttpClientBuilder#createSharingKey(String)}.
+     * @param clientBuilder - Builder to use if no matching transport exists.
+     * @param url           - The server URL.
+     * @param http2         - True to fall back to the shared client if the server doesn't negotiate HTTP/2.
+     * @return the shared async transport.
+     */
+    static synchronized AsyncHttpTransport acquireAsyncTransport(List<Object> key, PreemptiveHttpClientBuilder clientBuilder,
+                                                                 String url, boolean http2) {
+        List<Object> asyncKey = createAsyncTransportKey(key, clientBuilder, http2);
+        SharedClient sharedClient = clients.get(asyncKey);
+        if (sharedClient == null) {
+            PreemptiveHttpClient fallback = http2 ? acquire(key, clientBuilder) : null;
+            sharedClient = new SharedClient(clientBuilder.buildAsyncTransport(url, fallback), http2 ? key : null);
+            clients.put(asyncKey, sharedClient);
+        }
+        sharedClient.referenceCount++;
+        return (AsyncHttpTransport) sharedClient.client;
+    }
+
+    /**
+     * Create the key of the async transport shared by the clients of the input key.
+     *
+     * @param key           - The client key, as created by {@link PreemptiveHttpClientBuilder#createSharingKey(String)}.
+     * @param clientBuilder - Builder of the transport.
+     * @param http2         - True if the transport falls back to the shared client.
+     * @return the async transport key.
+     */
+    static List<Object> createAsyncTransportKey(List<Object> key, PreemptiveHttpClientBuilder clientBuilder, boolean http2) {
+        List<Object> asyncKey = new ArrayList<>(key);
+        asyncKey.add(AsyncHttpTransport.class);
+        asyncKey.add(http2);
+        asyncKey.add(clientBuilder.getMaxInFlightRequests());
+        return asyncKey;
+    }
+
+    /**
+     * Release a reference to the shared client. The client is closed after being unreferenced for the idle timeout.
+     *
+     * @param key - The client key.
+     */
+    static synchronized void release(List<Object> key) {
+        SharedClient sharedClient = clients.get(key);
+        if (sharedClient == null || --sharedClient.referenceCount > 0) {
+            return;
+        }
+        sharedClient.lastReleased = System.currentTimeMillis();
+        getEvictionExecutor().schedule(() -> evictIfIdle(key), IDLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Close all unreferenced clients immediately.
+     */
+    public static synchronized void closeIdleClients() {
+        boolean closed;
+        // Closing an async transport may release the last reference to its fallback client
+        do {
+            closed = false;
+            for (Iterator<SharedClient> iterator = clients.values().iterator(); iterator.hasNext(); ) {
+                SharedClient sharedClient = iterator.next();
+                if (sharedClient.referenceCount == 0) {
+                    iterator.remove();
+                    sharedClient.close();
+                    closed = true;
+                }
+            }
+        } while (closed);
+    }
+
+    /**
+     * @return the number of open shared clients.
+     */
+    public static synchronized int size() {
+        return clients.size();
+    }
+
+    private static synchronized void evictIfIdle(List<Object> key) {
+        SharedClient sharedClient = clients.get(key);
+        if (sharedClient == null || sharedClient.referenceCount > 0 ||
+                System.currentTimeMillis() - sharedClient.lastReleased < IDLE_TIMEOUT_MILLIS) {
+            // Client is in use or was re-acquired and released again. The later release scheduled another eviction.
+            return;
+        }
+        clients.remove(key);
+        sharedClient.close();
+    }
+
+    private static ScheduledExecutorService getEvictionExecutor() {
+        if (evictionExecutor == null) {
+            evictionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "jfrog-http-client-eviction");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return evictionExecutor;
+    }
+
+    private static class SharedClient {
+        private final HttpTransport client;
+        // Key of the shared client the async transport falls back to, or null
+        private final List<Object> fallbackKey;
+        private int referenceCount;
+        private long lastReleased;
+
+        private SharedClient(HttpTransport client, List<Object> fallbackKey) {
+            this.client = client;
+            this.fallbackKey = fallbackKey;
+        }
+
+        private void close() {
+            client.close();
+            if (fallbackKey != null) {
+                release(fallbackKey);
+            }
+        }
+    }
+}
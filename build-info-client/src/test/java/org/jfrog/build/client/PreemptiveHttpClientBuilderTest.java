@@ -42,6 +42,25 @@ public class PreemptiveHttpClientBuilderTest {
         assertEquals(portCredentials, new UsernamePasswordCredentials(proxyUser, proxyPassword));
     }
 
+    public void testConnectionPoolSize() {
+        PreemptiveHttpClientBuilder clientBuilder = new PreemptiveHttpClientBuilder()
+                .setLog(new NullLog())
+                .setMaxTotalConnections(32)
+                .setMaxConnectionsPerRoute(16);
+        clientBuilder.build();
+
+        assertEquals(clientBuilder.connectionManager.getMaxTotal(), 32);
+        assertEquals(clientBuilder.connectionManager.getDefaultMaxPerRoute(), 16);
+    }
+
+    public void testDefaultConnectionPoolSize() {
+        PreemptiveHttpClientBuilder clientBuilder = new PreemptiveHttpClientBuilder().setLog(new NullLog());
+        clientBuilder.build();
+
+        assertEquals(clientBuilder.connectionManager.getMaxTotal(), PreemptiveHttpClientBuilder.CONNECTION_POOL_SIZE);
+        assertEquals(clientBuilder.connectionManager.getDefaultMaxPerRoute(), PreemptiveHttpClientBuilder.CONNECTION_POOL_SIZE);
+    }
+
     private ProxyConfiguration createProxyConfiguration(String host, int port, String proxyUser, String proxyPassword) {
         ProxyConfiguration proxyConfiguration = new ProxyConfiguration();
         proxyConfiguration.host = host;
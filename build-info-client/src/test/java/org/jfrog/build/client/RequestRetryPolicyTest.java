@@ -0,0 +1,57 @@
+package org.jfrog.build.client;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpRequest;
+import org.apache.http.message.BasicHttpResponse;
+import org.jfrog.build.api.util.NullLog;
+import org.testng.annotations.Test;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+
+import static org.testng.Assert.assertEquals;
+
+@Test
+public class RequestRetryPolicyTest {
+    private static final HttpRequest REQUEST = new BasicHttpRequest("GET", "/api/system/ping");
+    private final RequestRetryPolicy policy = new RequestRetryPolicy(2, new RetryBackoffPolicy(0, 0), new NullLog());
+
+    public void testRetryStatusCodes() {
+        assertEquals(policy.getRetryInterval(REQUEST, createResponse(200), 1, true), -1);
+        assertEquals(policy.getRetryInterval(REQUEST, createResponse(404), 1, true), -1);
+        // Code 500 means an unexpected behavior of Artifactory
+        assertEquals(policy.getRetryInterval(REQUEST, createResponse(500), 1, true), -1);
+        assertEquals(policy.getRetryInterval(REQUEST, createResponse(503), 1, true), 0);
+        assertEquals(policy.getRetryInterval(REQUEST, createResponse(503), 2, true), 0);
+        assertEquals(policy.getRetryInterval(REQUEST, createResponse(503), 3, true), -1);
+        assertEquals(policy.getRetryInterval(REQUEST, createResponse(503), 1, false), -1);
+    }
+
+    public void testRetryAfter() {
+        RequestRetryPolicy policy = new RequestRetryPolicy(2, new RetryBackoffPolicy(0, 10000), new NullLog());
+        HttpResponse response = createResponse(503);
+        response.addHeader(HttpHeaders.RETRY_AFTER, "3");
+        assertEquals(policy.getRetryInterval(REQUEST, response, 1, true), 3000);
+    }
+
+    public void testRetryExceptions() {
+        assertEquals(policy.getRetryInterval(REQUEST, new SocketTimeoutException("Read timed out"), 1, true), 0);
+        assertEquals(policy.getRetryInterval(REQUEST, new IOException("Connection reset"), 2, true), 0);
+        assertEquals(policy.getRetryInterval(REQUEST, new IOException("Connection reset"), 3, true), -1);
+        assertEquals(policy.getRetryInterval(REQUEST, new IOException("Connection reset"), 1, false), -1);
+        assertEquals(policy.getRetryInterval(REQUEST, new SSLException("Handshake failed"), 1, true), -1);
+    }
+
+    public void testDefaultConnectionRetries() {
+        assertEquals(new RequestRetryPolicy(-1, new RetryBackoffPolicy(), new NullLog()).getConnectionRetries(),
+                JFrogHttpClient.DEFAULT_CONNECTION_RETRY);
+    }
+
+    private static HttpResponse createResponse(int statusCode) {
+        return new BasicHttpResponse(HttpVersion.HTTP_1_1, statusCode, "");
+    }
+}
@@ -0,0 +1,61 @@
+package org.jfrog.build.client;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.message.BasicHttpResponse;
+import org.testng.annotations.Test;
+
+import java.util.Date;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class RetryBackoffPolicyTest {
+
+    public void testExponentialInterval() {
+        RetryBackoffPolicy policy = new RetryBackoffPolicy(1000, 10000);
+        for (int i = 0; i < 100; i++) {
+            assertInRange(policy.getRetryInterval(1), 500, 1000);
+            assertInRange(policy.getRetryInterval(2), 1000, 2000);
+            assertInRange(policy.getRetryInterval(3), 2000, 4000);
+            // Capped by the max interval
+            assertInRange(policy.getRetryInterval(5), 5000, 10000);
+            assertInRange(policy.getRetryInterval(Integer.MAX_VALUE), 5000, 10000);
+        }
+    }
+
+    public void testNoBackoff() {
+        RetryBackoffPolicy policy = new RetryBackoffPolicy(0, 10000);
+        assertEquals(policy.getRetryInterval(1), 0);
+        assertEquals(policy.getRetryInterval(10), 0);
+    }
+
+    public void testRetryAfterSeconds() {
+        RetryBackoffPolicy policy = new RetryBackoffPolicy(1000, 10000);
+        assertEquals(policy.getRetryInterval(createResponse("3"), 1), 3000);
+        // Capped by the max interval
+        assertEquals(policy.getRetryInterval(createResponse("120"), 1), 10000);
+        // Invalid value - fallback to the exponential interval
+        assertInRange(policy.getRetryInterval(createResponse("soon"), 1), 500, 1000);
+    }
+
+    public void testRetryAfterDate() {
+        RetryBackoffPolicy policy = new RetryBackoffPolicy(1000, 60000);
+        String date = DateUtils.formatDate(new Date(System.currentTimeMillis() + 30000));
+        assertInRange(policy.getRetryInterval(createResponse(date), 1), 25000, 30000);
+    }
+
+    private HttpResponse createResponse(String retryAfter) {
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_SERVICE_UNAVAILABLE, "Service Unavailable");
+        response.addHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        return response;
+    }
+
+    private void assertInRange(long actual, long min, long max) {
+        assertTrue(actual >= min && actual <= max, "Expected value between " + min + " and " + max + " but got " + actual);
+    }
+}
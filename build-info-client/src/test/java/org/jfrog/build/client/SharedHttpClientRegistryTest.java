@@ -0,0 +1,106 @@
+package org.jfrog.build.client;
+
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.api.util.NullLog;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+@Test
+public class SharedHttpClientRegistryTest {
+    private static final String URL = "http://127.0.0.1:8081/artifactory";
+    private static final Log LOG = new NullLog();
+
+    @AfterMethod
+    public void tearDown() {
+        SharedHttpClientRegistry.closeIdleClients();
+    }
+
+    public void testSameConfigurationSharesClient() {
+        try (JFrogHttpClient first = createClient("user", "password");
+             JFrogHttpClient second = createClient("user", "password")) {
+            assertSame(first.getHttpClient(), second.getHttpClient());
+            assertEquals(SharedHttpClientRegistry.size(), 1);
+        }
+    }
+
+    public void testDifferentConfigurationDoesNotShareClient() {
+        try (JFrogHttpClient first = createClient("user", "password");
+             JFrogHttpClient second = createClient("other-user", "password");
+             JFrogHttpClient third = createClient("user", "password")) {
+            third.setProxyConfiguration("127.0.0.1", 8888);
+            assertNotSame(first.getHttpClient(), second.getHttpClient());
+            assertNotSame(first.getHttpClient(), third.getHttpClient());
+            assertEquals(SharedHttpClientRegistry.size(), 3);
+        }
+    }
+
+    public void testDifferentLogDoesNotShareClient() {
+        try (JFrogHttpClient first = createClient("user", "password");
+             JFrogHttpClient second = new JFrogHttpClient(URL, "user", "password", new NullLog())) {
+            // The retries of one build must not be logged to the log of another build
+            second.setShareHttpClient(true);
+            assertNotSame(first.getHttpClient(), second.getHttpClient());
+            assertEquals(SharedHttpClientRegistry.size(), 2);
+        }
+    }
+
+    public void testReleasedClientKeptUntilIdle() {
+        PreemptiveHttpClient sharedClient;
+        try (JFrogHttpClient first = createClient("user", "password")) {
+            sharedClient = first.getHttpClient();
+        }
+        // The client is kept open after the last release, so the next JFrog http client reuses it
+        try (JFrogHttpClient second = createClient("user", "password")) {
+            assertSame(second.getHttpClient(), sharedClient);
+            SharedHttpClientRegistry.closeIdleClients();
+            assertEquals(SharedHttpClientRegistry.size(), 1);
+        }
+        SharedHttpClientRegistry.closeIdleClients();
+        assertEquals(SharedHttpClientRegistry.size(), 0);
+    }
+
+    public void testAsyncTransportShared() {
+        try (JFrogHttpClient first = createClient("user", "password");
+             JFrogHttpClient second = createClient("user", "password")) {
+            assertSame(first.getAsyncTransport(), second.getAsyncTransport());
+            assertEquals(SharedHttpClientRegistry.size(), 1);
+        }
+        SharedHttpClientRegistry.closeIdleClients();
+        assertEquals(SharedHttpClientRegistry.size(), 0);
+    }
+
+    public void testHttp2TransportKeepsFallbackClient() {
+        try (JFrogHttpClient first = createClient("user", "password")) {
+            first.setHttp2(true);
+            AsyncHttpTransport transport = first.getAsyncTransport();
+            try (JFrogHttpClient second = createClient("user", "password")) {
+                second.setHttp2(true);
+                assertSame(second.getAsyncTransport(), transport);
+                assertSame(second.getHttpClient(), first.getHttpClient());
+            }
+            // The async transport and the client it falls back to
+            assertEquals(SharedHttpClientRegistry.size(), 2);
+        }
+        // The fallback client is referenced until the transport is closed
+        SharedHttpClientRegistry.closeIdleClients();
+        assertEquals(SharedHttpClientRegistry.size(), 0);
+    }
+
+    public void testNotSharedByDefault() {
+        try (JFrogHttpClient first = new JFrogHttpClient(URL, "user", "password", new NullLog());
+             JFrogHttpClient second = new JFrogHttpClient(URL, "user", "password", new NullLog())) {
+            assertNotSame(first.getHttpClient(), second.getHttpClient());
+            assertEquals(SharedHttpClientRegistry.size(), 0);
+        }
+    }
+
+    private JFrogHttpClient createClient(String username, String password) {
+        JFrogHttpClient client = new JFrogHttpClient(URL, username, password, LOG);
+        client.setShareHttpClient(true);
+        return client;
+    }
+}
@@ -10,7 +10,7 @@ import org.jfrog.build.api.Module;
 import org.jfrog.build.api.builder.ArtifactBuilder;
 import org.jfrog.build.api.builder.ModuleBuilder;
 import org.jfrog.build.api.builder.ModuleType;
-import org.jfrog.build.api.util.FileChecksumCalculator;
+import org.jfrog.build.api.util.ChecksumService;
 import org.jfrog.build.api.util.Log;
 import org.jfrog.build.client.ArtifactoryUploadResponse;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryManagerBuilder;
@@ -162,7 +162,7 @@ public class GoPublish extends GoCommand {
      */
     private Artifact deploy(ArtifactoryManager artifactoryManager, File deployedFile, String extension) throws Exception {
         String artifactName = version + "." + extension;
-        Map<String, String> checksums = FileChecksumCalculator.calculateChecksums(deployedFile, MD5, SHA1);
+        Map<String, String> checksums = ChecksumService.calculateChecksums(deployedFile, MD5, SHA1);
         String remotePath = moduleName + "/@v";
         DeployDetails deployDetails = new DeployDetails.Builder()
                 .file(deployedFile)
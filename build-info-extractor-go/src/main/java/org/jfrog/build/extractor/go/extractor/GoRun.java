@@ -7,7 +7,7 @@ import org.jfrog.build.api.Module;
 import org.jfrog.build.api.builder.DependencyBuilder;
 import org.jfrog.build.api.builder.ModuleBuilder;
 import org.jfrog.build.api.builder.ModuleType;
-import org.jfrog.build.api.util.FileChecksumCalculator;
+import org.jfrog.build.api.util.ChecksumService;
 import org.jfrog.build.api.util.Log;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryManagerBuilder;
 import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
@@ -185,7 +185,7 @@ public class GoRun extends GoCommand {
         String cachedPkgPath = cachePath + convertModuleNameToCachePathConvention(moduleName) + File.separator + "@v" + File.separator + moduleVersion + ".zip";
         File moduleZip = new File(cachedPkgPath);
         if (moduleZip.exists()) {
-            Map<String, String> checksums = FileChecksumCalculator.calculateChecksums(moduleZip, MD5, SHA1);
+            Map<String, String> checksums = ChecksumService.calculateChecksums(moduleZip, MD5, SHA1);
             Dependency dependency = new DependencyBuilder()
                     .id(moduleName + ':' + moduleVersion)
                     .md5(checksums.get(MD5)).sha1(checksums.get(SHA1))
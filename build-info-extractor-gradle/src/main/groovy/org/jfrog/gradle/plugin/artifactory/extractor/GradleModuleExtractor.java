@@ -17,7 +17,7 @@ import org.jfrog.build.api.builder.ArtifactBuilder;
 import org.jfrog.build.api.builder.DependencyBuilder;
 import org.jfrog.build.api.builder.ModuleBuilder;
 import org.jfrog.build.api.builder.ModuleType;
-import org.jfrog.build.api.util.FileChecksumCalculator;
+import org.jfrog.build.api.util.ChecksumService;
 import org.jfrog.build.extractor.ModuleExtractor;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
 import org.jfrog.build.extractor.clientConfiguration.IncludeExcludePatterns;
@@ -158,7 +158,7 @@ public class GradleModuleExtractor implements ModuleExtractor<Project> {
                         }
                         if (file.isFile()) {
                             // In recent gradle builds (3.4+) subproject dependencies are represented by a dir not jar.
-                            Map<String, String> checksums = FileChecksumCalculator.calculateChecksums(file, MD5, SHA1);
+                            Map<String, String> checksums = ChecksumService.calculateChecksums(file, MD5, SHA1);
                             dependencyBuilder.md5(checksums.get(MD5)).sha1(checksums.get(SHA1));
                         }
                         dependencies.add(dependencyBuilder.build());
@@ -127,6 +127,7 @@ public class DeployTask extends DefaultTask {
                     accRoot.publisher.getUsername(),
                     accRoot.publisher.getPassword(),
                     new GradleClientLogger(log))) {
+                artifactoryManager.setShareHttpClient(accRoot.isShareHttpClient());
 
                 if (isPublishBuildInfo(accRoot)) {
                     // If export property set always save the file before sending it to artifactory
@@ -176,12 +177,16 @@ public class DeployTask extends DefaultTask {
                         try (ArtifactoryManager artifactoryManager = new ArtifactoryManager(contextUrl, username, password,
                                 new GradleClientLogger(log))) {
                             log.debug("Uploading artifacts to Artifactory at '{}'", contextUrl);
+                            // Reuse the connections of the previously deployed tasks
+                            artifactoryManager.setShareHttpClient(accRoot.isShareHttpClient());
+                            artifactoryManager.setHttp2(accRoot.isHttp2());
                             IncludeExcludePatterns patterns = new IncludeExcludePatterns(
                                     publisher.getIncludePatterns(),
                                     publisher.getExcludePatterns());
                             configureProxy(accRoot, artifactoryManager);
                             configConnectionTimeout(accRoot, artifactoryManager);
                             configRetriesParams(accRoot, artifactoryManager);
+                            configConnectionPool(accRoot, artifactoryManager);
                             deployArtifacts(artifactoryTask.deployDetails, artifactoryManager, patterns, logPrefix, publisher.getMinChecksumDeploySizeKb());
                         }
                     }
@@ -228,6 +233,21 @@ public class DeployTask extends DefaultTask {
         if (clientConf.getConnectionRetries() != null) {
             artifactoryManager.setConnectionRetries(clientConf.getConnectionRetries());
         }
+        if (clientConf.getRetryInitialInterval() != null) {
+            artifactoryManager.setRetryInitialInterval(clientConf.getRetryInitialInterval());
+        }
+        if (clientConf.getRetryMaxInterval() != null) {
+            artifactoryManager.setRetryMaxInterval(clientConf.getRetryMaxInterval());
+        }
+    }
+
+    private void configConnectionPool(ArtifactoryClientConfiguration clientConf, ArtifactoryManager artifactoryManager) {
+        if (clientConf.getMaxTotalConnection() != null) {
+            artifactoryManager.setMaxTotalConnections(clientConf.getMaxTotalConnection());
+        }
+        if (clientConf.getMaxConnectionPerRoute() != null) {
+            artifactoryManager.setMaxConnectionsPerRoute(clientConf.getMaxConnectionPerRoute());
+        }
     }
 
     private void exportBuildInfo(Build build, File toFile) throws IOException {
@@ -31,7 +31,7 @@ import org.gradle.api.logging.Logging;
 import org.gradle.api.plugins.MavenPluginConvention;
 import org.gradle.api.tasks.TaskContainer;
 import org.gradle.api.tasks.Upload;
-import org.jfrog.build.api.util.FileChecksumCalculator;
+import org.jfrog.build.api.util.ChecksumService;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
 import org.jfrog.build.extractor.clientConfiguration.LayoutPatterns;
 import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
@@ -259,7 +259,7 @@ public class TaskHelperConfigurations extends TaskHelper {
                 .packageType(DeployDetails.PackageType.GRADLE);
         try {
             Map<String, String> checksums =
-                    FileChecksumCalculator.calculateChecksums(artifactoryTask.ivyDescriptor, "MD5", "SHA1");
+                    ChecksumService.calculateChecksums(artifactoryTask.ivyDescriptor, "MD5", "SHA1");
             artifactBuilder.md5(checksums.get("MD5")).sha1(checksums.get("SHA1"));
         } catch (Exception e) {
             throw new GradleException(
@@ -291,7 +291,7 @@ public class TaskHelperConfigurations extends TaskHelper {
                 .packageType(DeployDetails.PackageType.GRADLE);
         try {
             Map<String, String> checksums =
-                    FileChecksumCalculator.calculateChecksums(artifactoryTask.mavenDescriptor, "MD5", "SHA1");
+                    ChecksumService.calculateChecksums(artifactoryTask.mavenDescriptor, "MD5", "SHA1");
             artifactBuilder.md5(checksums.get("MD5")).sha1(checksums.get("SHA1"));
         } catch (Exception e) {
             throw new GradleException(
@@ -408,7 +408,7 @@ public class TaskHelperConfigurations extends TaskHelper {
                 .file(file)
                 .packageType(DeployDetails.PackageType.GRADLE);
         try {
-            Map<String, String> checksums = FileChecksumCalculator.calculateChecksums(file, "MD5", "SHA1");
+            Map<String, String> checksums = ChecksumService.calculateChecksums(file, "MD5", "SHA1");
             deployDetailsBuilder.md5(checksums.get("MD5")).sha1(checksums.get("SHA1"));
         } catch (Exception e) {
             throw new GradleException("Failed to calculate checksums for artifact: " + file.getAbsolutePath(), e);
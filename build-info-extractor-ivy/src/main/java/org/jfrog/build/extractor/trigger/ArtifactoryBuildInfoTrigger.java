@@ -24,8 +24,8 @@ import org.jfrog.build.api.builder.ArtifactBuilder;
 import org.jfrog.build.api.builder.DependencyBuilder;
 import org.jfrog.build.api.builder.ModuleBuilder;
 import org.jfrog.build.api.builder.ModuleType;
+import org.jfrog.build.api.util.ChecksumService;
 import org.jfrog.build.api.util.CommonUtils;
-import org.jfrog.build.api.util.FileChecksumCalculator;
 import org.jfrog.build.context.BuildContext;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
 import org.jfrog.build.extractor.clientConfiguration.IncludeExcludePatterns;
@@ -121,7 +121,7 @@ public class ArtifactoryBuildInfoTrigger implements Trigger {
                         File file = artifactsReport.getLocalFile();
                         Map<String, String> checksums;
                         try {
-                            checksums = FileChecksumCalculator.calculateChecksums(file, MD5, SHA1);
+                            checksums = ChecksumService.calculateChecksums(file, MD5, SHA1);
                         } catch (Exception e) {
                             throw new RuntimeException(e);
                         }
@@ -272,7 +272,7 @@ public class ArtifactoryBuildInfoTrigger implements Trigger {
     private Map<String, String> calculateFileChecksum(File file) {
         Map<String, String> checksums;
         try {
-            checksums = FileChecksumCalculator.calculateChecksums(file, MD5, SHA1);
+            checksums = ChecksumService.calculateChecksums(file, MD5, SHA1);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
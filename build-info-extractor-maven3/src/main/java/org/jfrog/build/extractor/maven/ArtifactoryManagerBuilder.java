@@ -9,6 +9,12 @@ import org.jfrog.build.extractor.clientConfiguration.ClientConfigurationFields;
 import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
 
 import static org.jfrog.build.extractor.clientConfiguration.ClientProperties.PROP_CONNECTION_RETRIES;
+import static org.jfrog.build.extractor.clientConfiguration.ClientProperties.PROP_HTTP2;
+import static org.jfrog.build.extractor.clientConfiguration.ClientProperties.PROP_MAX_CO_PER_ROUTE;
+import static org.jfrog.build.extractor.clientConfiguration.ClientProperties.PROP_MAX_TOTAL_CO;
+import static org.jfrog.build.extractor.clientConfiguration.ClientProperties.PROP_RETRY_INITIAL_INTERVAL;
+import static org.jfrog.build.extractor.clientConfiguration.ClientProperties.PROP_RETRY_MAX_INTERVAL;
+import static org.jfrog.build.extractor.clientConfiguration.ClientProperties.PROP_SHARE_HTTP_CLIENT;
 import static org.jfrog.build.extractor.clientConfiguration.ClientProperties.PROP_TIMEOUT;
 
 /**
@@ -27,7 +33,10 @@ public class ArtifactoryManagerBuilder {
         resolveTimeout(clientConf, artifactoryManager);
         resolveProxy(clientConf.proxy, artifactoryManager);
         resolveRetriesParams(clientConf, artifactoryManager);
+        resolveConnectionPool(clientConf, artifactoryManager);
         resolveInsecureTls(clientConf, artifactoryManager);
+        resolveHttp2(clientConf, artifactoryManager);
+        resolveShareHttpClient(clientConf, artifactoryManager);
         return artifactoryManager;
     }
 
@@ -60,6 +69,16 @@ public class ArtifactoryManagerBuilder {
     }
 
     private void resolveRetriesParams(ArtifactoryClientConfiguration clientConf, ArtifactoryManager artifactoryManager) {
+        if (clientConf.getRetryInitialInterval() != null) {
+            int retryInitialInterval = clientConf.getRetryInitialInterval();
+            logResolvedProperty(PROP_RETRY_INITIAL_INTERVAL, String.valueOf(retryInitialInterval));
+            artifactoryManager.setRetryInitialInterval(retryInitialInterval);
+        }
+        if (clientConf.getRetryMaxInterval() != null) {
+            int retryMaxInterval = clientConf.getRetryMaxInterval();
+            logResolvedProperty(PROP_RETRY_MAX_INTERVAL, String.valueOf(retryMaxInterval));
+            artifactoryManager.setRetryMaxInterval(retryMaxInterval);
+        }
         if (clientConf.getConnectionRetries() == null) {
             return;
         }
@@ -68,10 +87,37 @@ public class ArtifactoryManagerBuilder {
         artifactoryManager.setConnectionRetries(configMaxRetries);
     }
 
+    private void resolveConnectionPool(ArtifactoryClientConfiguration clientConf, ArtifactoryManager artifactoryManager) {
+        if (clientConf.getMaxTotalConnection() != null) {
+            int maxTotalConnections = clientConf.getMaxTotalConnection();
+            logResolvedProperty(PROP_MAX_TOTAL_CO, String.valueOf(maxTotalConnections));
+            artifactoryManager.setMaxTotalConnections(maxTotalConnections);
+        }
+        if (clientConf.getMaxConnectionPerRoute() != null) {
+            int maxConnectionsPerRoute = clientConf.getMaxConnectionPerRoute();
+            logResolvedProperty(PROP_MAX_CO_PER_ROUTE, String.valueOf(maxConnectionsPerRoute));
+            artifactoryManager.setMaxConnectionsPerRoute(maxConnectionsPerRoute);
+        }
+    }
+
     private void resolveInsecureTls(ArtifactoryClientConfiguration clientConf, ArtifactoryManager artifactoryManager) {
         artifactoryManager.setInsecureTls(clientConf.getInsecureTls());
     }
 
+    private void resolveHttp2(ArtifactoryClientConfiguration clientConf, ArtifactoryManager artifactoryManager) {
+        if (clientConf.isHttp2()) {
+            logResolvedProperty(PROP_HTTP2, "true");
+            artifactoryManager.setHttp2(true);
+        }
+    }
+
+    private void resolveShareHttpClient(ArtifactoryClientConfiguration clientConf, ArtifactoryManager artifactoryManager) {
+        if (clientConf.isShareHttpClient()) {
+            logResolvedProperty(PROP_SHARE_HTTP_CLIENT, "true");
+            artifactoryManager.setShareHttpClient(true);
+        }
+    }
+
     private void resolveProxy(ArtifactoryClientConfiguration.ProxyHandler proxyConf,
                               ArtifactoryManager artifactoryManager) {
         String proxyHost = proxyConf.getHost();
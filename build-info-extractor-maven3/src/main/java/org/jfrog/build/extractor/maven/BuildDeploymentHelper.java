@@ -24,7 +24,7 @@ import org.jfrog.build.api.Artifact;
 import org.jfrog.build.api.Build;
 import org.jfrog.build.api.BuildInfoConfigProperties;
 import org.jfrog.build.api.Module;
-import org.jfrog.build.api.util.FileChecksumCalculator;
+import org.jfrog.build.api.util.ChecksumService;
 import org.jfrog.build.extractor.BuildInfoExtractorUtils;
 import org.jfrog.build.extractor.ModuleParallelDeployHelper;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
@@ -182,7 +182,7 @@ public class BuildDeploymentHelper {
     private void setArtifactChecksums(File artifactFile, org.jfrog.build.api.Artifact artifact) {
         if ((artifactFile != null) && (artifactFile.isFile())) {
             try {
-                Map<String, String> checksums = FileChecksumCalculator.calculateChecksums(artifactFile, "md5", "sha1");
+                Map<String, String> checksums = ChecksumService.calculateChecksums(artifactFile, "md5", "sha1");
                 artifact.setMd5(checksums.get("md5"));
                 artifact.setSha1(checksums.get("sha1"));
             } catch (Exception e) {
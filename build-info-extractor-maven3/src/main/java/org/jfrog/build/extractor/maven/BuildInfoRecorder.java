@@ -32,8 +32,8 @@ import org.codehaus.plexus.logging.Logger;
 import org.jfrog.build.api.Build;
 import org.jfrog.build.api.BuildInfoConfigProperties;
 import org.jfrog.build.api.builder.*;
+import org.jfrog.build.api.util.ChecksumService;
 import org.jfrog.build.api.util.CommonUtils;
-import org.jfrog.build.api.util.FileChecksumCalculator;
 import org.jfrog.build.extractor.BuildInfoExtractor;
 import org.jfrog.build.extractor.BuildInfoExtractorUtils;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
@@ -59,6 +59,7 @@ import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import static org.jfrog.build.extractor.BuildInfoExtractorUtils.getModuleIdString;
 import static org.jfrog.build.extractor.BuildInfoExtractorUtils.getTypeString;
@@ -638,6 +639,7 @@ public class BuildInfoRecorder extends AbstractExecutionListener implements Buil
                     + "list.");
             return;
         }
+        prefetchDependencyChecksums(moduleDependencies);
         for (Artifact dependency : moduleDependencies) {
             File depFile = dependency.getFile();
             String gav = getModuleIdString(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion());
@@ -669,11 +671,27 @@ public class BuildInfoRecorder extends AbstractExecutionListener implements Buil
         return extension;
     }
 
+    /**
+     * Calculate the checksums of the dependency files in parallel, before they are set on the dependencies one by one.
+     */
+    private void prefetchDependencyChecksums(Set<Artifact> dependencies) {
+        List<File> dependencyFiles = dependencies.stream()
+                .map(Artifact::getFile)
+                .filter(file -> file != null && file.isFile())
+                .collect(Collectors.toList());
+        try {
+            ChecksumService.calculateChecksums(dependencyFiles, "md5", "sha1");
+        } catch (NoSuchAlgorithmException | IOException | RuntimeException e) {
+            // The errors are reported per dependency
+            logger.debug("Could not calculate the checksums of the module dependencies: " + e.getMessage());
+        }
+    }
+
     private void setDependencyChecksums(File dependencyFile, DependencyBuilder dependencyBuilder) {
         if ((dependencyFile != null) && (dependencyFile.isFile())) {
             try {
                 Map<String, String> checksumsMap
-                        = FileChecksumCalculator.calculateChecksums(dependencyFile, "md5", "sha1");
+                        = ChecksumService.calculateChecksums(dependencyFile, "md5", "sha1");
                 dependencyBuilder.md5(checksumsMap.get("md5"));
                 dependencyBuilder.sha1(checksumsMap.get("sha1"));
             } catch (NoSuchAlgorithmException | IOException e) {
@@ -10,6 +10,7 @@ import org.jfrog.build.api.builder.ModuleType;
 import org.jfrog.build.api.util.Log;
 import org.jfrog.build.client.ProxyConfiguration;
 import org.jfrog.build.extractor.BuildInfoExtractor;
+import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryManagerBuilder;
 import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
 import org.jfrog.build.extractor.npm.NpmDriver;
@@ -31,8 +32,6 @@ import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
-import static org.jfrog.build.client.PreemptiveHttpClientBuilder.CONNECTION_POOL_SIZE;
-
 /**
  * @author Yahav Itzhak
  */
@@ -50,6 +49,7 @@ public class NpmBuildInfoExtractor implements BuildInfoExtractor<NpmProject> {
     private final String project;
     private String npmProxy;
     private String module;
+    private int aqlBatchSize = ArtifactoryClientConfiguration.DEFAULT_NPM_AQL_BATCH_SIZE;
     private Log logger;
 
     NpmBuildInfoExtractor(ArtifactoryManagerBuilder artifactoryManagerBuilder,
@@ -63,6 +63,13 @@ public class NpmBuildInfoExtractor implements BuildInfoExtractor<NpmProject> {
         this.typeRestriction = TypeRestriction.DEFAULT_RESTRICTION;
     }
 
+    /**
+     * Set the number of packages to search in Artifactory by a single AQL.
+     */
+    void setAqlBatchSize(int aqlBatchSize) {
+        this.aqlBatchSize = aqlBatchSize;
+    }
+
     @Override
     public Build extract(NpmProject npmProject) throws Exception {
         String resolutionRepository = npmProject.getResolutionRepository();
@@ -330,7 +337,8 @@ public class NpmBuildInfoExtractor implements BuildInfoExtractor<NpmProject> {
     /**
      * Populate the dependencies map for the specified scope by:
      * 1. Create npm dependency tree from root node of 'npm ls' command tree. Populate each node with name, version and scope.
-     * 2. For each dependency, retrieve sha1 and md5 from Artifactory. Use the producer-consumer mechanism to parallelize it.
+     * 2. For each dependency, retrieve sha1 and md5 from Artifactory. Use the producer-consumer mechanism to parallelize it,
+     * every consumer searches its dependencies in batches of 'aqlBatchSize' packages.
      */
     private void populateDependenciesMap(Map<String, Dependency> dependencies, Map<String, Dependency> previousBuildDependencies, JsonNode npmDependencyTree, NpmScope scope) throws Exception {
         // Set of packages that could not be found in Artifactory.
@@ -341,12 +349,12 @@ public class NpmBuildInfoExtractor implements BuildInfoExtractor<NpmProject> {
             ProducerRunnableBase[] producerRunnable = new ProducerRunnableBase[]{new NpmExtractorProducer(rootNode)};
             // Create consumer Runnables.
             ConsumerRunnableBase[] consumerRunnables = new ConsumerRunnableBase[]{
-                    new NpmExtractorConsumer(artifactoryManager, dependencies, previousBuildDependencies, badPackages),
-                    new NpmExtractorConsumer(artifactoryManager, dependencies, previousBuildDependencies, badPackages),
-                    new NpmExtractorConsumer(artifactoryManager, dependencies, previousBuildDependencies, badPackages)
+                    new NpmExtractorConsumer(artifactoryManager, dependencies, previousBuildDependencies, badPackages, aqlBatchSize),
+                    new NpmExtractorConsumer(artifactoryManager, dependencies, previousBuildDependencies, badPackages, aqlBatchSize),
+                    new NpmExtractorConsumer(artifactoryManager, dependencies, previousBuildDependencies, badPackages, aqlBatchSize)
             };
             // Create the deployment executor.
-            ProducerConsumerExecutor deploymentExecutor = new ProducerConsumerExecutor(logger, producerRunnable, consumerRunnables, CONNECTION_POOL_SIZE);
+            ProducerConsumerExecutor deploymentExecutor = new ProducerConsumerExecutor(logger, producerRunnable, consumerRunnables, artifactoryManager.getMaxTotalConnections());
             deploymentExecutor.start();
             if (!badPackages.isEmpty()) {
                 logger.info((Arrays.toString(badPackages.toArray())));
@@ -12,34 +12,47 @@ import org.jfrog.build.extractor.producerConsumer.ConsumerRunnableBase;
 import org.jfrog.build.extractor.producerConsumer.ProducerConsumerExecutor;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 /**
  * Consumes PackageInfos and fills the dependencies map with sha1 and md5.
- * Retrieves sha1 and md5 information from Artifactory by running an AQL.
+ * Retrieves sha1 and md5 information from Artifactory by running an AQL for every batch of packages.
  *
  * @author Yahav Itzhak
  */
 public class NpmExtractorConsumer extends ConsumerRunnableBase {
+    private static final String NPM_NAME_PROPERTY = "npm.name";
+    private static final String NPM_VERSION_PROPERTY = "npm.version";
     private static final String NPM_AQL_FORMAT =
             "items.find({" +
-                    "\"@npm.name\": \"%s\"," +
-                    "\"@npm.version\": \"%s\"" +
-                    "}).include(\"name\", \"repo\", \"path\", \"actual_sha1\", \"actual_md5\")";
+                    "\"$or\":[%s]" +
+                    "}).include(\"name\", \"repo\", \"path\", \"actual_sha1\", \"actual_md5\", \"@npm.name\", \"@npm.version\")";
+    private static final String NPM_AQL_PACKAGE_PART = "{\"@npm.name\": \"%s\", \"@npm.version\": \"%s\"}";
     private Map<String, Dependency> previousBuildDependencies;
     private final ArtifactoryManager artifactoryManager;
     private Map<String, Dependency> dependencies;
     private ProducerConsumerExecutor executor;
     private Set<NpmPackageInfo> badPackages;
+    private final int aqlBatchSize;
+    /**
+     * Packages waiting to be searched in Artifactory, by their dependency id
+     */
+    private final Map<String, List<NpmPackageInfo>> pendingPackages = new LinkedHashMap<>();
     private Log log;
 
     NpmExtractorConsumer(ArtifactoryManager artifactoryManager, Map<String, Dependency> dependencies,
-                         Map<String, Dependency> previousBuildDependencies, Set<NpmPackageInfo> badPackages) {
+                         Map<String, Dependency> previousBuildDependencies, Set<NpmPackageInfo> badPackages, int aqlBatchSize) {
         this.artifactoryManager = artifactoryManager;
         this.dependencies = dependencies;
         this.previousBuildDependencies = previousBuildDependencies;
         this.badPackages = badPackages;
+        this.aqlBatchSize = Math.max(1, aqlBatchSize);
     }
 
     @Override
@@ -48,14 +61,15 @@ public class NpmExtractorConsumer extends ConsumerRunnableBase {
             try {
                 ProducerConsumerItem item = executor.take();
                 if (item == executor.TERMINATE) {
-                    // If reached the TERMINATE NpmPackageInfo, return it to the queue and exit.
+                    // If reached the TERMINATE NpmPackageInfo, return it to the queue, search the remaining packages and exit.
                     executor.put(item);
+                    appendPendingDependencies();
                     break;
                 }
                 NpmPackageInfo npmPackageInfo = (NpmPackageInfo) item;
-                // Try to extract sha1 and md5 for 'npmPackageInfo'. If it doesn't exist in Artifactory's cache, add it to the 'badPackages' list.
-                if (!appendDependency(npmPackageInfo)) {
-                    badPackages.add(npmPackageInfo);
+                appendDependency(npmPackageInfo);
+                if (pendingPackages.size() >= aqlBatchSize) {
+                    appendPendingDependencies();
                 }
             } catch (InterruptedException e) {
                 return;
@@ -65,70 +79,99 @@ public class NpmExtractorConsumer extends ConsumerRunnableBase {
 
     /**
      * If package is included in the dependencies map, add the current scope for the dependency.
-     * Otherwise, retrieve sha1 and md5 from Artifactory and add the dependency to the dependencies map.
+     * Otherwise, if the dependency exists in the previous build's dependencies - take the required info from it.
+     * Otherwise - add the package to the packages to search in Artifactory.
      *
      * @param npmPackageInfo - The npm package information.
-     * @return True if the package is legal. False in case of an error such as an absence in Artifactory's cache.
      */
-    private boolean appendDependency(NpmPackageInfo npmPackageInfo) {
-        String id = npmPackageInfo.getName() + ":" + npmPackageInfo.getVersion();
+    private void appendDependency(NpmPackageInfo npmPackageInfo) {
+        String id = getDependencyId(npmPackageInfo.getName(), npmPackageInfo.getVersion());
         Dependency dependency = dependencies.get(id);
         if (dependency == null) {
-            dependency = createDependency(npmPackageInfo, id);
-            if (dependency == null) {
-                return false;
+            Dependency previousDependency = previousBuildDependencies.get(id);
+            if (previousDependency == null) {
+                pendingPackages.computeIfAbsent(id, key -> new ArrayList<>()).add(npmPackageInfo);
+                return;
             }
+            dependency = createDependencyFromPreviousBuild(npmPackageInfo, previousDependency);
             dependencies.put(id, dependency);
         } else {
             dependency.getScopes().add(npmPackageInfo.getScope());
         }
         dependency.addRequestedBy(npmPackageInfo.getPathToRoot());
-        return true;
     }
 
     /**
-     * Create a Dependency for the provided NpmPackageInfo.
-     * If the dependency exists in the previous build's dependencies - take the required info from it.
-     * Otherwise - fetch the information from Artifactory.
+     * Retrieve sha1 and md5 of the pending packages from Artifactory by a single AQL, and add the dependencies to the
+     * dependencies map. Packages which don't exist in Artifactory's cache are added to the 'badPackages' list.
+     */
+    private void appendPendingDependencies() {
+        if (pendingPackages.isEmpty()) {
+            return;
+        }
+        Map<String, AqlSearchResult.SearchEntry> searchEntries = new HashMap<>();
+        try {
+            String aql = createAqlQuery(pendingPackages.values());
+            artifactoryManager.searchArtifactsByAql(aql, searchEntry -> {
+                String name = searchEntry.getProperties().get(NPM_NAME_PROPERTY);
+                String version = searchEntry.getProperties().get(NPM_VERSION_PROPERTY);
+                if (name != null && version != null) {
+                    searchEntries.putIfAbsent(getDependencyId(name, version), searchEntry);
+                }
+            });
+        } catch (IOException e) {
+            log.error(ExceptionUtils.getStackTrace(e), e);
+        }
+        for (Map.Entry<String, List<NpmPackageInfo>> pending : pendingPackages.entrySet()) {
+            AqlSearchResult.SearchEntry searchEntry = searchEntries.get(pending.getKey());
+            for (NpmPackageInfo npmPackageInfo : pending.getValue()) {
+                // The dependency may have been added by another consumer meanwhile
+                Dependency dependency = searchEntry == null ? dependencies.get(pending.getKey()) :
+                        dependencies.computeIfAbsent(pending.getKey(), id -> createDependencyFromAqlResult(npmPackageInfo, searchEntry, id));
+                if (dependency == null) {
+                    badPackages.add(npmPackageInfo);
+                    continue;
+                }
+                dependency.getScopes().add(npmPackageInfo.getScope());
+                dependency.addRequestedBy(npmPackageInfo.getPathToRoot());
+            }
+        }
+        pendingPackages.clear();
+    }
+
+    /**
+     * Create an AQL searching all the provided packages by their name and version.
      *
-     * @param npmPackageInfo - The npm package information.
-     * @param id             - The id of the dependency to create.
-     * @return Dependency populated with {name, scope, version, sha1 and md5} or null in case of {error or absence in Artifactory's case}.
+     * @param packages - The packages to search, grouped by dependency id.
+     * @return the AQL query.
      */
-    private Dependency createDependency(NpmPackageInfo npmPackageInfo, String id) {
-        Dependency previousDependency = previousBuildDependencies.get(id);
-        if (previousDependency != null) {
-            return createDependencyFromPreviousBuild(npmPackageInfo, previousDependency);
+    static String createAqlQuery(Collection<List<NpmPackageInfo>> packages) {
+        List<String> packageParts = new ArrayList<>();
+        for (List<NpmPackageInfo> samePackages : packages) {
+            NpmPackageInfo npmPackageInfo = samePackages.get(0);
+            packageParts.add(String.format(NPM_AQL_PACKAGE_PART, npmPackageInfo.getName(), npmPackageInfo.getVersion()));
         }
-        return createDependencyFromAqlResult(npmPackageInfo, id);
+        return String.format(NPM_AQL_FORMAT, String.join(",", packageParts));
+    }
+
+    private static String getDependencyId(String name, String version) {
+        return name + ":" + version;
     }
 
     /**
-     * Create 'Dependency' from name and version of 'npmPackageInfo'. Try to retrieve sha1 and md5 from Artifactory.
+     * Create 'Dependency' from name and version of 'npmPackageInfo', and the sha1 and md5 of the AQL result.
      *
      * @param npmPackageInfo - The npm package information.
+     * @param searchEntry    - The AQL result of the package.
      * @param id             - The id of the dependency to create.
-     * @return Dependency or null in case of an exception, or in case the dependency does not exist in Artifactory.
+     * @return Dependency populated with {name, scope, version, sha1 and md5}.
      */
-    private Dependency createDependencyFromAqlResult(NpmPackageInfo npmPackageInfo, String id) {
-        String aql = String.format(NPM_AQL_FORMAT, npmPackageInfo.getName(), npmPackageInfo.getVersion());
-        AqlSearchResult searchResult;
-        try {
-            searchResult = artifactoryManager.searchArtifactsByAql(aql);
-            if (searchResult.getResults().isEmpty()) {
-                return null;
-            }
-            DependencyBuilder builder = new DependencyBuilder();
-            AqlSearchResult.SearchEntry searchEntry = searchResult.getResults().get(0);
-            return builder.id(id)
-                    .addScope(npmPackageInfo.getScope())
-                    .md5(searchEntry.getActualMd5())
-                    .sha1(searchEntry.getActualSha1())
-                    .build();
-        } catch (IOException e) {
-            log.error(ExceptionUtils.getStackTrace(e), e);
-            return null;
-        }
+    private static Dependency createDependencyFromAqlResult(NpmPackageInfo npmPackageInfo, AqlSearchResult.SearchEntry searchEntry, String id) {
+        return new DependencyBuilder().id(id)
+                .addScope(npmPackageInfo.getScope())
+                .md5(searchEntry.getActualMd5())
+                .sha1(searchEntry.getActualSha1())
+                .build();
     }
 
     /**
@@ -47,6 +47,13 @@ public class NpmInstallCi extends NpmCommand {
         this.isCiCommand = isCiCommand;
     }
 
+    /**
+     * Set the number of packages to search in Artifactory by a single AQL, while collecting the dependencies checksums.
+     */
+    public void setAqlBatchSize(int aqlBatchSize) {
+        buildInfoExtractor.setAqlBatchSize(aqlBatchSize);
+    }
+
     /**
      * Allow running npm install using a new Java process.
      * Used only in Jenkins to allow running 'rtNpm install' in a docker container.
@@ -67,6 +74,7 @@ public class NpmInstallCi extends NpmCommand {
                     clientConfiguration.info.getBuildName(),
                     npmHandler.isCiCommand(),
                     clientConfiguration.info.getProject());
+            npmInstall.setAqlBatchSize(npmHandler.getAqlBatchSize());
             npmInstall.executeAndSaveBuildInfo(clientConfiguration);
         } catch (RuntimeException e) {
             ExceptionUtils.printRootCauseStackTrace(e, System.out);
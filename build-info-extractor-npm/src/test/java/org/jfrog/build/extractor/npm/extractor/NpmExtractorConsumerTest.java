@@ -0,0 +1,96 @@
+package org.jfrog.build.extractor.npm.extractor;
+
+import org.jfrog.build.api.Dependency;
+import org.jfrog.build.api.builder.DependencyBuilder;
+import org.jfrog.build.api.util.NullLog;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
+import org.jfrog.build.extractor.npm.types.NpmPackageInfo;
+import org.jfrog.build.extractor.producerConsumer.ConsumerRunnableBase;
+import org.jfrog.build.extractor.producerConsumer.ProducerConsumerExecutor;
+import org.jfrog.build.extractor.producerConsumer.ProducerRunnableBase;
+import org.jfrog.build.extractor.util.FakeArtifactory;
+import org.testng.annotations.Test;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.testng.Assert.*;
+
+@Test
+public class NpmExtractorConsumerTest {
+    private static final Pattern AQL_PACKAGE = Pattern.compile("\\{\"@npm.name\": \"([^\"]+)\", \"@npm.version\": \"([^\"]+)\"}");
+    private static final Set<String> ARTIFACTORY_PACKAGES = new HashSet<>(Arrays.asList("a:1.0.0", "b:2.0.0", "e:1.0.0"));
+
+    public void testCreateAqlQuery() {
+        List<List<NpmPackageInfo>> packages = Arrays.asList(
+                Arrays.asList(createPackage("a", "1.0.0"), createPackage("a", "1.0.0")),
+                Collections.singletonList(createPackage("b", "2.0.0")));
+        assertEquals(NpmExtractorConsumer.createAqlQuery(packages),
+                "items.find({\"$or\":[{\"@npm.name\": \"a\", \"@npm.version\": \"1.0.0\"},{\"@npm.name\": \"b\", \"@npm.version\": \"2.0.0\"}]})" +
+                        ".include(\"name\", \"repo\", \"path\", \"actual_sha1\", \"actual_md5\", \"@npm.name\", \"@npm.version\")");
+    }
+
+    public void testBatchedAqlQueries() throws Exception {
+        List<List<String>> searchedPackages = new CopyOnWriteArrayList<>();
+        FakeArtifactory artifactory = new FakeArtifactory().handleAql(aql -> {
+            List<String> ids = new ArrayList<>();
+            StringJoiner results = new StringJoiner(",", "{\"results\":[", "]}");
+            Matcher matcher = AQL_PACKAGE.matcher(aql);
+            while (matcher.find()) {
+                String id = matcher.group(1) + ":" + matcher.group(2);
+                ids.add(id);
+                if (ARTIFACTORY_PACKAGES.contains(id)) {
+                    results.add("{\"repo\":\"npm\",\"path\":\"" + matcher.group(1) + "/-\",\"name\":\"" + matcher.group(1) + ".tgz\"," +
+                            "\"actual_sha1\":\"sha1-" + id + "\",\"actual_md5\":\"md5-" + id + "\",\"properties\":[" +
+                            "{\"key\":\"npm.name\",\"value\":\"" + matcher.group(1) + "\"}," +
+                            "{\"key\":\"npm.version\",\"value\":\"" + matcher.group(2) + "\"}]}");
+                }
+            }
+            searchedPackages.add(ids);
+            return results.toString();
+        });
+
+        DefaultMutableTreeNode rootNode = new DefaultMutableTreeNode();
+        for (String id : new String[]{"a:1.0.0", "b:2.0.0", "c:3.0.0", "a:1.0.0", "d:4.0.0", "e:1.0.0"}) {
+            String[] nameVersion = id.split(":");
+            rootNode.add(new DefaultMutableTreeNode(createPackage(nameVersion[0], nameVersion[1])));
+        }
+        Map<String, Dependency> dependencies = new ConcurrentHashMap<>();
+        Map<String, Dependency> previousBuildDependencies = new HashMap<>();
+        previousBuildDependencies.put("d:4.0.0", new DependencyBuilder().id("d:4.0.0").sha1("sha1-d").md5("md5-d").build());
+        Set<NpmPackageInfo> badPackages = Collections.synchronizedSet(new HashSet<>());
+        try (ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+            ConsumerRunnableBase[] consumers = new ConsumerRunnableBase[3];
+            for (int i = 0; i < consumers.length; i++) {
+                consumers[i] = new NpmExtractorConsumer(artifactoryManager, dependencies, previousBuildDependencies, badPackages, 2);
+            }
+            new ProducerConsumerExecutor(new NullLog(), new ProducerRunnableBase[]{new NpmExtractorProducer(rootNode)}, consumers, 10).start();
+        } finally {
+            artifactory.close();
+        }
+
+        assertEquals(dependencies.keySet(), new HashSet<>(Arrays.asList("a:1.0.0", "b:2.0.0", "d:4.0.0", "e:1.0.0")));
+        assertEquals(dependencies.get("a:1.0.0").getSha1(), "sha1-a:1.0.0");
+        assertEquals(dependencies.get("b:2.0.0").getMd5(), "md5-b:2.0.0");
+        assertEquals(dependencies.get("d:4.0.0").getSha1(), "sha1-d");
+        assertEquals(dependencies.get("a:1.0.0").getScopes(), Collections.singleton("prod"));
+        assertEquals(badPackages.size(), 1);
+        assertEquals(badPackages.iterator().next().getName(), "c");
+
+        // Every query searches up to 2 packages, and the previous build dependency isn't searched
+        Set<String> allSearchedPackages = new HashSet<>();
+        for (List<String> ids : searchedPackages) {
+            assertTrue(ids.size() <= 2, ids.toString());
+            allSearchedPackages.addAll(ids);
+        }
+        assertEquals(allSearchedPackages, new HashSet<>(Arrays.asList("a:1.0.0", "b:2.0.0", "c:3.0.0", "e:1.0.0")));
+    }
+
+    private static NpmPackageInfo createPackage(String name, String version) {
+        return new NpmPackageInfo(name, version, "prod", new String[]{"root:1.0.0"});
+    }
+}
@@ -9,7 +9,7 @@ import org.jfrog.build.api.Module;
 import org.jfrog.build.api.builder.DependencyBuilder;
 import org.jfrog.build.api.builder.ModuleBuilder;
 import org.jfrog.build.api.builder.ModuleType;
-import org.jfrog.build.api.util.FileChecksumCalculator;
+import org.jfrog.build.api.util.ChecksumService;
 import org.jfrog.build.api.util.Log;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryManagerBuilder;
@@ -417,7 +417,7 @@ public class NugetRun extends PackageManagerExtractor {
             }
         }
         if (found) {
-            Map<String, String> checksums = FileChecksumCalculator.calculateChecksums(nupkg, MD5, SHA1);
+            Map<String, String> checksums = ChecksumService.calculateChecksums(nupkg, MD5, SHA1);
             Dependency dependency = new DependencyBuilder()
                     .id(pkg.getId() + ':' + pkg.getVersion())
                     .md5(checksums.get(MD5)).sha1(checksums.get(SHA1))
@@ -449,7 +449,7 @@ public class NugetRun extends PackageManagerExtractor {
             }
             File nupkg = new File(assets.getPackagesPath(), library.getNupkgFilePath());
             if (nupkg.exists()) {
-                Map<String, String> checksums = FileChecksumCalculator.calculateChecksums(nupkg, MD5, SHA1);
+                Map<String, String> checksums = ChecksumService.calculateChecksums(nupkg, MD5, SHA1);
                 Dependency dependency = new DependencyBuilder()
                         .id(pkgKey.replace('/', ':'))
                         .md5(checksums.get(MD5)).sha1(checksums.get(SHA1))
@@ -9,11 +9,15 @@ import org.jfrog.build.api.builder.ModuleBuilder;
 import org.jfrog.build.api.builder.ModuleType;
 import org.jfrog.build.api.search.AqlSearchResult;
 import org.jfrog.build.api.util.Log;
+import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
 import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -27,7 +31,15 @@ public class PipBuildInfoExtractor {
                     "\"$or\":[%s]" +
                     "}).include(\"name\",\"repo\",\"path\",\"actual_sha1\",\"actual_md5\")";
     private static final String PIP_AQL_FILE_PART = "{\"name\":\"%s\"},";
-    private static final int PIP_AQL_BULK_SIZE = 3;
+
+    private int aqlBulkSize = ArtifactoryClientConfiguration.DEFAULT_PIP_AQL_BULK_SIZE;
+
+    /**
+     * @param aqlBulkSize - Max number of files to search by a single AQL query.
+     */
+    void setAqlBulkSize(int aqlBulkSize) {
+        this.aqlBulkSize = aqlBulkSize;
+    }
 
     Build extract(ArtifactoryManager artifactoryManager, String repository, String installationLog, Path executionPath, String module, Log logger) throws IOException {
         // Parse logs and create dependency list of <pkg-name, pkg-file>
@@ -87,6 +99,7 @@ public class PipBuildInfoExtractor {
     /**
      * Create Dependency objects for the files in 'fileToPackageMap'.
      * Get Dependencies information from Artifactory by running AQL to get the checksums.
+     * The files are searched in bulks of 'aqlBulkSize', and all the queries are sent concurrently.
      *
      * @param fileToPackageMap - Mapping between a downloaded file to its package name.
      * @param repository       - Resolution repository.
@@ -99,7 +112,11 @@ public class PipBuildInfoExtractor {
         if (fileToPackageMap.isEmpty()) {
             return Collections.emptyMap();
         }
-        AqlSearchResult searchResult = runAqlQueries(createAqlQueries(fileToPackageMap, repository, PIP_AQL_BULK_SIZE), artifactoryManager);
+        List<String> aqlQueries = createAqlQueries(fileToPackageMap, repository, Math.max(1, aqlBulkSize));
+        long start = System.currentTimeMillis();
+        AqlSearchResult searchResult = runAqlQueries(aqlQueries, artifactoryManager);
+        logger.info(String.format("Fetched checksums of %d files from Artifactory by %d AQL queries in %d ms",
+                fileToPackageMap.size(), aqlQueries.size(), System.currentTimeMillis() - start));
         return createDependenciesFromAqlResult(searchResult, fileToPackageMap, logger);
     }
 
@@ -127,17 +144,30 @@ public class PipBuildInfoExtractor {
         return String.format(PIP_AQL_FORMAT, repository, filesQueryPartBuilder.toString());
     }
 
-    private AqlSearchResult runAqlQueries(List<String> aqlQueries, ArtifactoryManager artifactoryManager) throws IOException {
-        AqlSearchResult aggregatedResults = new AqlSearchResult();
+    /**
+     * Send all the queries without waiting for the previous results, and merge the results in the order of the queries.
+     * The number of queries in flight is bounded by the http client of the Artifactory manager.
+     */
+    static AqlSearchResult runAqlQueries(List<String> aqlQueries, ArtifactoryManager artifactoryManager) throws IOException {
+        List<CompletableFuture<AqlSearchResult>> searches = new ArrayList<>();
         for (String aql : aqlQueries) {
-            try {
-                AqlSearchResult searchResult = artifactoryManager.searchArtifactsByAql(aql);
-                if (!searchResult.getResults().isEmpty()) {
-                    aggregatedResults.getResults().addAll(searchResult.getResults());
-                }
-            } catch (IOException e) {
-                throw new IOException("Failed fetching dependencies checksums from Artifactory ", e);
+            searches.add(artifactoryManager.searchArtifactsByAqlAsync(aql));
+        }
+        AqlSearchResult aggregatedResults = new AqlSearchResult();
+        try {
+            CompletableFuture.allOf(searches.toArray(new CompletableFuture[0])).get();
+            for (CompletableFuture<AqlSearchResult> search : searches) {
+                aggregatedResults.getResults().addAll(search.get().getResults());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching dependencies checksums from Artifactory", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
             }
+            throw new IOException("Failed fetching dependencies checksums from Artifactory ", cause);
         }
         return aggregatedResults;
     }
@@ -40,6 +40,7 @@ public class PipInstall extends PackageManagerExtractor {
     private String username;
     private String password;
     private String module;
+    private int aqlBulkSize = ArtifactoryClientConfiguration.DEFAULT_PIP_AQL_BULK_SIZE;
 
     public PipInstall(ArtifactoryManagerBuilder artifactoryManagerBuilder, String resolutionRepository, String installArgs, Log logger, Path path, Map<String, String> env, String module, String username, String password, String envActivation) {
 
@@ -63,6 +64,13 @@ public class PipInstall extends PackageManagerExtractor {
                 : module;
     }
 
+    /**
+     * @param aqlBulkSize - Max number of files to search by a single AQL query, when fetching the dependencies checksums.
+     */
+    public void setAqlBulkSize(int aqlBulkSize) {
+        this.aqlBulkSize = aqlBulkSize;
+    }
+
     /**
      * Allow running pip install using a new Java process.
      * Used only in Jenkins to allow running 'rtPip install' in a docker container.
@@ -82,6 +90,7 @@ public class PipInstall extends PackageManagerExtractor {
                     clientConfiguration.resolver.getUsername(),
                     clientConfiguration.resolver.getPassword(),
                     clientConfiguration.pipHandler.getEnvActivation());
+            pipInstall.setAqlBulkSize(clientConfiguration.pipHandler.getAqlBulkSize());
             pipInstall.executeAndSaveBuildInfo(clientConfiguration);
         } catch (RuntimeException e) {
             ExceptionUtils.printRootCauseStackTrace(e, System.out);
@@ -100,6 +109,7 @@ public class PipInstall extends PackageManagerExtractor {
 
             // Parse output and get all dependencies.
             PipBuildInfoExtractor buildInfoExtractor = new PipBuildInfoExtractor();
+            buildInfoExtractor.setAqlBulkSize(aqlBulkSize);
             try {
                 return buildInfoExtractor.extract(artifactoryManager, repo, installLog, path, module, logger);
             } catch (IOException e) {
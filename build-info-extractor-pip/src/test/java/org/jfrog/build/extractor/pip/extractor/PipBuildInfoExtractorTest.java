@@ -1,12 +1,22 @@
 package org.jfrog.build.extractor.pip.extractor;
 
+import org.jfrog.build.api.search.AqlSearchResult;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
+import org.jfrog.build.extractor.util.FakeArtifactory;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import static org.jfrog.build.extractor.pip.extractor.PipBuildInfoExtractor.createAqlQueries;
-import static org.testng.Assert.assertEquals;
+import static org.jfrog.build.extractor.pip.extractor.PipBuildInfoExtractor.runAqlQueries;
+import static org.testng.Assert.*;
 
 @Test
 public class PipBuildInfoExtractorTest {
@@ -34,6 +44,60 @@ public class PipBuildInfoExtractorTest {
         assertEquals(actual, expected);
     }
 
+    public void runAqlQueriesTest() throws Exception {
+        List<String> aqlQueries = createAqlQueries(fileToPackageTestMap, "repository", 1);
+        // Every request waits until all the queries were sent, so the test fails if the queries are sent one by one
+        CountDownLatch allSent = new CountDownLatch(aqlQueries.size());
+        try (FakeArtifactory artifactory = createAqlServer(aql -> {
+            allSent.countDown();
+            return allSent.await(10, TimeUnit.SECONDS);
+        }); ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+            AqlSearchResult result = runAqlQueries(aqlQueries, artifactoryManager);
+            List<String> names = result.getResults().stream().map(AqlSearchResult.SearchEntry::getName).collect(Collectors.toList());
+            assertEquals(names, Arrays.asList("file2.whl", "file4.egg", "file3.tar.gz", "file1.tgz"));
+            assertEquals(result.getResults().get(0).getActualSha1(), "sha1-file2.whl");
+        }
+    }
+
+    public void runAqlQueriesFailureTest() throws Exception {
+        try (FakeArtifactory artifactory = createAqlServer(aql -> !aql.contains("file3.tar.gz"));
+             ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+            runAqlQueries(createAqlQueries(fileToPackageTestMap, "repository", 1), artifactoryManager);
+            fail("Expected the failed query to fail the search");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Failed fetching dependencies checksums from Artifactory"), e.getMessage());
+        }
+    }
+
+    private static final Pattern AQL_FILE = Pattern.compile("\\{\"name\":\"([^\"]+)\"}");
+
+    private interface AqlHandler {
+        boolean handle(String aql) throws Exception;
+    }
+
+    /**
+     * Fake AQL endpoint, returning an entry for every searched file, or an error if the handler returns false.
+     */
+    private static FakeArtifactory createAqlServer(AqlHandler handler) throws IOException {
+        return new FakeArtifactory().handle("api/search/aql", exchange -> {
+            String aql = FakeArtifactory.readBody(exchange);
+            boolean success;
+            try {
+                success = handler.handle(aql);
+            } catch (Exception e) {
+                success = false;
+            }
+            StringJoiner results = new StringJoiner(",", "{\"results\":[", "]}");
+            Matcher matcher = AQL_FILE.matcher(aql);
+            while (matcher.find()) {
+                String name = matcher.group(1);
+                results.add("{\"repo\":\"repository\",\"path\":\".\",\"name\":\"" + name + "\"," +
+                        "\"actual_sha1\":\"sha1-" + name + "\",\"actual_md5\":\"md5-" + name + "\"}");
+            }
+            FakeArtifactory.respond(exchange, success ? 200 : 400, success ? results.toString() : "{\"errors\":[]}");
+        });
+    }
+
     private final Map<String, String> fileToPackageTestMap = new HashMap<String, String>() {{
         put("file1.tgz", "file1");
         put("file2.whl", "file2");
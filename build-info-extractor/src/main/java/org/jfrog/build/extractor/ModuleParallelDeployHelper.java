@@ -3,37 +3,49 @@ package org.jfrog.build.extractor;
 import org.jfrog.build.client.ArtifactoryUploadResponse;
 import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
 import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
+import org.jfrog.build.extractor.clientConfiguration.util.ChecksumExistenceHelper;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * This class manages artifacts deployment after a maven / gradle build.
  * If publishForkCount is larger than 1, deployment will be parallel between modules.
  * The deployment of every module will always be serial, with maven / gradle descriptors deployed last. This is done to prevent conflicts in Artifactory.
+ * Parallel deployment uses the asynchronous upload, which sends the requests over HTTP/2 without keeping a thread
+ * waiting for each response if enabled, or by the http client on a bounded pool of threads otherwise.
+ * Before the deployment, Artifactory is queried in bulk for the checksums of all artifacts, so that checksum deploy is
+ * attempted only for artifacts which already exist.
  */
 public class ModuleParallelDeployHelper {
     public static final int DEFAULT_DEPLOYMENT_THREADS = 3;
 
     public void deployArtifacts(ArtifactoryManager artifactoryManager,
                                 Map<String, Set<DeployDetails>> deployableArtifactsByModule, int publishForkCount) {
+        ChecksumExistenceHelper checksumExistenceHelper = new ChecksumExistenceHelper(artifactoryManager, artifactoryManager.getLog());
+        List<DeployDetails> allDeployableArtifacts = new ArrayList<>();
+        deployableArtifactsByModule.values().forEach(allDeployableArtifacts::addAll);
+        checksumExistenceHelper.markExistingChecksums(allDeployableArtifacts);
+        checksumExistenceHelper.logStats();
+
         if (publishForkCount <= 1) {
             deployableArtifactsByModule.forEach((module, deployableArtifacts) -> deploy(artifactoryManager, deployableArtifacts, null));
         } else {
+            Iterator<Map.Entry<String, Set<DeployDetails>>> modules = deployableArtifactsByModule.entrySet().iterator();
+            // Each deployment chain deploys the next module after the previous one is done
+            CompletableFuture<?>[] deploymentChains = new CompletableFuture[Math.min(publishForkCount, deployableArtifactsByModule.size())];
+            for (int i = 0; i < deploymentChains.length; i++) {
+                deploymentChains[i] = deployNextModule(artifactoryManager, modules);
+            }
             try {
-                ExecutorService executor = Executors.newFixedThreadPool(publishForkCount);
-                CompletableFuture<Void> allDeployments = CompletableFuture.allOf(
-                        deployableArtifactsByModule.values().stream()
-                                .map(deployDetails ->
-                                        CompletableFuture.runAsync(() ->
-                                                deploy(artifactoryManager, deployDetails, "[" + Thread.currentThread().getName() + "]"), executor))
-                                .toArray(CompletableFuture[]::new));
-                allDeployments.get();
+                CompletableFuture.allOf(deploymentChains).get();
             } catch (InterruptedException | ExecutionException e) {
                 throw new RuntimeException(e);
             }
@@ -44,19 +56,55 @@ public class ModuleParallelDeployHelper {
         deployableArtifacts.forEach(artifact -> {
             try {
                 ArtifactoryUploadResponse response = artifactoryManager.upload(artifact, logPrefix);
-                // Save information returned from Artifactory after the deployment.
-                artifact.setDeploySucceeded(true);
-                artifact.setSha256(response.getChecksums().getSha256());
-                // When a maven SNAPSHOT artifact is deployed, Artifactory adds a timestamp to the artifact name, after the artifact is deployed.
-                // ArtifactPath needs to be updated accordingly.
-                artifact.setArtifactPath(response.getPath());
+                setDeploySucceeded(artifact, response);
             } catch (IOException e) {
-                artifact.setDeploySucceeded(false);
-                artifact.setSha256("");
-                throw new RuntimeException("Error occurred while publishing artifact to Artifactory: " +
-                        artifact.getFile() +
-                        ".\n Skipping deployment of remaining artifacts (if any) and build info.", e);
+                throw setDeployFailed(artifact, e);
             }
         });
     }
+
+    private CompletableFuture<Void> deployNextModule(ArtifactoryManager artifactoryManager, Iterator<Map.Entry<String, Set<DeployDetails>>> modules) {
+        Map.Entry<String, Set<DeployDetails>> module;
+        synchronized (modules) {
+            if (!modules.hasNext()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            module = modules.next();
+        }
+        return deployNextArtifact(artifactoryManager, module.getValue().iterator(), "[" + module.getKey() + "]")
+                .thenCompose(ignored -> deployNextModule(artifactoryManager, modules));
+    }
+
+    private CompletableFuture<Void> deployNextArtifact(ArtifactoryManager artifactoryManager, Iterator<DeployDetails> artifacts, String logPrefix) {
+        if (!artifacts.hasNext()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        DeployDetails artifact = artifacts.next();
+        return artifactoryManager.uploadAsync(artifact, logPrefix, null)
+                .handle((response, throwable) -> {
+                    if (throwable != null) {
+                        throw new CompletionException(setDeployFailed(artifact, throwable instanceof CompletionException ? throwable.getCause() : throwable));
+                    }
+                    setDeploySucceeded(artifact, response);
+                    return response;
+                })
+                .thenCompose(ignored -> deployNextArtifact(artifactoryManager, artifacts, logPrefix));
+    }
+
+    private void setDeploySucceeded(DeployDetails artifact, ArtifactoryUploadResponse response) {
+        // Save information returned from Artifactory after the deployment.
+        artifact.setDeploySucceeded(true);
+        artifact.setSha256(response.getChecksums().getSha256());
+        // When a maven SNAPSHOT artifact is deployed, Artifactory adds a timestamp to the artifact name, after the artifact is deployed.
+        // ArtifactPath needs to be updated accordingly.
+        artifact.setArtifactPath(response.getPath());
+    }
+
+    private RuntimeException setDeployFailed(DeployDetails artifact, Throwable cause) {
+        artifact.setDeploySucceeded(false);
+        artifact.setSha256("");
+        return new RuntimeException("Error occurred while publishing artifact to Artifactory: " +
+                artifact.getFile() +
+                ".\n Skipping deployment of remaining artifacts (if any) and build info.", cause);
+    }
 }
@@ -22,6 +22,7 @@ import org.apache.commons.lang.StringUtils;
 import org.jfrog.build.api.*;
 import org.jfrog.build.api.util.CommonUtils;
 import org.jfrog.build.api.util.Log;
+import org.jfrog.build.extractor.clientConfiguration.util.DownloadCache;
 import org.jfrog.build.extractor.clientConfiguration.util.IssuesTrackerUtils;
 
 import java.io.File;
@@ -43,6 +44,7 @@ import static org.jfrog.build.api.IssuesTrackerFields.*;
 import static org.jfrog.build.api.LicenseControlFields.AUTO_DISCOVER;
 import static org.jfrog.build.api.LicenseControlFields.VIOLATION_RECIPIENTS;
 import static org.jfrog.build.extractor.ModuleParallelDeployHelper.DEFAULT_DEPLOYMENT_THREADS;
+import static org.jfrog.build.extractor.clientConfiguration.util.DependenciesDownloaderHelper.*;
 import static org.jfrog.build.extractor.clientConfiguration.ClientConfigurationFields.*;
 import static org.jfrog.build.extractor.clientConfiguration.ClientProperties.*;
 
@@ -53,6 +55,8 @@ public class ArtifactoryClientConfiguration {
     // Try checksum deploy of files greater than 10KB
     public static final transient int DEFAULT_MIN_CHECKSUM_DEPLOY_SIZE_KB = 10;
     public static final String DEFAULT_NUGET_PROTOCOL = "v2";
+    public static final int DEFAULT_NPM_AQL_BATCH_SIZE = 100;
+    public static final int DEFAULT_PIP_AQL_BULK_SIZE = 10;
 
     public final ResolverHandler resolver;
     public final PublisherHandler publisher;
@@ -191,10 +195,42 @@ public class ArtifactoryClientConfiguration {
         return root.getIntegerValue(PROP_CONNECTION_RETRIES);
     }
 
+    public void setRetryInitialInterval(Integer retryInitialInterval) {
+        root.setIntegerValue(PROP_RETRY_INITIAL_INTERVAL, retryInitialInterval);
+    }
+
+    public Integer getRetryInitialInterval() {
+        return root.getIntegerValue(PROP_RETRY_INITIAL_INTERVAL);
+    }
+
+    public void setRetryMaxInterval(Integer retryMaxInterval) {
+        root.setIntegerValue(PROP_RETRY_MAX_INTERVAL, retryMaxInterval);
+    }
+
+    public Integer getRetryMaxInterval() {
+        return root.getIntegerValue(PROP_RETRY_MAX_INTERVAL);
+    }
+
     public boolean getInsecureTls() {
         return root.getBooleanValue(PROP_INSECURE_TLS, false);
     }
 
+    public void setHttp2(Boolean http2) {
+        root.setBooleanValue(PROP_HTTP2, http2);
+    }
+
+    public boolean isHttp2() {
+        return root.getBooleanValue(PROP_HTTP2, false);
+    }
+
+    public void setShareHttpClient(Boolean shareHttpClient) {
+        root.setBooleanValue(PROP_SHARE_HTTP_CLIENT, shareHttpClient);
+    }
+
+    public boolean isShareHttpClient() {
+        return root.getBooleanValue(PROP_SHARE_HTTP_CLIENT, false);
+    }
+
     public Integer getSocketTimeout() {
         return root.getIntegerValue(PROP_SO_TIMEOUT);
     }
@@ -320,6 +356,86 @@ public class ArtifactoryClientConfiguration {
         public void setDownloadSnapshotRepoKey(String repoKey) {
             setStringValue(DOWN_SNAPSHOT_REPO_KEY, repoKey);
         }
+
+        public void setDownloadThreads(int value) {
+            setIntegerValue(DOWNLOAD_THREADS, value);
+        }
+
+        public Integer getDownloadThreads() {
+            return getIntegerValue(DOWNLOAD_THREADS, DEFAULT_DOWNLOAD_THREADS);
+        }
+
+        public void setConcurrentDownloadThreads(int value) {
+            setIntegerValue(CONCURRENT_DOWNLOAD_THREADS, value);
+        }
+
+        public Integer getConcurrentDownloadThreads() {
+            return getIntegerValue(CONCURRENT_DOWNLOAD_THREADS, DEFAULT_CONCURRENT_DOWNLOAD_THREADS);
+        }
+
+        public void setConcurrentDownloadMinSizeKb(int value) {
+            setIntegerValue(CONCURRENT_DOWNLOAD_MIN_SIZE_KB, value);
+        }
+
+        public Integer getConcurrentDownloadMinSizeKb() {
+            return getIntegerValue(CONCURRENT_DOWNLOAD_MIN_SIZE_KB, MIN_SIZE_FOR_CONCURRENT_DOWNLOAD / 1024);
+        }
+
+        public void setConcurrentDownloadChunkSizeKb(int value) {
+            setIntegerValue(CONCURRENT_DOWNLOAD_CHUNK_SIZE_KB, value);
+        }
+
+        public Integer getConcurrentDownloadChunkSizeKb() {
+            return getIntegerValue(CONCURRENT_DOWNLOAD_CHUNK_SIZE_KB, DEFAULT_CONCURRENT_DOWNLOAD_CHUNK_SIZE_KB);
+        }
+
+        public void setConcurrentDownloadChunkRetries(int value) {
+            setIntegerValue(CONCURRENT_DOWNLOAD_CHUNK_RETRIES, value);
+        }
+
+        public Integer getConcurrentDownloadChunkRetries() {
+            return getIntegerValue(CONCURRENT_DOWNLOAD_CHUNK_RETRIES, DEFAULT_CONCURRENT_DOWNLOAD_CHUNK_RETRIES);
+        }
+
+        public void setDownloadCacheDir(String downloadCacheDir) {
+            setStringValue(DOWNLOAD_CACHE_DIR, downloadCacheDir);
+        }
+
+        public String getDownloadCacheDir() {
+            return getStringValue(DOWNLOAD_CACHE_DIR);
+        }
+
+        public void setDownloadCacheMaxSizeMb(int value) {
+            setIntegerValue(DOWNLOAD_CACHE_MAX_SIZE_MB, value);
+        }
+
+        public Integer getDownloadCacheMaxSizeMb() {
+            return getIntegerValue(DOWNLOAD_CACHE_MAX_SIZE_MB, DownloadCache.DEFAULT_MAX_SIZE_MB);
+        }
+
+        public void setDownloadCacheUseLinks(boolean downloadCacheUseLinks) {
+            setBooleanValue(DOWNLOAD_CACHE_USE_LINKS, downloadCacheUseLinks);
+        }
+
+        public boolean isDownloadCacheUseLinks() {
+            return getBooleanValue(DOWNLOAD_CACHE_USE_LINKS, true);
+        }
+
+        public void setVerifyLocalChecksums(boolean verifyLocalChecksums) {
+            setBooleanValue(VERIFY_LOCAL_CHECKSUMS, verifyLocalChecksums);
+        }
+
+        public boolean isVerifyLocalChecksums() {
+            return getBooleanValue(VERIFY_LOCAL_CHECKSUMS, false);
+        }
+
+        public void setChecksumsIndexFile(String checksumsIndexFile) {
+            setStringValue(CHECKSUMS_INDEX_FILE, checksumsIndexFile);
+        }
+
+        public String getChecksumsIndexFile() {
+            return getStringValue(CHECKSUMS_INDEX_FILE);
+        }
     }
 
     public class PublisherHandler extends RepositoryConfiguration {
@@ -528,6 +644,14 @@ public class ArtifactoryClientConfiguration {
         public void setCiCommand(boolean ciCommand) {
             rootConfig.setBooleanValue(NPM_CI_COMMAND, ciCommand);
         }
+
+        public int getAqlBatchSize() {
+            return rootConfig.getIntegerValue(NPM_AQL_BATCH_SIZE, DEFAULT_NPM_AQL_BATCH_SIZE);
+        }
+
+        public void setAqlBatchSize(int aqlBatchSize) {
+            rootConfig.setIntegerValue(NPM_AQL_BATCH_SIZE, aqlBatchSize);
+        }
     }
 
     public class PipHandler extends PrefixPropertyHandler {
@@ -542,6 +666,14 @@ public class ArtifactoryClientConfiguration {
         public void setEnvActivation(String envActivation) {
             rootConfig.setStringValue(PIP_ENV_ACTIVATION, envActivation);
         }
+
+        public int getAqlBulkSize() {
+            return rootConfig.getIntegerValue(PIP_AQL_BULK_SIZE, DEFAULT_PIP_AQL_BULK_SIZE);
+        }
+
+        public void setAqlBulkSize(int aqlBulkSize) {
+            rootConfig.setIntegerValue(PIP_AQL_BULK_SIZE, aqlBulkSize);
+        }
     }
 
     public class DotnetHandler extends PrefixPropertyHandler {
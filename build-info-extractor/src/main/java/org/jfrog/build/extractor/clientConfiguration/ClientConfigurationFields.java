@@ -34,7 +34,9 @@ public interface ClientConfigurationFields {
     String PACKAGE_MANAGER_PATH = "package.manager.path"; // Path to package-manager execution dir
     String PACKAGE_MANAGER_MODULE = "package.manager.module"; // Custom module name for the build-info
     String NPM_CI_COMMAND = "npm.ci.command"; // Determines whether the npm build is 'npm install' or 'npm ci' command.
+    String NPM_AQL_BATCH_SIZE = "npm.aql.batchSize"; // Number of npm packages to search by a single AQL.
     String PIP_ENV_ACTIVATION = "pip.env.activation";
+    String PIP_AQL_BULK_SIZE = "pip.aql.bulkSize"; // Number of pip files to search by a single AQL.
     String DOTNET_USE_DOTNET_CORE_CLI = "dotnet.use.dotnet.core.cli";
     String DOTNET_NUGET_PROTOCOL = "dotnet.nuget.protocol";
     String DOCKER_IMAGE_TAG = "docker.image.tag";
@@ -44,6 +46,16 @@ public interface ClientConfigurationFields {
     String URL = "url";
     String REPO_KEY = "repoKey";
     String DOWN_SNAPSHOT_REPO_KEY = "downSnapshotRepoKey";
+    String DOWNLOAD_THREADS = "downloadThreads";
+    String CONCURRENT_DOWNLOAD_THREADS = "concurrentDownload.threads";
+    String CONCURRENT_DOWNLOAD_MIN_SIZE_KB = "concurrentDownload.minSizeKb";
+    String CONCURRENT_DOWNLOAD_CHUNK_SIZE_KB = "concurrentDownload.chunkSizeKb";
+    String CONCURRENT_DOWNLOAD_CHUNK_RETRIES = "concurrentDownload.chunkRetries";
+    String DOWNLOAD_CACHE_DIR = "downloadCache.dir";
+    String DOWNLOAD_CACHE_MAX_SIZE_MB = "downloadCache.maxSizeMb";
+    String DOWNLOAD_CACHE_USE_LINKS = "downloadCache.useLinks";
+    String VERIFY_LOCAL_CHECKSUMS = "verifyLocalChecksums";
+    String CHECKSUMS_INDEX_FILE = "checksumsIndex.file";
     // Publish fields
     String PUBLISH_ARTIFACTS = "artifacts";
     String PUBLISH_BUILD_INFO = "buildInfo";
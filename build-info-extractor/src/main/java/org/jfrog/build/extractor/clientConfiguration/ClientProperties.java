@@ -32,6 +32,16 @@ public interface ClientProperties {
 
     String PROP_CONNECTION_RETRIES = ARTIFACTORY_PREFIX + "connectionRetries";
 
+    /**
+     * Wait time in milliseconds before the first retry of a failed request. The wait time grows exponentially on the next retries.
+     */
+    String PROP_RETRY_INITIAL_INTERVAL = ARTIFACTORY_PREFIX + "retryInitialInterval";
+
+    /**
+     * Max wait time in milliseconds between retries of a failed request.
+     */
+    String PROP_RETRY_MAX_INTERVAL = ARTIFACTORY_PREFIX + "retryMaxInterval";
+
     String PROP_TIMEOUT = ARTIFACTORY_PREFIX + "timeout";
 
     String PROP_SO_TIMEOUT = ARTIFACTORY_PREFIX + "timeout.socket";
@@ -79,4 +89,14 @@ public interface ClientProperties {
      * Property for whether to use relaxed ssl check and ignore issues with server certificate
      */
     String PROP_INSECURE_TLS = ARTIFACTORY_PREFIX + "insecureTls";
+
+    /**
+     * Property for whether to send the requests over HTTP/2 when the server supports it
+     */
+    String PROP_HTTP2 = ARTIFACTORY_PREFIX + "http2";
+
+    /**
+     * Property for whether to share the http connections between the clients of the build with the same settings
+     */
+    String PROP_SHARE_HTTP_CLIENT = ARTIFACTORY_PREFIX + "shareHttpClient";
 }
\ No newline at end of file
@@ -18,6 +18,12 @@ public abstract class ManagerBuilderBase<T extends ManagerBuilderBase<T>> implem
     protected ProxyConfiguration proxyConfiguration;
     protected int connectionTimeout = -1;
     protected int connectionRetry = -1;
+    protected int retryInitialInterval = -1;
+    protected int retryMaxInterval = -1;
+    protected int maxTotalConnections = -1;
+    protected int maxConnectionsPerRoute = -1;
+    protected boolean shareHttpClient;
+    protected boolean http2;
     protected String serverUrl;
     protected SSLContext sslContext;
     protected String username;
@@ -40,6 +46,36 @@ public abstract class ManagerBuilderBase<T extends ManagerBuilderBase<T>> implem
         return self();
     }
 
+    public T setRetryInitialInterval(int retryInitialInterval) {
+        this.retryInitialInterval = retryInitialInterval;
+        return self();
+    }
+
+    public T setRetryMaxInterval(int retryMaxInterval) {
+        this.retryMaxInterval = retryMaxInterval;
+        return self();
+    }
+
+    public T setMaxTotalConnections(int maxTotalConnections) {
+        this.maxTotalConnections = maxTotalConnections;
+        return self();
+    }
+
+    public T setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        return self();
+    }
+
+    public T setShareHttpClient(boolean shareHttpClient) {
+        this.shareHttpClient = shareHttpClient;
+        return self();
+    }
+
+    public T setHttp2(boolean http2) {
+        this.http2 = http2;
+        return self();
+    }
+
     public T setServerUrl(String serverUrl) {
         this.serverUrl = serverUrl;
         return self();
@@ -83,6 +119,8 @@ public abstract class ManagerBuilderBase<T extends ManagerBuilderBase<T>> implem
         setUsername(repositoryConfiguration.getUsername());
         setPassword(repositoryConfiguration.getPassword());
         setLog(repositoryConfiguration.getLog());
+        // Managers built from the same client configuration during the build may reuse the same connections
+        setShareHttpClient(clientConfiguration.isShareHttpClient());
 
         ArtifactoryClientConfiguration.ProxyHandler proxyHandler = clientConfiguration.proxy;
         if (proxyHandler != null && StringUtils.isNotBlank(proxyHandler.getHost())) {
@@ -94,14 +132,32 @@ public abstract class ManagerBuilderBase<T extends ManagerBuilderBase<T>> implem
             setProxyConfiguration(proxyConfiguration);
         }
 
+        setHttp2(clientConfiguration.isHttp2());
+
         if (clientConfiguration.getConnectionRetries() != null) {
             setConnectionRetry(clientConfiguration.getConnectionRetries());
         }
 
+        if (clientConfiguration.getRetryInitialInterval() != null) {
+            setRetryInitialInterval(clientConfiguration.getRetryInitialInterval());
+        }
+
+        if (clientConfiguration.getRetryMaxInterval() != null) {
+            setRetryMaxInterval(clientConfiguration.getRetryMaxInterval());
+        }
+
         if (clientConfiguration.getTimeout() != null) {
             setConnectionTimeout(clientConfiguration.getTimeout());
         }
 
+        if (clientConfiguration.getMaxTotalConnection() != null) {
+            setMaxTotalConnections(clientConfiguration.getMaxTotalConnection());
+        }
+
+        if (clientConfiguration.getMaxConnectionPerRoute() != null) {
+            setMaxConnectionsPerRoute(clientConfiguration.getMaxConnectionPerRoute());
+        }
+
         return self();
     }
 
@@ -114,6 +170,8 @@ public abstract class ManagerBuilderBase<T extends ManagerBuilderBase<T>> implem
         }
 
         client.setSslContext(sslContext);
+        client.setShareHttpClient(shareHttpClient);
+        client.setHttp2(http2);
 
         if (connectionTimeout != -1) {
             client.setConnectionTimeout(connectionTimeout);
@@ -122,6 +180,22 @@ public abstract class ManagerBuilderBase<T extends ManagerBuilderBase<T>> implem
         if (connectionRetry != -1) {
             client.setConnectionRetries(connectionRetry);
         }
+
+        if (retryInitialInterval != -1) {
+            client.setRetryInitialInterval(retryInitialInterval);
+        }
+
+        if (retryMaxInterval != -1) {
+            client.setRetryMaxInterval(retryMaxInterval);
+        }
+
+        if (maxTotalConnections != -1) {
+            client.setMaxTotalConnections(maxTotalConnections);
+        }
+
+        if (maxConnectionsPerRoute != -1) {
+            client.setMaxConnectionsPerRoute(maxConnectionsPerRoute);
+        }
         return client;
     }
 
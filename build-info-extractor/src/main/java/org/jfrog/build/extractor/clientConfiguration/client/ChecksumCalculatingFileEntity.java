@@ -0,0 +1,76 @@
+package org.jfrog.build.extractor.clientConfiguration.client;
+
+import org.apache.http.entity.FileEntity;
+import org.jfrog.build.api.util.FileChecksumCalculator;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * File entity calculating the SHA1, MD5 and SHA256 checksums of the file while writing it to the request stream,
+ * so that the file is read only once when its checksums are not known before the upload.
+ * The checksums are available by {@link #getChecksums()} after the entity was fully written.
+ */
+public class ChecksumCalculatingFileEntity extends FileEntity {
+    public static final String SHA1 = "SHA1";
+    public static final String MD5 = "MD5";
+    public static final String SHA256 = "SHA-256";
+    private static final String[] ALGORITHMS = {SHA1, MD5, SHA256};
+    private static final int BUFFER_SIZE = 32768;
+
+    private volatile Map<String, String> checksums;
+
+    public ChecksumCalculatingFileEntity(File file, String contentType) {
+        super(file);
+        setContentType(contentType);
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        // The entity may be written more than once on retries, so the checksums are calculated from scratch every time
+        checksums = null;
+        MessageDigest[] digests = createDigests();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream inputStream = new FileInputStream(file)) {
+            int size;
+            while ((size = inputStream.read(buffer)) != -1) {
+                for (MessageDigest digest : digests) {
+                    digest.update(buffer, 0, size);
+                }
+                outStream.write(buffer, 0, size);
+            }
+            outStream.flush();
+        }
+        Map<String, String> calculated = new HashMap<>();
+        for (int i = 0; i < ALGORITHMS.length; i++) {
+            calculated.put(ALGORITHMS[i], FileChecksumCalculator.encodeHex(digests[i].digest()));
+        }
+        checksums = calculated;
+    }
+
+    /**
+     * @return Map with algorithm keys and checksum values, or null if the entity wasn't fully written yet
+     */
+    public Map<String, String> getChecksums() {
+        return checksums;
+    }
+
+    private static MessageDigest[] createDigests() throws IOException {
+        MessageDigest[] digests = new MessageDigest[ALGORITHMS.length];
+        try {
+            for (int i = 0; i < ALGORITHMS.length; i++) {
+                digests[i] = MessageDigest.getInstance(ALGORITHMS[i]);
+            }
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Could not find checksum algorithm: " + e.getMessage(), e);
+        }
+        return digests;
+    }
+}
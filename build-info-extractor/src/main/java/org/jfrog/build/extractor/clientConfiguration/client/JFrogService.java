@@ -1,9 +1,9 @@
 package org.jfrog.build.extractor.clientConfiguration.client;
 
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.apache.commons.codec.net.URLCodec;
-import org.apache.commons.io.IOUtils;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
@@ -11,15 +11,19 @@ import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.util.EntityUtils;
 import org.jfrog.build.api.util.Log;
 import org.jfrog.build.client.JFrogHttpClient;
+import org.jfrog.build.extractor.clientConfiguration.util.JsonUtils;
 import org.jfrog.build.util.URI;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.apache.commons.codec.binary.StringUtils.getBytesUtf8;
 import static org.apache.commons.codec.binary.StringUtils.newStringUsAscii;
-import static org.jfrog.build.extractor.BuildInfoExtractorUtils.createMapper;
 
 /**
  * JFrogService represents a generic way of processing a REST endpoint process that structures how REST sends, handles errors, and parses the response.
@@ -27,12 +31,15 @@ import static org.jfrog.build.extractor.BuildInfoExtractorUtils.createMapper;
  * @param <TResult> - The expected result class  from the JFrog REST endpoint.
  */
 public abstract class JFrogService<TResult> {
+    /**
+     * Max characters of an error response body to include in the exception message.
+     */
+    static final int MAX_ERROR_MESSAGE_LENGTH = 64 * 1024;
     protected final Log log;
     protected TResult result;
     protected int statusCode;
     protected JFrogServiceResponseType responseType;
     private Header[] headers;
-    private ObjectMapper mapper;
 
     protected JFrogService(Log log) {
         this.log = log;
@@ -49,11 +56,33 @@ public abstract class JFrogService<TResult> {
             throw new IllegalArgumentException("JFrog service failed. Received " + statusCode);
         }
         try (InputStream stream = entity.getContent()) {
-            String ResponseMessage = IOUtils.toString(stream, StandardCharsets.UTF_8.name());
+            String ResponseMessage = readErrorMessage(stream);
             throw new IOException("JFrog service failed. Received " + statusCode + ": " + ResponseMessage);
         }
     }
 
+    /**
+     * Read the beginning of an error response body. Error responses may be large (for example an HTML page returned by
+     * a proxy), so at most {@link #MAX_ERROR_MESSAGE_LENGTH} characters are read.
+     *
+     * @param stream - The response body stream
+     * @return the error message.
+     */
+    protected static String readErrorMessage(InputStream stream) throws IOException {
+        Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8);
+        char[] buffer = new char[MAX_ERROR_MESSAGE_LENGTH];
+        int length = 0;
+        int read;
+        while (length < buffer.length && (read = reader.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+        }
+        String message = new String(buffer, 0, length);
+        if (length == buffer.length && reader.read() != -1) {
+            message += "... (truncated)";
+        }
+        return message;
+    }
+
     public static String encodeUrl(String unescaped) {
         byte[] rawData = URLCodec.encodeUrl(URI.allowed_query, getBytesUtf8(unescaped));
         return newStringUsAscii(rawData);
@@ -61,13 +90,21 @@ public abstract class JFrogService<TResult> {
 
     /**
      * Default ObjectMapper to parse or deserialize JSON content into a Java object.
+     * The mapper is shared by all services and must not be reconfigured.
      */
     protected ObjectMapper getMapper() {
-        if (mapper == null) {
-            mapper = createMapper();
-            mapper.setAnnotationIntrospector(new JacksonAnnotationIntrospector());
-        }
-        return mapper;
+        return JsonUtils.getSharedMapper();
+    }
+
+    /**
+     * Cached reader of the shared mapper for the input type.
+     */
+    protected ObjectReader getReader(Class<?> type) {
+        return JsonUtils.getReader(type);
+    }
+
+    protected ObjectReader getReader(JavaType type) {
+        return JsonUtils.getReader(type);
     }
 
     public TResult getResult() {
@@ -119,23 +156,61 @@ public abstract class JFrogService<TResult> {
     public TResult execute(JFrogHttpClient client) throws IOException {
         ensureRequirements(client);
         try (CloseableHttpResponse response = client.sendRequest(createRequest())) {
-            if (response == null) {
-                return null;
-            }
-            HttpEntity entity = response.getEntity();
+            return handleResponse(response);
+        }
+    }
+
+    /**
+     * Asynchronous execution of a service. Same as {@link #execute(JFrogHttpClient)}, but the calling thread doesn't
+     * wait for the response. The number of requests in flight is bounded by the http client. Without HTTP/2, each
+     * request still blocks a thread of the http client, see {@link JFrogHttpClient#sendRequestAsync}.
+     * Services overriding {@link #execute(JFrogHttpClient)} should override this method as well.
+     *
+     * @param client - http client for sending the request.
+     * @return - Future of the response body object.
+     */
+    public CompletableFuture<TResult> executeAsync(JFrogHttpClient client) {
+        CompletableFuture<CloseableHttpResponse> responseFuture;
+        try {
+            ensureRequirements(client);
+            responseFuture = client.sendRequestAsync(createRequest());
+        } catch (IOException | RuntimeException e) {
+            CompletableFuture<TResult> failedFuture = new CompletableFuture<>();
+            failedFuture.completeExceptionally(e);
+            return failedFuture;
+        }
+        return responseFuture.thenApply(response -> {
             try {
-                setStatusCode(response.getStatusLine().getStatusCode());
-                setHeaders(response.getAllHeaders());
-                if (getStatusCode() >= 400) {
-                    handleUnsuccessfulResponse(entity);
-                } else {
-                    processResponse(entity);
-                }
-                return getResult();
-            } finally {
-                if (entity != null) {
-                    EntityUtils.consumeQuietly(entity);
+                try {
+                    return handleResponse(response);
+                } finally {
+                    if (response != null) {
+                        response.close();
+                    }
                 }
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    private TResult handleResponse(CloseableHttpResponse response) throws IOException {
+        if (response == null) {
+            return null;
+        }
+        HttpEntity entity = response.getEntity();
+        try {
+            setStatusCode(response.getStatusLine().getStatusCode());
+            setHeaders(response.getAllHeaders());
+            if (getStatusCode() >= 400) {
+                handleUnsuccessfulResponse(entity);
+            } else {
+                processResponse(entity);
+            }
+            return getResult();
+        } finally {
+            if (entity != null) {
+                EntityUtils.consumeQuietly(entity);
             }
         }
     }
@@ -0,0 +1,54 @@
+package org.jfrog.build.extractor.clientConfiguration.client;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.jfrog.build.extractor.clientConfiguration.util.JsonUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Http entity serializing an object to JSON directly into the request stream, instead of building the JSON string first.
+ * The object is serialized again on every retry, so it must not be modified while the request is in progress.
+ */
+public class JsonEntity extends AbstractHttpEntity {
+    private final Object object;
+
+    public JsonEntity(Object object, String contentType) {
+        this.object = object;
+        setContentType(contentType);
+        setChunked(true);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    /**
+     * Prefer {@link #writeTo(OutputStream)}, this method materializes the whole JSON in memory.
+     */
+    @Override
+    public InputStream getContent() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeTo(out);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        JsonUtils.writeJson(object, outStream);
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+}
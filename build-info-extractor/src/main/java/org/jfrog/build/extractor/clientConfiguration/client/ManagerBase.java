@@ -41,6 +41,79 @@ public abstract class ManagerBase implements AutoCloseable {
         jfrogHttpClient.setConnectionRetries(connectionRetries);
     }
 
+    /**
+     * Share the http connections with other managers of the same server, credentials, proxy and connection settings.
+     * Must be set before the first request.
+     *
+     * @param shareHttpClient True to share the http client.
+     */
+    public void setShareHttpClient(boolean shareHttpClient) {
+        jfrogHttpClient.setShareHttpClient(shareHttpClient);
+    }
+
+    /**
+     * Send the requests over HTTP/2 if the server supports it, or fall back to HTTP/1.1 otherwise.
+     * Must be set before the first request.
+     *
+     * @param http2 True to try HTTP/2.
+     */
+    public void setHttp2(boolean http2) {
+        jfrogHttpClient.setHttp2(http2);
+    }
+
+    /**
+     * Wait time before the first retry. The wait time grows exponentially on the next retries.
+     *
+     * @param retryInitialInterval Wait time in milliseconds, 0 to retry immediately.
+     */
+    public void setRetryInitialInterval(int retryInitialInterval) {
+        jfrogHttpClient.setRetryInitialInterval(retryInitialInterval);
+    }
+
+    /**
+     * Max wait time between retries.
+     *
+     * @param retryMaxInterval Wait time in milliseconds.
+     */
+    public void setRetryMaxInterval(int retryMaxInterval) {
+        jfrogHttpClient.setRetryMaxInterval(retryMaxInterval);
+    }
+
+    /**
+     * Max connections in the connection pool.
+     *
+     * @param maxTotalConnections The max number of pooled connections.
+     */
+    public void setMaxTotalConnections(int maxTotalConnections) {
+        jfrogHttpClient.setMaxTotalConnections(maxTotalConnections);
+    }
+
+    public int getMaxTotalConnections() {
+        return jfrogHttpClient.getMaxTotalConnections();
+    }
+
+    /**
+     * Max connections in the connection pool per route (target host).
+     *
+     * @param maxConnectionsPerRoute The max number of pooled connections per route.
+     */
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        jfrogHttpClient.setMaxConnectionsPerRoute(maxConnectionsPerRoute);
+    }
+
+    /**
+     * Max asynchronous requests in flight.
+     *
+     * @param maxInFlightRequests The max number of asynchronous requests that are not completed yet.
+     */
+    public void setMaxInFlightRequests(int maxInFlightRequests) {
+        jfrogHttpClient.setMaxInFlightRequests(maxInFlightRequests);
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return jfrogHttpClient.getMaxConnectionsPerRoute();
+    }
+
     /**
      * Sets the proxy host and port.
      *
@@ -76,6 +149,10 @@ public abstract class ManagerBase implements AutoCloseable {
         jfrogHttpClient.setProxyConfiguration(proxy.host, proxy.port, proxy.username, proxy.password);
     }
 
+    public Log getLog() {
+        return log;
+    }
+
     /**
      * Log setter for the PreemptiveHttpClient for jobs like the Jenkins Generic job that uses NullLog by default.
      *
@@ -0,0 +1,145 @@
+package org.jfrog.build.extractor.clientConfiguration.client.artifactory;
+
+import org.jfrog.build.api.search.AqlSearchResult;
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.client.JFrogHttpClient;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.services.StreamSearchArtifactsByAql;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Search by AQL in pages, by adding offset and limit to the query.
+ * The pages are requested and parsed by a background thread, which hands over the entries to the searching thread
+ * through a queue of one page. The next page is therefore requested while the entries of the current page are consumed,
+ * and no more than two pages are kept in memory.
+ */
+class AqlPagedSearch {
+    // The order of the results must be stable between the pages
+    private static final String DEFAULT_SORT = ".sort({\"$asc\":[\"repo\",\"path\",\"name\"]})";
+    private static final Pattern LIMITED_QUERY = Pattern.compile("\\.(offset|limit|distinct)\\(");
+    private static final Pattern SORTED_QUERY = Pattern.compile("\\.sort\\(");
+    private static final Pattern INCLUDE_PART = Pattern.compile("\\.include\\(([^)]*)\\)");
+    private static final Object END = new Object();
+
+    private final JFrogHttpClient client;
+    private final String aql;
+    private final int pageSize;
+    private final Log log;
+
+    AqlPagedSearch(JFrogHttpClient client, String aql, int pageSize, Log log) {
+        this.client = client;
+        this.aql = aql;
+        this.pageSize = pageSize;
+        this.log = log;
+    }
+
+    /**
+     * AQL doesn't support offset and limit in queries which include properties, and a query may be sorted by default
+     * only if it includes the default sort fields.
+     *
+     * @return true if the query can be sent in pages
+     */
+    static boolean isPageable(String aql) {
+        if (LIMITED_QUERY.matcher(aql).find()) {
+            return false;
+        }
+        Matcher include = INCLUDE_PART.matcher(aql);
+        if (!include.find()) {
+            return true;
+        }
+        String fields = include.group(1);
+        if (fields.contains("\"property")) {
+            return false;
+        }
+        return SORTED_QUERY.matcher(aql).find() ||
+                (fields.contains("\"repo\"") && fields.contains("\"path\"") && fields.contains("\"name\""));
+    }
+
+    /**
+     * Pass all the found entries to the consumer, on the calling thread.
+     *
+     * @return the number of entries found
+     */
+    long search(AqlSearchResult.SearchEntryConsumer consumer) throws IOException {
+        String pagedAql = SORTED_QUERY.matcher(aql).find() ? aql : aql + DEFAULT_SORT;
+        BlockingQueue<Object> queue = new ArrayBlockingQueue<>(pageSize);
+        Thread fetcher = new Thread(() -> fetchPages(pagedAql, queue), "aql_page_fetcher");
+        fetcher.setDaemon(true);
+        fetcher.start();
+        long count = 0;
+        try {
+            while (true) {
+                Object item = queue.take();
+                if (item == END) {
+                    return count;
+                }
+                if (item instanceof Failure) {
+                    throw ((Failure) item).rethrow();
+                }
+                consumer.accept((AqlSearchResult.SearchEntry) item);
+                count++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while searching by AQL");
+        } finally {
+            // Stop fetching pages if the consumer failed
+            fetcher.interrupt();
+        }
+    }
+
+    private void fetchPages(String pagedAql, BlockingQueue<Object> queue) {
+        try {
+            for (long offset = 0; ; offset += pageSize) {
+                String pageAql = pagedAql + ".offset(" + offset + ").limit(" + pageSize + ")";
+                log.debug("Searching Artifactory for page " + (offset / pageSize + 1) + " of the AQL results");
+                long found = new StreamSearchArtifactsByAql(pageAql, entry -> put(queue, entry), log).execute(client);
+                if (found < pageSize) {
+                    break;
+                }
+            }
+            queue.put(END);
+        } catch (InterruptedException e) {
+            // Stopped by the searching thread
+        } catch (IOException | RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Stopped by the searching thread
+                return;
+            }
+            try {
+                queue.put(new Failure(e));
+            } catch (InterruptedException ignored) {
+                // Stopped by the searching thread
+            }
+        }
+    }
+
+    private static void put(BlockingQueue<Object> queue, AqlSearchResult.SearchEntry entry) throws IOException {
+        try {
+            queue.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while searching by AQL");
+        }
+    }
+
+    private static class Failure {
+        private final Exception exception;
+
+        private Failure(Exception exception) {
+            this.exception = exception;
+        }
+
+        private IOException rethrow() {
+            if (exception instanceof RuntimeException) {
+                throw (RuntimeException) exception;
+            }
+            return (IOException) exception;
+        }
+    }
+}
@@ -28,9 +28,11 @@ import org.jfrog.build.extractor.usageReport.UsageReporter;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 
 import static org.jfrog.build.extractor.clientConfiguration.client.artifactory.services.ScanBuild.XRAY_SCAN_CONNECTION_TIMEOUT_SECS;
 
@@ -111,6 +113,26 @@ public class ArtifactoryManager extends ManagerBase {
         return downloadToFileService.execute(jfrogHttpClient);
     }
 
+    /**
+     * Download the bytes in the range [start, end] of a file, and write them to the same offsets of the destination channel.
+     *
+     * @return the number of bytes written
+     */
+    public long downloadRange(String downloadFrom, FileChannel destination, long start, long end) throws IOException {
+        DownloadRange downloadRangeService = new DownloadRange(downloadFrom, destination, start, end, log);
+        return downloadRangeService.execute(jfrogHttpClient);
+    }
+
+    /**
+     * Download an archive and extract it to the destination directory while it's downloaded.
+     *
+     * @return the MD5 and SHA-1 checksums of the archive, by the algorithm names "md5" and "sha1"
+     */
+    public Map<String, String> downloadAndExtract(String downloadFrom, String archiveName, File destinationDirectory) throws IOException {
+        DownloadAndExtract downloadAndExtractService = new DownloadAndExtract(downloadFrom, archiveName, destinationDirectory, log);
+        return downloadAndExtractService.execute(jfrogHttpClient);
+    }
+
     public void executeUserPlugin(String executionName, Map<String, String> requestParams) throws IOException {
         ExecuteUserPlugin executeUserPluginService = new ExecuteUserPlugin(executionName, requestParams, log);
         executeUserPluginService.execute(jfrogHttpClient);
@@ -136,6 +158,13 @@ public class ArtifactoryManager extends ManagerBase {
         return versionService.execute(jfrogHttpClient);
     }
 
+    /**
+     * @return the number of version requests sent to Artifactory by this manager.
+     */
+    public int getVersionRequestsCount() {
+        return jfrogHttpClient.getVersionRequestsCount();
+    }
+
     public void publishBuildInfo(Build buildInfo, String platformUrl) throws IOException {
         PublishBuildInfo publishBuildInfoService = new PublishBuildInfo(buildInfo, platformUrl, log);
         publishBuildInfoService.execute(jfrogHttpClient);
@@ -224,16 +253,70 @@ public class ArtifactoryManager extends ManagerBase {
         return searchArtifactsByAqlService.execute(jfrogHttpClient);
     }
 
+    /**
+     * Search by AQL without blocking the calling thread. The number of searches in flight is bounded by the http client.
+     */
+    public CompletableFuture<AqlSearchResult> searchArtifactsByAqlAsync(String aql) {
+        SearchArtifactsByAql searchArtifactsByAqlService = new SearchArtifactsByAql(aql, log);
+        return searchArtifactsByAqlService.executeAsync(jfrogHttpClient);
+    }
+
+    /**
+     * Search by AQL, and pass the found entries to the consumer one by one while the response is parsed, without
+     * keeping the whole results in memory.
+     *
+     * @return the number of entries found
+     */
+    public long searchArtifactsByAql(String aql, AqlSearchResult.SearchEntryConsumer consumer) throws IOException {
+        StreamSearchArtifactsByAql streamSearchArtifactsByAqlService = new StreamSearchArtifactsByAql(aql, consumer, log);
+        return streamSearchArtifactsByAqlService.execute(jfrogHttpClient);
+    }
+
+    /**
+     * Same as {@link #searchArtifactsByAql(String, AqlSearchResult.SearchEntryConsumer)}, but the query is sent in
+     * pages of the given size, unless it already limits its results or includes properties. The next page is requested
+     * while the entries of the current page are consumed. Queries without a sort are sorted by repo, path and name, to
+     * keep the order of the results stable between the pages.
+     *
+     * @return the number of entries found
+     */
+    public long searchArtifactsByAql(String aql, int pageSize, AqlSearchResult.SearchEntryConsumer consumer) throws IOException {
+        if (pageSize <= 0 || !AqlPagedSearch.isPageable(aql)) {
+            return searchArtifactsByAql(aql, consumer);
+        }
+        return new AqlPagedSearch(jfrogHttpClient, aql, pageSize, log).search(consumer);
+    }
+
     public PatternResultFileSet searchArtifactsByPattern(String pattern) throws IOException {
         SearchArtifactsByPattern searchArtifactsByPatternService = new SearchArtifactsByPattern(pattern, log);
         return searchArtifactsByPatternService.execute(jfrogHttpClient);
     }
 
+    /**
+     * Search by pattern, and pass the found files to the consumer one by one while the response is parsed.
+     *
+     * @return the number of files found
+     */
+    public long searchArtifactsByPattern(String pattern, PatternResultFileSet.FileConsumer consumer) throws IOException {
+        StreamSearchArtifactsByPattern streamSearchArtifactsByPatternService = new StreamSearchArtifactsByPattern(pattern, consumer, log);
+        return streamSearchArtifactsByPatternService.execute(jfrogHttpClient);
+    }
+
     public PropertySearchResult searchArtifactsByProperties(String properties) throws IOException {
         SearchArtifactsByProperties searchArtifactsByPropertiesService = new SearchArtifactsByProperties(properties, log);
         return searchArtifactsByPropertiesService.execute(jfrogHttpClient);
     }
 
+    /**
+     * Search by properties, and pass the found entries to the consumer one by one while the response is parsed.
+     *
+     * @return the number of entries found
+     */
+    public long searchArtifactsByProperties(String properties, PropertySearchResult.SearchEntryConsumer consumer) throws IOException {
+        StreamSearchArtifactsByProperties streamSearchArtifactsByPropertiesService = new StreamSearchArtifactsByProperties(properties, consumer, log);
+        return streamSearchArtifactsByPropertiesService.execute(jfrogHttpClient);
+    }
+
     public void sendBuildRetention(BuildRetention buildRetention, String buildName, String project, boolean async) throws IOException {
         SendBuildRetention sendBuildRetentionService = new SendBuildRetention(buildRetention, buildName, project, async, log);
         sendBuildRetentionService.execute(jfrogHttpClient);
@@ -262,6 +345,14 @@ public class ArtifactoryManager extends ManagerBase {
         return uploadService.execute(jfrogHttpClient);
     }
 
+    /**
+     * Upload without blocking the calling thread. The number of uploads in flight is bounded by the http client.
+     */
+    public CompletableFuture<ArtifactoryUploadResponse> uploadAsync(DeployDetails details, String logPrefix, Integer minChecksumDeploySizeKb) {
+        Upload uploadService = new Upload(details, logPrefix, minChecksumDeploySizeKb, log);
+        return uploadService.executeAsync(jfrogHttpClient);
+    }
+
     public void deleteRepository(String repository) throws IOException {
         DeleteRepository deleteRepositoryService = new DeleteRepository(repository, log);
         deleteRepositoryService.execute(jfrogHttpClient);
@@ -282,8 +373,7 @@ public class ArtifactoryManager extends ManagerBase {
             log.warn("GetLatestBuildNumber accepts only two latest types: LATEST or LAST_RELEASE");
             return null;
         }
-        Version versionService = new Version(log);
-        if (versionService.execute(jfrogHttpClient).isOSS()) {
+        if (getVersion().isOSS()) {
             throw new IllegalArgumentException(String.format("%s is not supported in Artifactory OSS.", latestType));
         }
         List<BuildPatternArtifactsRequest> artifactsRequest = Lists.newArrayList();
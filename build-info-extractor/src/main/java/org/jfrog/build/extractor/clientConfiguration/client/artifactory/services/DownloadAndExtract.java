@@ -0,0 +1,49 @@
+package org.jfrog.build.extractor.clientConfiguration.client.artifactory.services;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.IOUtils;
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.api.util.ZipUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Download an archive and extract it while it's downloaded, without writing the archive itself to the disk.
+ * The checksums of the archive are calculated from the same stream, and returned by the algorithm names "md5" and "sha1".
+ */
+public class DownloadAndExtract extends DownloadBase<Map<String, String>> {
+    private final String archiveName;
+    private final File destinationDirectory;
+
+    public DownloadAndExtract(String downloadFrom, String archiveName, File destinationDirectory, Log log) {
+        super(downloadFrom, false, null, log);
+        this.archiveName = archiveName;
+        this.destinationDirectory = destinationDirectory;
+    }
+
+    @Override
+    protected void setResponse(InputStream stream) throws IOException {
+        MessageDigest md5;
+        MessageDigest sha1;
+        try {
+            md5 = MessageDigest.getInstance("MD5");
+            sha1 = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(String.format("Could not find checksum algorithm: %s", e.getLocalizedMessage()), e);
+        }
+        InputStream digestStream = new DigestInputStream(new DigestInputStream(stream, md5), sha1);
+        ZipUtils.extract(digestStream, archiveName, destinationDirectory);
+        // Read the bytes after the end of the archive, such as the padding of a tar, to complete the checksums
+        IOUtils.skip(digestStream, Long.MAX_VALUE);
+        result = new HashMap<>();
+        result.put("md5", Hex.encodeHexString(md5.digest()));
+        result.put("sha1", Hex.encodeHexString(sha1.digest()));
+    }
+}
@@ -0,0 +1,66 @@
+package org.jfrog.build.extractor.clientConfiguration.client.artifactory.services;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.jfrog.build.api.util.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Download a range of bytes of a file, and write it directly to the same offsets of the provided file channel.
+ * Positional writes don't change the channel position, so multiple ranges can be written to the same channel concurrently.
+ */
+public class DownloadRange extends DownloadBase<Long> {
+    private static final int BUFFER_SIZE = 32768;
+    private final FileChannel destination;
+    private final long start;
+    private final long end;
+
+    /**
+     * @param downloadFrom the file to download
+     * @param destination  channel of the file to write to
+     * @param start        first byte of the range, inclusive
+     * @param end          last byte of the range, inclusive
+     */
+    public DownloadRange(String downloadFrom, FileChannel destination, long start, long end, Log log) {
+        super(downloadFrom, false, createRangeHeader(start, end), log);
+        this.destination = destination;
+        this.start = start;
+        this.end = end;
+    }
+
+    private static Map<String, String> createRangeHeader(long start, long end) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(HttpHeaders.RANGE, "bytes=" + start + "-" + end);
+        return headers;
+    }
+
+    @Override
+    protected void setResponse(InputStream stream) throws IOException {
+        if (getStatusCode() != HttpStatus.SC_PARTIAL_CONTENT) {
+            throw new IOException("Expected a partial content response for range " + start + "-" + end + ", but received status code " + getStatusCode());
+        }
+        byte[] bytes = new byte[BUFFER_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long position = start;
+        int read;
+        while ((read = stream.read(bytes)) != -1) {
+            if (position + read > end + 1) {
+                throw new IOException("Received more bytes than requested for range " + start + "-" + end);
+            }
+            buffer.clear().limit(read);
+            while (buffer.hasRemaining()) {
+                position += destination.write(buffer, position);
+            }
+        }
+        if (position != end + 1) {
+            throw new IOException("Received " + (position - start) + " bytes out of " + (end - start + 1) + " for range " + start + "-" + end);
+        }
+        result = position - start;
+    }
+}
@@ -4,16 +4,14 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpRequestBase;
-import org.apache.http.entity.StringEntity;
 import org.jfrog.build.api.Build;
 import org.jfrog.build.api.util.Log;
 import org.jfrog.build.client.JFrogHttpClient;
+import org.jfrog.build.extractor.clientConfiguration.client.JsonEntity;
 import org.jfrog.build.extractor.clientConfiguration.client.VoidJFrogService;
 
 import java.io.IOException;
 
-import static org.jfrog.build.extractor.clientConfiguration.util.JsonUtils.toJsonString;
-
 public class PublishBuildInfo extends VoidJFrogService {
     public static final String BUILD_BROWSE_URL = "/webapp/builds";
     private static final String BUILD_REST_URL = "/api/build";
@@ -22,7 +20,6 @@ public class PublishBuildInfo extends VoidJFrogService {
 
     private final Build buildInfo;
     private final String platformUrl;
-    private String buildInfoJson;
 
     public PublishBuildInfo(Build buildInfo, String platformUrl, Log logger) {
         super(logger);
@@ -82,20 +79,11 @@ public class PublishBuildInfo extends VoidJFrogService {
         throwException(entity, getStatusCode());
     }
 
-    @Override
-    protected void ensureRequirements(JFrogHttpClient client) throws IOException {
-        if (buildInfo == null) {
-            return;
-        }
-        buildInfoJson = toJsonString(buildInfo);
-    }
-
     @Override
     public HttpRequestBase createRequest() {
         HttpPut request = new HttpPut(BUILD_REST_URL + getProjectQueryParam(buildInfo.getProject()));
-        StringEntity stringEntity = new StringEntity(buildInfoJson, "UTF-8");
-        stringEntity.setContentType("application/vnd.org.jfrog.artifactory+json");
-        request.setEntity(stringEntity);
+        // The build info may be large, stream it instead of building the JSON string
+        request.setEntity(new JsonEntity(buildInfo, "application/vnd.org.jfrog.artifactory+json"));
         log.info("Deploying build info to: " + BUILD_REST_URL);
         return request;
     }
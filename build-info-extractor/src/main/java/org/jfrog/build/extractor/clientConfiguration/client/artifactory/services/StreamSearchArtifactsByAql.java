@@ -0,0 +1,73 @@
+package org.jfrog.build.extractor.clientConfiguration.client.artifactory.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.StringEntity;
+import org.jfrog.build.api.search.AqlSearchResult;
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.extractor.clientConfiguration.client.JFrogService;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Search by AQL, and pass the entries of the results array to a consumer while the response is parsed, instead of
+ * deserializing the whole response. The result of the service is the number of entries found.
+ */
+public class StreamSearchArtifactsByAql extends JFrogService<Long> {
+    private static final String SEARCH_ARTIFACT_BY_AQL_ENDPOINT = "api/search/aql";
+    private static final String RESULTS_FIELD = "results";
+
+    private final String aql;
+    private final AqlSearchResult.SearchEntryConsumer consumer;
+
+    public StreamSearchArtifactsByAql(String aql, AqlSearchResult.SearchEntryConsumer consumer, Log log) {
+        super(log);
+        this.aql = aql;
+        this.consumer = consumer;
+        // No entries if the response is empty
+        result = 0L;
+    }
+
+    @Override
+    public HttpRequestBase createRequest() throws IOException {
+        HttpPost request = new HttpPost(SEARCH_ARTIFACT_BY_AQL_ENDPOINT);
+        StringEntity entity = new StringEntity(aql);
+        request.setEntity(entity);
+        return request;
+    }
+
+    @Override
+    protected void handleUnsuccessfulResponse(HttpEntity entity) throws IOException {
+        log.error("Failed to search artifact by the aql '" + aql + "'");
+        throwException(entity, getStatusCode());
+    }
+
+    @Override
+    protected void setResponse(InputStream stream) throws IOException {
+        long count = 0;
+        try (JsonParser parser = getMapper().getFactory().createParser(stream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Unexpected response of the aql '" + aql + "'");
+            }
+            ObjectReader entryReader = getReader(AqlSearchResult.SearchEntry.class);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (!RESULTS_FIELD.equals(field) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    consumer.accept(entryReader.readValue(parser));
+                    count++;
+                }
+            }
+        }
+        result = count;
+    }
+}
@@ -0,0 +1,86 @@
+package org.jfrog.build.extractor.clientConfiguration.client.artifactory.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.jfrog.build.api.dependency.PatternResultFileSet;
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.extractor.clientConfiguration.client.JFrogService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Search by pattern, and pass the found files to a consumer while the response is parsed, instead of deserializing
+ * the whole response. The result of the service is the number of files found.
+ */
+public class StreamSearchArtifactsByPattern extends JFrogService<Long> {
+    private static final String SEARCH_ARTIFACT_BY_PATTERN_ENDPOINT = "api/search/pattern?pattern=";
+    private static final String REPO_URI_FIELD = "repoUri";
+    private static final String FILES_FIELD = "files";
+
+    private final String pattern;
+    private final PatternResultFileSet.FileConsumer consumer;
+
+    public StreamSearchArtifactsByPattern(String pattern, PatternResultFileSet.FileConsumer consumer, Log log) {
+        super(log);
+        this.pattern = pattern;
+        this.consumer = consumer;
+        // No entries if the response is empty
+        result = 0L;
+    }
+
+    @Override
+    public HttpRequestBase createRequest() throws IOException {
+        return new HttpGet(SEARCH_ARTIFACT_BY_PATTERN_ENDPOINT + pattern);
+    }
+
+    @Override
+    protected void handleUnsuccessfulResponse(HttpEntity entity) throws IOException {
+        log.error("Failed to search artifact by the pattern '" + pattern + "'");
+        throwException(entity, getStatusCode());
+    }
+
+    @Override
+    protected void setResponse(InputStream stream) throws IOException {
+        String repoUri = null;
+        // Files which were returned before the repository URI
+        List<String> pendingFiles = new ArrayList<>();
+        long count = 0;
+        try (JsonParser parser = getMapper().getFactory().createParser(stream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Unexpected response of the pattern '" + pattern + "'");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (REPO_URI_FIELD.equals(field)) {
+                    repoUri = parser.getValueAsString();
+                    for (String file : pendingFiles) {
+                        consumer.accept(repoUri, file);
+                    }
+                    pendingFiles.clear();
+                } else if (FILES_FIELD.equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.VALUE_STRING) {
+                        if (repoUri != null) {
+                            consumer.accept(repoUri, parser.getText());
+                        } else {
+                            pendingFiles.add(parser.getText());
+                        }
+                        count++;
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        for (String file : pendingFiles) {
+            consumer.accept(null, file);
+        }
+        result = count;
+    }
+}
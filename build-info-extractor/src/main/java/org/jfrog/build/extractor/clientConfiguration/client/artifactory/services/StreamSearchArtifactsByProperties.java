@@ -0,0 +1,72 @@
+package org.jfrog.build.extractor.clientConfiguration.client.artifactory.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.jfrog.build.api.dependency.PropertySearchResult;
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.extractor.clientConfiguration.client.JFrogService;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Search by properties, and pass the entries of the results array to a consumer while the response is parsed, instead
+ * of deserializing the whole response. The result of the service is the number of entries found.
+ */
+public class StreamSearchArtifactsByProperties extends JFrogService<Long> {
+    private static final String SEARCH_ARTIFACT_BY_PROPERTIES_ENDPOINT = "api/search/prop?";
+    private static final String RESULTS_FIELD = "results";
+
+    private final String properties;
+    private final PropertySearchResult.SearchEntryConsumer consumer;
+
+    public StreamSearchArtifactsByProperties(String properties, PropertySearchResult.SearchEntryConsumer consumer, Log log) {
+        super(log);
+        this.properties = properties;
+        this.consumer = consumer;
+        // No entries if the response is empty
+        result = 0L;
+    }
+
+    @Override
+    public HttpRequestBase createRequest() throws IOException {
+        String replacedProperties = StringUtils.replaceEach(properties, new String[]{";", "+"}, new String[]{"&", ""});
+        String url = SEARCH_ARTIFACT_BY_PROPERTIES_ENDPOINT + replacedProperties;
+        return new HttpGet(url);
+    }
+
+    @Override
+    protected void handleUnsuccessfulResponse(HttpEntity entity) throws IOException {
+        log.error("Failed to search artifact by the properties '" + properties + "'");
+        throwException(entity, getStatusCode());
+    }
+
+    @Override
+    protected void setResponse(InputStream stream) throws IOException {
+        long count = 0;
+        try (JsonParser parser = getMapper().getFactory().createParser(stream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Unexpected response of the properties search '" + properties + "'");
+            }
+            ObjectReader entryReader = getReader(PropertySearchResult.SearchEntry.class);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (!RESULTS_FIELD.equals(field) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    consumer.accept(entryReader.readValue(parser));
+                    count++;
+                }
+            }
+        }
+        result = count;
+    }
+}
@@ -10,6 +10,7 @@ import org.jfrog.build.api.util.Log;
 import org.jfrog.build.client.ArtifactoryUploadResponse;
 import org.jfrog.build.client.ArtifactoryVersion;
 import org.jfrog.build.client.JFrogHttpClient;
+import org.jfrog.build.extractor.clientConfiguration.client.ChecksumCalculatingFileEntity;
 import org.jfrog.build.extractor.clientConfiguration.client.JFrogService;
 import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
 import org.jfrog.build.extractor.clientConfiguration.util.DeploymentUrlUtils;
@@ -19,6 +20,9 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration.DEFAULT_MIN_CHECKSUM_DEPLOY_SIZE_KB;
 
@@ -31,6 +35,7 @@ public class Upload extends JFrogService<ArtifactoryUploadResponse> {
     private final String logPrefix;
     private final Integer minChecksumDeploySizeKb;
     private boolean isExplode;
+    private ChecksumCalculatingFileEntity checksumCalculatingEntity;
 
     public Upload(DeployDetails details, String logPrefix, Integer minChecksumDeploySizeKb, Log logger) {
         super(logger);
@@ -48,6 +53,12 @@ public class Upload extends JFrogService<ArtifactoryUploadResponse> {
             this.isExplode = true;
             request.addHeader(EXPLODE_HEADER_NAME, "true");
         }
+        if (StringUtils.isBlank(details.getSha1())) {
+            // The checksums weren't calculated in advance - calculate them while uploading, to read the file only once
+            checksumCalculatingEntity = new ChecksumCalculatingFileEntity(details.getFile(), "binary/octet-stream");
+            request.setEntity(checksumCalculatingEntity);
+            return request;
+        }
         FileEntity fileEntity = new FileEntity(details.getFile(), "binary/octet-stream");
         request.setEntity(fileEntity);
         return request;
@@ -62,8 +73,37 @@ public class Upload extends JFrogService<ArtifactoryUploadResponse> {
     @Override
     protected void setResponse(InputStream stream) throws IOException {
         if (!isExplode) {
-            result = getMapper().readValue(stream, ArtifactoryUploadResponse.class);
+            result = getReader(ArtifactoryUploadResponse.class).readValue(stream);
+        }
+        setCalculatedChecksums();
+    }
+
+    @Override
+    protected void handleEmptyEntity() throws IOException {
+        setCalculatedChecksums();
+    }
+
+    /**
+     * Set the checksums calculated during the upload in the deploy details, after making sure Artifactory received the
+     * same content.
+     */
+    private void setCalculatedChecksums() throws IOException {
+        if (checksumCalculatingEntity == null) {
+            return;
+        }
+        Map<String, String> checksums = checksumCalculatingEntity.getChecksums();
+        if (checksums == null) {
+            throw new IOException("Failed to calculate the checksums of " + details.getFile().getAbsolutePath() + " during upload");
+        }
+        String sha1 = checksums.get(ChecksumCalculatingFileEntity.SHA1);
+        if (result != null && result.getChecksums() != null && StringUtils.isNotBlank(result.getChecksums().getSha1())
+                && !StringUtils.equalsIgnoreCase(sha1, result.getChecksums().getSha1())) {
+            throw new ChecksumMismatchException(String.format("Checksum mismatch while deploying %s: the local SHA1 is %s, but Artifactory received %s.",
+                    details.getArtifactPath(), sha1, result.getChecksums().getSha1()));
         }
+        details.setSha1(sha1);
+        details.setMd5(checksums.get(ChecksumCalculatingFileEntity.MD5));
+        details.setSha256(checksums.get(ChecksumCalculatingFileEntity.SHA256));
     }
 
     @Override
@@ -74,7 +114,60 @@ public class Upload extends JFrogService<ArtifactoryUploadResponse> {
             // Checksum deploy was performed:
             return response;
         }
-        return super.execute(client);
+        try {
+            return super.execute(client);
+        } catch (ChecksumMismatchException e) {
+            throw deleteMismatchedArtifact(client, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<ArtifactoryUploadResponse> executeAsync(JFrogHttpClient client) {
+        log.info(logPrefix + "Deploying artifact: " + client.getUrl() + "/" + StringUtils.removeStart(buildDefaultUploadPath(details), "/"));
+        TryChecksumUpload tryChecksumUploadService = new TryChecksumUpload(details, logPrefix, minChecksumDeploySizeKb, log);
+        return tryChecksumUploadService.executeAsync(client)
+                .exceptionally(throwable -> {
+                    log.debug("Failed artifact checksum deploy of file " + details.getArtifactPath() + " : " + details.getSha1());
+                    return null;
+                })
+                .thenCompose(response -> {
+                    if (response != null) {
+                        // Checksum deploy was performed:
+                        return CompletableFuture.completedFuture(response);
+                    }
+                    return uploadAsync(client);
+                });
+    }
+
+    private CompletableFuture<ArtifactoryUploadResponse> uploadAsync(JFrogHttpClient client) {
+        CompletableFuture<ArtifactoryUploadResponse> result = new CompletableFuture<>();
+        super.executeAsync(client).whenComplete((response, throwable) -> {
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+            if (cause instanceof ChecksumMismatchException) {
+                result.completeExceptionally(deleteMismatchedArtifact(client, (ChecksumMismatchException) cause));
+            } else if (cause != null) {
+                result.completeExceptionally(cause);
+            } else {
+                result.complete(response);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * The SHA1 is calculated while uploading, so it can't be sent to Artifactory with the request. When the content
+     * stored in Artifactory doesn't match the local file, delete it, so that a corrupted artifact is not left deployed.
+     *
+     * @return the exception to throw.
+     */
+    private IOException deleteMismatchedArtifact(JFrogHttpClient client, ChecksumMismatchException mismatch) {
+        try {
+            new DeleteRepositoryContent(details.getTargetRepository() + "/" + details.getArtifactPath(), log).execute(client);
+            return new IOException(mismatch.getMessage() + " The deployed artifact was deleted.", mismatch);
+        } catch (IOException e) {
+            return new IOException(mismatch.getMessage() + " Failed deleting the deployed artifact, which was left in Artifactory: " +
+                    e.getMessage(), mismatch);
+        }
     }
 
     private ArtifactoryUploadResponse tryChecksumUpload(JFrogHttpClient client) {
@@ -91,8 +184,12 @@ public class Upload extends JFrogService<ArtifactoryUploadResponse> {
         StringBuilder deploymentPathBuilder = new StringBuilder().append(buildDefaultUploadPath(details));
         deploymentPathBuilder.append(DeploymentUrlUtils.buildMatrixParamsString(details.getProperties(), true));
         HttpPut httpPut = new HttpPut(deploymentPathBuilder.toString());
-        httpPut.addHeader(SHA1_HEADER_NAME, details.getSha1());
-        httpPut.addHeader(MD5_HEADER_NAME, details.getMd5());
+        if (StringUtils.isNotBlank(details.getSha1())) {
+            httpPut.addHeader(SHA1_HEADER_NAME, details.getSha1());
+        }
+        if (StringUtils.isNotBlank(details.getMd5())) {
+            httpPut.addHeader(MD5_HEADER_NAME, details.getMd5());
+        }
         log.debug("Full Artifact Http path: " + httpPut + "\n@Http Headers: " + Arrays.toString(httpPut.getAllHeaders()));
         return httpPut;
     }
@@ -104,6 +201,12 @@ public class Upload extends JFrogService<ArtifactoryUploadResponse> {
         return StringUtils.join(pathComponents, "/");
     }
 
+    private static class ChecksumMismatchException extends IOException {
+        private ChecksumMismatchException(String message) {
+            super(message);
+        }
+    }
+
     private class TryChecksumUpload extends JFrogService<ArtifactoryUploadResponse> {
         private final DeployDetails details;
         private final String logPrefix;
@@ -118,6 +221,8 @@ public class Upload extends JFrogService<ArtifactoryUploadResponse> {
 
         @Override
         protected void ensureRequirements(JFrogHttpClient client) throws IOException {
+            // Check the artifact before the version, to avoid the version request when checksum deploy is skipped anyway
+            ensureChecksumDeployCandidate();
             Version versionService = new Version(log);
             ArtifactoryVersion version = versionService.execute(client);
             // Artifactory 2.5.1+ has efficient checksum deployment (checks if the artifact already exists by it's checksum)
@@ -126,11 +231,16 @@ public class Upload extends JFrogService<ArtifactoryUploadResponse> {
             }
         }
 
-        @Override
-        public HttpRequestBase createRequest() throws IOException {
-            // Try checksum upload only on file size equal or greater than 'minChecksumDeploySizeKb'
+        private void ensureChecksumDeployCandidate() throws IOException {
+            if (Boolean.FALSE.equals(details.getChecksumExists())) {
+                log.debug("Skipping checksum deploy of file with a checksum which doesn't exist in Artifactory, falling back to regular deployment.");
+                throw new IOException();
+            }
+
+            // Try checksum upload only on file size equal or greater than 'minChecksumDeploySizeKb',
+            // unless the checksum is known to exist in Artifactory
             long fileLength = details.getFile().length();
-            if (fileLength < minChecksumDeploySizeKb * 1024) {
+            if (fileLength < minChecksumDeploySizeKb * 1024 && !Boolean.TRUE.equals(details.getChecksumExists())) {
                 log.debug("Skipping checksum deploy of file size " + fileLength + " bytes, falling back to regular deployment.");
                 throw new IOException();
             }
@@ -140,6 +250,14 @@ public class Upload extends JFrogService<ArtifactoryUploadResponse> {
                 throw new IOException();
             }
 
+            if (StringUtils.isBlank(details.getSha1())) {
+                log.debug("Skipping checksum deploy of file with no calculated checksums, falling back to regular deployment.");
+                throw new IOException();
+            }
+        }
+
+        @Override
+        public HttpRequestBase createRequest() throws IOException {
             HttpPut request = createHttpPutMethod(details);
             // activate checksum deploy
             request.addHeader(CHECKSUM_DEPLOY_HEADER_NAME, "true");
@@ -149,7 +267,7 @@ public class Upload extends JFrogService<ArtifactoryUploadResponse> {
 
         @Override
         protected void setResponse(InputStream stream) throws IOException {
-            result = getMapper().readValue(stream, ArtifactoryUploadResponse.class);
+            result = getReader(ArtifactoryUploadResponse.class).readValue(stream);
         }
     }
 }
@@ -7,6 +7,7 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.jfrog.build.api.util.Log;
 import org.jfrog.build.client.ArtifactoryVersion;
+import org.jfrog.build.client.JFrogHttpClient;
 import org.jfrog.build.extractor.clientConfiguration.client.JFrogService;
 
 import java.io.IOException;
@@ -22,6 +23,27 @@ public class Version extends JFrogService<ArtifactoryVersion> {
         result = ArtifactoryVersion.NOT_FOUND;
     }
 
+    /**
+     * Returns the Artifactory version cached on the client, or fetches and caches it on the first call.
+     * The version cannot change during the client's lifetime, so there's no need to query it before every request.
+     */
+    @Override
+    public ArtifactoryVersion execute(JFrogHttpClient client) throws IOException {
+        ArtifactoryVersion version = client.getArtifactoryVersion();
+        if (version != null) {
+            return version;
+        }
+        synchronized (client) {
+            version = client.getArtifactoryVersion();
+            if (version == null) {
+                client.incrementVersionRequestsCount();
+                version = super.execute(client);
+                client.setArtifactoryVersion(version);
+            }
+        }
+        return version;
+    }
+
     @Override
     public HttpRequestBase createRequest() {
         return new HttpGet(VERSION_REST_URL);
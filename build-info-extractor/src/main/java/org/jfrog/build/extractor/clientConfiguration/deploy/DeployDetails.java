@@ -76,6 +76,11 @@ public class DeployDetails implements Comparable<DeployDetails>, Serializable, P
      * The package type generated this artifact's deploy details.
      */
     private PackageType packageType;
+    /**
+     * Whether a file with the same sha1 checksum exists in Artifactory, or null if unknown.
+     * Used to choose between checksum deploy and full upload without trying both.
+     */
+    private Boolean checksumExists;
     /**
      * @return Return the target deployment repository.
      */
@@ -99,6 +104,10 @@ public class DeployDetails implements Comparable<DeployDetails>, Serializable, P
         return sha1;
     }
 
+    public void setSha1(String sha1) {
+        this.sha1 = sha1;
+    }
+
     public String getSha256() {
         return sha256;
     }
@@ -119,10 +128,22 @@ public class DeployDetails implements Comparable<DeployDetails>, Serializable, P
         this.deploySucceeded = deploySucceeded;
     }
 
+    public Boolean getChecksumExists() {
+        return checksumExists;
+    }
+
+    public void setChecksumExists(Boolean checksumExists) {
+        this.checksumExists = checksumExists;
+    }
+
     public String getMd5() {
         return md5;
     }
 
+    public void setMd5(String md5) {
+        this.md5 = md5;
+    }
+
     public boolean isExplode() {
         return explode;
     }
@@ -3,16 +3,15 @@ package org.jfrog.build.extractor.clientConfiguration.util;
 import org.apache.commons.lang.StringUtils;
 import org.jfrog.build.api.Dependency;
 import org.jfrog.build.api.dependency.DownloadableArtifact;
-import org.jfrog.build.api.dependency.PatternResultFileSet;
-import org.jfrog.build.api.dependency.PropertySearchResult;
 import org.jfrog.build.api.dependency.pattern.BuildDependencyPattern;
 import org.jfrog.build.api.dependency.pattern.DependencyPattern;
-import org.jfrog.build.api.util.CommonUtils;
 import org.jfrog.build.api.util.Log;
 import org.jfrog.build.extractor.clientConfiguration.PatternMatcher;
 
 import java.io.IOException;
-import java.util.*;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Helper class for parsing custom resolved dependencies
@@ -43,75 +42,64 @@ public class AntPatternsDependenciesHelper {
         }
 
         log.info("Beginning to resolve Build Info dependencies.");
-        dependencies = downloader.download(collectArtifactsToDownload(patternLines));
+        // The artifacts are downloaded while the next search results are received
+        dependencies = downloader.download(consumer -> searchArtifactsToDownload(patternLines, consumer));
         log.info("Finished resolving Build Info dependencies.");
         return dependencies;
     }
 
-    private Set<DownloadableArtifact> collectArtifactsToDownload(List<String> patternLines)
+    /**
+     * Search the artifacts of the patterns, and pass them to the consumer while the search responses are parsed.
+     */
+    private void searchArtifactsToDownload(List<String> patternLines, DependenciesDownloader.ArtifactConsumer consumer)
             throws IOException {
-        Set<DownloadableArtifact> downloadableArtifacts = new HashSet<>();
         for (String patternLine : patternLines) {
             DependencyPattern dependencyPattern = PatternFactory.create(patternLine);
             if (!(dependencyPattern instanceof BuildDependencyPattern)) {
-                downloadableArtifacts.addAll(handleDependencyPattern(dependencyPattern));
+                handleDependencyPattern(dependencyPattern, consumer);
             }
         }
-
-        return downloadableArtifacts;
     }
 
-    private Set<DownloadableArtifact> handleDependencyPattern(DependencyPattern dependencyPattern) throws IOException {
+    private void handleDependencyPattern(DependencyPattern dependencyPattern, DependenciesDownloader.ArtifactConsumer consumer)
+            throws IOException {
         String pattern = dependencyPattern.getPattern();
         log.info("Resolving published dependencies with pattern " + pattern);
         if (StringUtils.contains(pattern, "**")) {
             if (StringUtils.isNotBlank(dependencyPattern.getMatrixParams())) {
-                return performPropertySearch(dependencyPattern);
+                performPropertySearch(dependencyPattern, consumer);
             } else {
                 throw new IllegalArgumentException(
                         "Wildcard '**' is not allowed without matrix params for pattern '" + pattern + "'");
             }
         } else {
-            return performPatternSearch(dependencyPattern);
+            performPatternSearch(dependencyPattern, consumer);
         }
     }
 
-    private Set<DownloadableArtifact> performPropertySearch(DependencyPattern dependencyPattern) throws IOException {
-        Set<DownloadableArtifact> downloadableArtifacts = new HashSet<>();
+    private void performPropertySearch(DependencyPattern dependencyPattern, DependenciesDownloader.ArtifactConsumer consumer)
+            throws IOException {
         String pattern = dependencyPattern.getPattern();
         String matrixParams = dependencyPattern.getMatrixParams();
-        PropertySearchResult propertySearchResult = downloader.getArtifactoryManager().searchArtifactsByProperties(matrixParams);
-        List<PropertySearchResult.SearchEntry> filteredEntries = filterResultEntries(
-                propertySearchResult.getResults(), pattern);
-        log.info("Found " + filteredEntries.size() + " dependencies by doing a property search.");
-        for (PropertySearchResult.SearchEntry searchEntry : filteredEntries) {
-            downloadableArtifacts.add(
-                    new DownloadableArtifact(searchEntry.getRepoUri(), dependencyPattern.getTargetDirectory(),
-                            searchEntry.getFilePath(), matrixParams, pattern, dependencyPattern.getPatternType()));
-        }
-
-        return downloadableArtifacts;
-    }
-
-    private List<PropertySearchResult.SearchEntry> filterResultEntries(List<PropertySearchResult.SearchEntry> results,
-                                                                       String pattern) {
         final String patternStr = pattern.replaceFirst(":", "/");
-        return new ArrayList<>(CommonUtils.filterCollection(results, result -> PatternMatcher.match(patternStr, result.getRepoPath(), false)));
+        AtomicLong found = new AtomicLong();
+        downloader.getArtifactoryManager().searchArtifactsByProperties(matrixParams, searchEntry -> {
+            if (PatternMatcher.match(patternStr, searchEntry.getRepoPath(), false)) {
+                consumer.accept(new DownloadableArtifact(searchEntry.getRepoUri(), dependencyPattern.getTargetDirectory(),
+                        searchEntry.getFilePath(), matrixParams, pattern, dependencyPattern.getPatternType()));
+                found.incrementAndGet();
+            }
+        });
+        log.info("Found " + found.get() + " dependencies by doing a property search.");
     }
 
-    private Set<DownloadableArtifact> performPatternSearch(DependencyPattern dependencyPattern) throws IOException {
-        Set<DownloadableArtifact> downloadableArtifacts = new HashSet<>();
+    private void performPatternSearch(DependencyPattern dependencyPattern, DependenciesDownloader.ArtifactConsumer consumer)
+            throws IOException {
         String pattern = dependencyPattern.getPattern();
-        PatternResultFileSet fileSet = downloader.getArtifactoryManager().searchArtifactsByPattern(pattern);
-        Set<String> filesToDownload = fileSet.getFiles();
-        log.info("Found " + filesToDownload.size() + " dependencies by doing a pattern search.");
-        for (String fileToDownload : filesToDownload) {
-            downloadableArtifacts.add(
-                    new DownloadableArtifact(fileSet.getRepoUri(), dependencyPattern.getTargetDirectory(),
-                            fileToDownload, dependencyPattern.getMatrixParams(), pattern,
-                            dependencyPattern.getPatternType()));
-        }
-
-        return downloadableArtifacts;
+        long found = downloader.getArtifactoryManager().searchArtifactsByPattern(pattern, (repoUri, fileToDownload) ->
+                consumer.accept(new DownloadableArtifact(repoUri, dependencyPattern.getTargetDirectory(),
+                        fileToDownload, dependencyPattern.getMatrixParams(), pattern,
+                        dependencyPattern.getPatternType())));
+        log.info("Found " + found + " dependencies by doing a pattern search.");
     }
 }
@@ -8,7 +8,10 @@ import org.jfrog.build.extractor.clientConfiguration.client.artifactory.Artifact
 import org.jfrog.build.extractor.clientConfiguration.util.spec.FileSpec;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 public class AqlHelperBase {
 
@@ -16,6 +19,7 @@ public class AqlHelperBase {
     protected static final String LAST_RELEASE = "LAST_RELEASE";
     protected static final String DELIMITER = "/";
     protected static final String ESCAPE_CHAR = "\\";
+    public static final int DEFAULT_PAGE_SIZE = 10000;
 
     protected ArtifactoryManager artifactoryManager;
     private Log log;
@@ -24,6 +28,10 @@ public class AqlHelperBase {
     protected String querySuffix;
     protected String buildName;
     protected String buildNumber;
+    private String build;
+    private boolean buildNumberResolved;
+    private String[] sortBy;
+    private int pageSize = DEFAULT_PAGE_SIZE;
 
     AqlHelperBase(ArtifactoryManager artifactoryManager, Log log, FileSpec file) throws IOException {
         this.artifactoryManager = artifactoryManager;
@@ -32,11 +40,30 @@ public class AqlHelperBase {
     }
 
     protected void buildQueryAdditionalParts(FileSpec file) throws IOException {
-        this.buildName = getBuildName(file.getBuild());
-        // AQL doesn't support projects.
-        this.buildNumber = getBuildNumber(artifactoryManager, buildName, file.getBuild(), null);
+        this.build = file.getBuild();
+        this.buildName = getBuildName(build);
         this.querySuffix = buildQuerySuffix(file.getSortBy(), file.getSortOrder(), file.getOffset(), file.getLimit());
         this.includeFields = buildIncludeQueryPart(file.getSortBy(), querySuffix);
+        this.sortBy = file.getSortBy();
+    }
+
+    /**
+     * Get the number of the requested build, which is fetched from Artifactory on the first call.
+     */
+    protected String resolveBuildNumber() throws IOException {
+        if (!buildNumberResolved) {
+            // AQL doesn't support projects.
+            this.buildNumber = getBuildNumber(artifactoryManager, buildName, build, null);
+            this.buildNumberResolved = true;
+        }
+        return buildNumber;
+    }
+
+    /**
+     * Set the number of results to request at once by {@link #run(AqlSearchResult.SearchEntryConsumer)}.
+     */
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
     }
 
     protected void convertFileSpecToAql(FileSpec file) throws IOException {
@@ -47,13 +74,31 @@ public class AqlHelperBase {
     public List<AqlSearchResult.SearchEntry> run() throws IOException {
         String aql = "items.find(" + queryBody + ")" + includeFields + querySuffix;
         log.debug("Searching Artifactory using AQL query:\n" + aql);
-        AqlSearchResult aqlSearchResult = artifactoryManager.searchArtifactsByAql(aql);
-        List<AqlSearchResult.SearchEntry> queryResults = aqlSearchResult.getResults();
-
-        List<AqlSearchResult.SearchEntry> results = filterResult(queryResults);
+        List<AqlSearchResult.SearchEntry> results = search(aql);
         return (results == null ? new ArrayList<>() : results);
     }
 
+    /**
+     * Run the query and pass the results to the consumer while they are received.
+     * Results which don't need to be filtered by build are requested in pages, without keeping them all in memory.
+     * The properties of the results are not included in that case.
+     *
+     * @return the number of results
+     */
+    public long run(AqlSearchResult.SearchEntryConsumer consumer) throws IOException {
+        if (StringUtils.isNotBlank(buildName)) {
+            // The filter by build requires all the results
+            List<AqlSearchResult.SearchEntry> results = run();
+            for (AqlSearchResult.SearchEntry result : results) {
+                consumer.accept(result);
+            }
+            return results.size();
+        }
+        String aql = "items.find(" + queryBody + ")" + buildIncludeQueryPart(sortBy, false) + querySuffix;
+        log.debug("Searching Artifactory using AQL query:\n" + aql);
+        return artifactoryManager.searchArtifactsByAql(aql, pageSize, consumer);
+    }
+
     protected static String getBuildName(String build) {
         if (StringUtils.isBlank(build)) {
             return build;
@@ -104,8 +149,12 @@ public class AqlHelperBase {
     }
 
     protected static String buildIncludeQueryPart(String[] sortByFields, String suffix) {
+        return buildIncludeQueryPart(sortByFields, StringUtils.isBlank(suffix));
+    }
+
+    private static String buildIncludeQueryPart(String[] sortByFields, boolean includeProperties) {
         List<String> fieldsToInclude = getQueryReturnFields(sortByFields);
-        if (StringUtils.isBlank(suffix)) {
+        if (includeProperties) {
             fieldsToInclude.add("property");
         }
         return ".include(" + StringUtils.join(prepareFieldsForQuery(fieldsToInclude), ',') + ")";
@@ -163,62 +212,43 @@ public class AqlHelperBase {
      * 1st priority: Match {Sha1, build name, build number}
      * 2nd priority: Match {Sha1, build name}
      * 3rd priority: Match {Sha1}
+     * The results are filtered in a single pass, which keeps only the results of the best priority found for every Sha1.
+     *
+     * @param buildArtifactsSha1 the Sha1 values of the build artifacts, or null if all the items match the build
      */
-    protected static List<AqlSearchResult.SearchEntry> filterAqlSearchResultsByBuild(List<AqlSearchResult.SearchEntry> itemsToFilter, Map<String, Boolean> buildArtifactsSha1, String buildName, String buildNumber) {
-        // Maps that contain the search results, mapped by the priority they match.
-        Map<String, List<AqlSearchResult.SearchEntry>> firstPriority = new HashMap<>();
-        Map<String, List<AqlSearchResult.SearchEntry>> secondPriority = new HashMap<>();
-        Map<String, List<AqlSearchResult.SearchEntry>> thirdPriority = new HashMap<>();
-        // List that contains the filtered results, after step 2.
-        List<AqlSearchResult.SearchEntry> filteredResults = new ArrayList<>();
-
-        // Step 1 - Populate 3 priorities mappings.
+    protected static List<AqlSearchResult.SearchEntry> filterAqlSearchResultsByBuild(List<AqlSearchResult.SearchEntry> itemsToFilter, Set<String> buildArtifactsSha1, String buildName, String buildNumber) {
+        Map<String, PriorityResults> resultsBySha1 = new LinkedHashMap<>();
         for (AqlSearchResult.SearchEntry item : itemsToFilter) {
-            if (!buildArtifactsSha1.containsKey(item.getActualSha1())) {
+            String sha1 = item.getActualSha1();
+            if (buildArtifactsSha1 != null && !buildArtifactsSha1.contains(sha1)) {
                 continue;
             }
-
-            boolean isBuildNameMatch = buildName.equals(item.getBuildName());
-            boolean isBuildNumberMatch = buildNumber.equals(item.getBuildNumber());
-            if (isBuildNameMatch) {
-                if (isBuildNumberMatch) {
-                    addToListInMap(firstPriority, item);
-                    continue;
-                }
-                addToListInMap(secondPriority, item);
-                continue;
+            int priority = 3;
+            if (buildName.equals(item.getBuildName())) {
+                priority = buildNumber.equals(item.getBuildNumber()) ? 1 : 2;
+            }
+            PriorityResults results = resultsBySha1.get(sha1);
+            if (results == null) {
+                resultsBySha1.put(sha1, new PriorityResults(priority, item));
+            } else {
+                results.add(priority, item);
             }
-            addToListInMap(thirdPriority, item);
         }
 
-        // Step 2 - Append mappings to the final results, respectively.
-        for (Map.Entry<String, Boolean> entry : buildArtifactsSha1.entrySet()) {
-            String shaToMatch = entry.getKey();
-            if (firstPriority.containsKey(shaToMatch)) {
-                filteredResults.addAll(firstPriority.get(shaToMatch));
-            } else if (secondPriority.containsKey(shaToMatch)) {
-                filteredResults.addAll(secondPriority.get(shaToMatch));
-            } else if (thirdPriority.containsKey(shaToMatch)) {
-                filteredResults.addAll(thirdPriority.get(shaToMatch));
-            }
+        List<AqlSearchResult.SearchEntry> filteredResults = new ArrayList<>(resultsBySha1.size());
+        for (PriorityResults results : resultsBySha1.values()) {
+            results.addTo(filteredResults);
         }
         return filteredResults;
     }
 
-    private static void addToListInMap(Map<String, List<AqlSearchResult.SearchEntry>> map, AqlSearchResult.SearchEntry item) {
-        List<AqlSearchResult.SearchEntry> curList = map.get(item.getActualSha1());
-        if (curList == null) curList = new ArrayList<>();
-        curList.add(item);
-        map.put(item.getActualSha1(), curList);
-    }
-
     /**
      * Maps all Sha1 values that exist in the results found
      */
-    protected static Map<String, Boolean> extractSha1FromAqlResponse(List<AqlSearchResult.SearchEntry> searchResults) {
-        Map<String, Boolean> resultsMap = new HashMap<>();
-        searchResults.forEach((result) -> resultsMap.put(result.getActualSha1(), true));
-        return resultsMap;
+    protected static Set<String> extractSha1FromAqlResponse(List<AqlSearchResult.SearchEntry> searchResults) {
+        Set<String> resultsSha1 = new HashSet<>();
+        searchResults.forEach((result) -> resultsSha1.add(result.getActualSha1()));
+        return resultsSha1;
     }
 
     protected static String createAqlBodyForBuild(String buildName, String buildNumber) {
@@ -226,32 +256,85 @@ public class AqlHelperBase {
     }
 
     /**
-     * If buildName specified, filter the results to keep only artifacts matching the requested build
+     * Run the query. If buildName specified, filter the results to keep only artifacts matching the requested build.
+     * The build number and the Sha1 values of the build artifacts are fetched while the query is in flight, as they
+     * don't depend on its results.
      */
-    protected List<AqlSearchResult.SearchEntry> filterResult(List<AqlSearchResult.SearchEntry> queryResults) throws IOException {
-        if (StringUtils.isNotBlank(buildName) && queryResults.size() > 0) {
-            Map<String, Boolean> buildArtifactsSha1 = fetchBuildArtifactsSha1();
-            queryResults = filterAqlSearchResultsByBuild(queryResults, buildArtifactsSha1, buildName, buildNumber);
+    protected List<AqlSearchResult.SearchEntry> search(String aql) throws IOException {
+        if (StringUtils.isBlank(buildName)) {
+            return artifactoryManager.searchArtifactsByAql(aql).getResults();
         }
-
-        return queryResults;
+        CompletableFuture<AqlSearchResult> querySearch = artifactoryManager.searchArtifactsByAqlAsync(aql);
+        CompletableFuture<AqlSearchResult> buildSearch = searchBuildArtifactsSha1(resolveBuildNumber());
+        List<AqlSearchResult.SearchEntry> queryResults = getResults(querySearch);
+        if (queryResults.isEmpty()) {
+            return queryResults;
+        }
+        Set<String> buildArtifactsSha1 = extractSha1FromAqlResponse(getResults(buildSearch));
+        return filterAqlSearchResultsByBuild(queryResults, buildArtifactsSha1, buildName, buildNumber);
     }
 
     /**
-     * Sends an aql query to get all Sha1 value of the requested build, then returns a Map of the Sha1 values.
+     * Sends an aql query to get all Sha1 value of the requested build, without waiting for the response.
      */
-    private Map<String, Boolean> fetchBuildArtifactsSha1() throws IOException {
+    private CompletableFuture<AqlSearchResult> searchBuildArtifactsSha1(String buildNumber) {
         // If a user without admin privileges tries to send AQL query that includes 'actual_sha1' only, a bad request will be return.
         // In order to fix this, we include name, repo & path.
         String includeSha1Field = ".include(\"name\",\"repo\",\"path\",\"actual_sha1\")";
-        String buildAql = createAqlQueryForBuild(includeSha1Field);
+        String buildAql = String.format("items.find(%s)%s", createAqlBodyForBuild(buildName, buildNumber), includeSha1Field);
         log.debug("Searching Artifactory for build's checksums using AQL query:\n" + buildAql);
-        AqlSearchResult aqlSearchResult = artifactoryManager.searchArtifactsByAql(buildAql);
-        return extractSha1FromAqlResponse(aqlSearchResult.getResults());
+        return artifactoryManager.searchArtifactsByAqlAsync(buildAql);
     }
 
-    private String createAqlQueryForBuild(String includeQueryPart) {
-        return String.format("items.find(%s)%s", createAqlBodyForBuild(buildName, buildNumber), includeQueryPart);
+    private static List<AqlSearchResult.SearchEntry> getResults(CompletableFuture<AqlSearchResult> search) throws IOException {
+        try {
+            return search.get().getResults();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while searching by AQL");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
     }
 
+    /**
+     * The results of a single Sha1 which match the best priority found.
+     */
+    private static class PriorityResults {
+        private int priority;
+        private AqlSearchResult.SearchEntry first;
+        private List<AqlSearchResult.SearchEntry> others;
+
+        private PriorityResults(int priority, AqlSearchResult.SearchEntry first) {
+            this.priority = priority;
+            this.first = first;
+        }
+
+        private void add(int priority, AqlSearchResult.SearchEntry item) {
+            if (priority < this.priority) {
+                this.priority = priority;
+                this.first = item;
+                this.others = null;
+            } else if (priority == this.priority) {
+                if (others == null) {
+                    others = new ArrayList<>();
+                }
+                others.add(item);
+            }
+        }
+
+        private void addTo(List<AqlSearchResult.SearchEntry> results) {
+            results.add(first);
+            if (others != null) {
+                results.addAll(others);
+            }
+        }
+    }
 }
@@ -6,21 +6,45 @@ import org.jfrog.build.extractor.clientConfiguration.client.artifactory.Artifact
 import org.jfrog.build.extractor.clientConfiguration.util.spec.FileSpec;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 class ArtifactorySearcher {
     private final ArtifactoryManager artifactoryManager;
     private final Log log;
+    private int pageSize = AqlHelperBase.DEFAULT_PAGE_SIZE;
 
     ArtifactorySearcher(ArtifactoryManager artifactoryManager, Log log) {
         this.artifactoryManager = artifactoryManager;
         this.log = log;
     }
 
-    List<AqlSearchResult.SearchEntry> SearchByFileSpec(FileSpec file) throws IOException {
-        List<AqlSearchResult.SearchEntry> results;
-        AqlHelperBase aqlHelper = null;
+    void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Search by the file spec, and pass the results to the consumer while they are received.
+     */
+    void searchByFileSpec(FileSpec file, AqlSearchResult.SearchEntryConsumer consumer) throws IOException {
         log.info("Searching for artifacts...");
+        AqlHelperBase aqlHelper = createAqlHelper(file);
+        aqlHelper.setPageSize(pageSize);
+        long found = aqlHelper.run(consumer);
+        log.info(String.format("Found %s artifacts.", found));
+    }
+
+    /**
+     * Search by the file spec, and collect all the results before returning them.
+     */
+    List<AqlSearchResult.SearchEntry> searchByFileSpec(FileSpec file) throws IOException {
+        List<AqlSearchResult.SearchEntry> results = new ArrayList<>();
+        searchByFileSpec(file, results::add);
+        return results;
+    }
+
+    private AqlHelperBase createAqlHelper(FileSpec file) throws IOException {
+        AqlHelperBase aqlHelper = null;
         switch (file.getSpecType()) {
             case PATTERN: {
                 aqlHelper = new PatternAqlHelper(artifactoryManager, log, file);
@@ -35,8 +59,6 @@ class ArtifactorySearcher {
                 break;
             }
         }
-        results = aqlHelper.run();
-        log.info(String.format("Found %s artifacts.", results.size()));
-        return results;
+        return aqlHelper;
     }
 }
@@ -7,7 +7,6 @@ import org.jfrog.build.extractor.clientConfiguration.util.spec.FileSpec;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.Map;
 
 public class BuildAqlHelper extends AqlHelperBase {
 
@@ -18,13 +17,14 @@ public class BuildAqlHelper extends AqlHelperBase {
     @Override
     protected void convertFileSpecToAql(FileSpec file) throws IOException {
         super.buildQueryAdditionalParts(file);
-        this.queryBody = createAqlBodyForBuild(buildName, buildNumber);
+        this.queryBody = createAqlBodyForBuild(buildName, resolveBuildNumber());
     }
 
     @Override
-    protected List<AqlSearchResult.SearchEntry> filterResult(List<AqlSearchResult.SearchEntry> queryResults) {
-        Map<String, Boolean> buildArtifactsSha1 = extractSha1FromAqlResponse(queryResults);
-        return filterAqlSearchResultsByBuild(queryResults, buildArtifactsSha1, buildName, buildNumber);
+    protected List<AqlSearchResult.SearchEntry> search(String aql) throws IOException {
+        List<AqlSearchResult.SearchEntry> queryResults = artifactoryManager.searchArtifactsByAql(aql).getResults();
+        // All the results are artifacts of the build, so only the duplicates are filtered
+        return filterAqlSearchResultsByBuild(queryResults, null, buildName, buildNumber);
     }
 
 }
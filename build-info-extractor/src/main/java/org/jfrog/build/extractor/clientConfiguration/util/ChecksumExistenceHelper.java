@@ -0,0 +1,149 @@
+package org.jfrog.build.extractor.clientConfiguration.util;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringUtils;
+import org.jfrog.build.api.search.AqlSearchResult;
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
+import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds which of the artifacts to deploy already exist in their target repository by their sha1 checksum, using bulk AQL
+ * queries. The result is set in {@link DeployDetails#setChecksumExists(Boolean)}, so that the upload performs a checksum deploy
+ * only for existing checksums, and a full upload for the others, instead of trying a checksum deploy for every artifact.
+ */
+public class ChecksumExistenceHelper {
+    public static final int DEFAULT_CHECKSUMS_PER_QUERY = 500;
+    // A user without admin privileges gets a bad request for a query which includes 'actual_sha1' only
+    private static final String AQL_TEMPLATE = "items.find({\"repo\":\"%s\",\"$or\":[%s]}).include(\"name\",\"repo\",\"path\",\"actual_sha1\")";
+
+    private final ArtifactoryManager artifactoryManager;
+    private final Log log;
+    private final int checksumsPerQuery;
+
+    private final AtomicInteger probedArtifacts = new AtomicInteger();
+    private final AtomicInteger existingArtifacts = new AtomicInteger();
+    private final AtomicLong existingBytes = new AtomicLong();
+
+    public ChecksumExistenceHelper(ArtifactoryManager artifactoryManager, Log log) {
+        this(artifactoryManager, log, DEFAULT_CHECKSUMS_PER_QUERY);
+    }
+
+    public ChecksumExistenceHelper(ArtifactoryManager artifactoryManager, Log log, int checksumsPerQuery) {
+        this.artifactoryManager = artifactoryManager;
+        this.log = log;
+        this.checksumsPerQuery = checksumsPerQuery;
+    }
+
+    /**
+     * Query the target repositories of the given artifacts for their checksums, and mark whether each checksum exists.
+     * Artifacts without a calculated sha1, artifacts to explode and artifacts which were already checked are ignored.
+     * If a query fails, the artifacts of the failed query are left unmarked, and the upload falls back to trying a
+     * checksum deploy.
+     *
+     * @param deployDetails the artifacts to deploy
+     */
+    public void markExistingChecksums(Collection<DeployDetails> deployDetails) {
+        Map<String, List<DeployDetails>> candidatesByRepo = new LinkedHashMap<>();
+        for (DeployDetails details : deployDetails) {
+            if (StringUtils.isBlank(details.getSha1()) || details.isExplode() || details.getChecksumExists() != null
+                    || StringUtils.isBlank(details.getTargetRepository())) {
+                continue;
+            }
+            candidatesByRepo.computeIfAbsent(details.getTargetRepository(), repo -> new ArrayList<>()).add(details);
+        }
+        for (Map.Entry<String, List<DeployDetails>> candidates : candidatesByRepo.entrySet()) {
+            markExistingChecksums(candidates.getKey(), candidates.getValue());
+        }
+    }
+
+    private void markExistingChecksums(String repo, List<DeployDetails> candidates) {
+        Set<String> checksums = new LinkedHashSet<>();
+        for (DeployDetails details : candidates) {
+            checksums.add(details.getSha1());
+        }
+        Set<String> existingChecksums = new HashSet<>();
+        List<String> chunk = new ArrayList<>(checksumsPerQuery);
+        for (String checksum : checksums) {
+            chunk.add(checksum);
+            if (chunk.size() == checksumsPerQuery) {
+                if (!searchExistingChecksums(repo, chunk, existingChecksums)) {
+                    return;
+                }
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty() && !searchExistingChecksums(repo, chunk, existingChecksums)) {
+            return;
+        }
+
+        for (DeployDetails details : candidates) {
+            boolean exists = existingChecksums.contains(details.getSha1());
+            details.setChecksumExists(exists);
+            if (exists) {
+                existingArtifacts.incrementAndGet();
+                existingBytes.addAndGet(details.getFile().length());
+            }
+        }
+        probedArtifacts.addAndGet(candidates.size());
+    }
+
+    /**
+     * Log how many of the checked artifacts exist in Artifactory, and the number of bytes their checksum deploy saves.
+     */
+    public void logStats() {
+        if (probedArtifacts.get() == 0) {
+            return;
+        }
+        log.info(String.format("%d out of %d checked artifacts already exist in Artifactory and will be deployed by checksum, avoiding the upload of %s.",
+                existingArtifacts.get(), probedArtifacts.get(), FileUtils.byteCountToDisplaySize(existingBytes.get())));
+    }
+
+    public int getProbedArtifacts() {
+        return probedArtifacts.get();
+    }
+
+    public int getExistingArtifacts() {
+        return existingArtifacts.get();
+    }
+
+    public long getExistingBytes() {
+        return existingBytes.get();
+    }
+
+    /**
+     * @return false if the query failed
+     */
+    private boolean searchExistingChecksums(String repo, List<String> checksums, Set<String> existingChecksums) {
+        try {
+            AqlSearchResult result = artifactoryManager.searchArtifactsByAql(buildAql(repo, checksums));
+            for (AqlSearchResult.SearchEntry entry : result.getResults()) {
+                existingChecksums.add(entry.getActualSha1());
+            }
+            return true;
+        } catch (IOException e) {
+            log.debug("Failed checking which checksums exist in Artifactory, falling back to checksum deploy attempts: " + e.getMessage());
+            return false;
+        }
+    }
+
+    static String buildAql(String repo, Collection<String> checksums) {
+        List<String> criteria = new ArrayList<>(checksums.size());
+        for (String checksum : checksums) {
+            criteria.add("{\"actual_sha1\":\"" + checksum + "\"}");
+        }
+        return String.format(AQL_TEMPLATE, repo, StringUtils.join(criteria, ","));
+    }
+}
@@ -0,0 +1,111 @@
+package org.jfrog.build.extractor.clientConfiguration.util;
+
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Downloads a file concurrently by ranges, directly into a file channel.
+ * The file is split into chunks which are claimed by the download threads one after the other, so faster connections
+ * download more chunks. Each thread adapts the size of its next chunk to its observed throughput, so that a chunk takes
+ * about {@link #TARGET_CHUNK_MILLIS} to download. A failed chunk is retried on its own, without downloading the whole
+ * file again.
+ */
+class ConcurrentRangeDownloader {
+    static final long TARGET_CHUNK_MILLIS = 1000;
+    static final long MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private final ArtifactoryManager artifactoryManager;
+    private final Log log;
+    private final int maxThreads;
+    private final long minChunkSize;
+    private final int chunkRetries;
+
+    /**
+     * @param maxThreads   maximum number of concurrent range requests
+     * @param minChunkSize size of the first chunk of every thread, and the minimal size of the next chunks
+     * @param chunkRetries number of times to retry a failed chunk
+     */
+    ConcurrentRangeDownloader(ArtifactoryManager artifactoryManager, Log log, int maxThreads, long minChunkSize, int chunkRetries) {
+        this.artifactoryManager = artifactoryManager;
+        this.log = log;
+        this.maxThreads = Math.max(1, maxThreads);
+        this.minChunkSize = Math.max(1, minChunkSize);
+        this.chunkRetries = Math.max(0, chunkRetries);
+    }
+
+    /**
+     * @return the number of download threads for a file of the given size
+     */
+    int getThreadsCount(long fileSize) {
+        long chunks = (fileSize + minChunkSize - 1) / minChunkSize;
+        return (int) Math.max(1, Math.min(maxThreads, chunks));
+    }
+
+    void download(String downloadPath, FileChannel destination, long fileSize) throws Exception {
+        AtomicLong nextOffset = new AtomicLong();
+        AtomicReference<Exception> error = new AtomicReference<>();
+        Thread[] workers = new Thread[getThreadsCount(fileSize)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(() -> {
+                try {
+                    downloadChunks(downloadPath, destination, fileSize, nextOffset, error);
+                } catch (Exception e) {
+                    error.compareAndSet(null, e);
+                }
+            });
+            workers[i].setName("downloader_" + i);
+            workers[i].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (error.get() != null) {
+            throw new Exception(String.format("Error occurred while downloading %s, please refer to logs for more information", downloadPath), error.get());
+        }
+    }
+
+    private void downloadChunks(String downloadPath, FileChannel destination, long fileSize, AtomicLong nextOffset,
+                                AtomicReference<Exception> error) throws Exception {
+        long chunkSize = minChunkSize;
+        while (error.get() == null) {
+            long start = nextOffset.getAndAdd(chunkSize);
+            if (start >= fileSize) {
+                return;
+            }
+            long end = Math.min(start + chunkSize, fileSize) - 1;
+            long startTime = System.nanoTime();
+            downloadChunk(downloadPath, destination, start, end);
+            chunkSize = getNextChunkSize(end - start + 1, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Calculate the size of the next chunk, so that it takes about {@link #TARGET_CHUNK_MILLIS} to download by the
+     * throughput of the previous chunk.
+     */
+    long getNextChunkSize(long previousChunkSize, long previousChunkNanos) {
+        long millis = Math.max(1, previousChunkNanos / 1000000);
+        double nextChunkSize = (double) previousChunkSize * TARGET_CHUNK_MILLIS / millis;
+        return (long) Math.max(minChunkSize, Math.min(Math.max(MAX_CHUNK_SIZE, minChunkSize), nextChunkSize));
+    }
+
+    private void downloadChunk(String downloadPath, FileChannel destination, long start, long end) throws IOException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                artifactoryManager.downloadRange(downloadPath, destination, start, end);
+                return;
+            } catch (IOException e) {
+                if (attempt >= chunkRetries) {
+                    log.error(String.format("[Thread %s] downloading bytes %d-%d of %s failed: %s", Thread.currentThread().getName(), start, end, downloadPath, e.getMessage()));
+                    throw e;
+                }
+                log.debug(String.format("[Thread %s] downloading bytes %d-%d of %s failed, retrying: %s", Thread.currentThread().getName(), start, end, downloadPath, e.getMessage()));
+            }
+        }
+    }
+}
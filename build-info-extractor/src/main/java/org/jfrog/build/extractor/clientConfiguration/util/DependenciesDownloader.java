@@ -6,6 +6,7 @@ import org.jfrog.build.extractor.clientConfiguration.client.artifactory.Artifact
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -22,6 +23,16 @@ public interface DependenciesDownloader {
 
     List<Dependency> download(Set<DownloadableArtifact> downloadableArtifacts) throws IOException;
 
+    /**
+     * Download the artifacts found by the search.
+     * The default implementation collects all the found artifacts, and downloads them by {@link #download(Set)}.
+     */
+    default List<Dependency> download(ArtifactsSearch search) throws IOException {
+        Set<DownloadableArtifact> downloadableArtifacts = new LinkedHashSet<>();
+        search.run(downloadableArtifacts::add);
+        return download(downloadableArtifacts);
+    }
+
     /**
      * Returns the full target dir of where the artifact is saved
      * Usually that can be a full absolute path under the file system or the full relative
@@ -45,6 +56,21 @@ public interface DependenciesDownloader {
      */
     boolean isFileExistsLocally(String filePath, String md5, String sha1) throws IOException;
 
+    /**
+     * Called after a file was downloaded and its checksums were validated.
+     *
+     * @param filePath  The local file path
+     * @param checksums The checksums of the file, by algorithm name
+     */
+    default void fileDownloaded(String filePath, Map<String, String> checksums) throws IOException {
+    }
+
+    /**
+     * Called after all the dependencies of a download were resolved.
+     */
+    default void downloadFinished() throws IOException {
+    }
+
     /**
      * Receives a set of the resolved files (Those who got downloaded from Artifactory and those who were already existed
      * locally with the same checksums) And a set of resolved files from patterns with mark for deletion.
@@ -61,4 +87,15 @@ public interface DependenciesDownloader {
      *@param flat , flat download flag nva value
      */
     void setFlatDownload(boolean flat);
+
+    /**
+     * Search of artifacts to download, which passes the found artifacts to the consumer one by one.
+     */
+    interface ArtifactsSearch {
+        void run(ArtifactConsumer consumer) throws IOException;
+    }
+
+    interface ArtifactConsumer {
+        void accept(DownloadableArtifact downloadableArtifact) throws IOException;
+    }
 }
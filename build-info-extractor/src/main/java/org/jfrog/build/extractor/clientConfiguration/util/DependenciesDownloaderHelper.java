@@ -1,12 +1,10 @@
 package org.jfrog.build.extractor.clientConfiguration.util;
 
-import com.google.common.io.Files;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.BooleanUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.math.NumberUtils;
-import org.apache.commons.lang.mutable.MutableBoolean;
 import org.apache.http.Header;
 import org.apache.http.HttpHeaders;
 import org.jfrog.build.api.Dependency;
@@ -17,13 +15,28 @@ import org.jfrog.build.api.search.AqlSearchResult;
 import org.jfrog.build.api.util.FileChecksumCalculator;
 import org.jfrog.build.api.util.Log;
 import org.jfrog.build.api.util.ZipUtils;
+import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
 import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
 import org.jfrog.build.extractor.clientConfiguration.util.spec.FileSpec;
 import org.jfrog.build.extractor.clientConfiguration.util.spec.Spec;
 
 import java.io.*;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 import static org.jfrog.build.extractor.clientConfiguration.client.artifactory.services.Upload.MD5_HEADER_NAME;
@@ -38,17 +51,48 @@ public class DependenciesDownloaderHelper {
 
     public static final String SHA1_ALGORITHM_NAME = "sha1";
     public static final String MD5_ALGORITHM_NAME = "md5";
+    /**
+     * Default number of artifacts to download in parallel
+     */
+    public static final int DEFAULT_DOWNLOAD_THREADS = 3;
 
-    private final DependenciesDownloader downloader;
-    private final Log log;
     /**
-     * Number of threads to use when downloading an artifact concurrently
+     * Default maximum number of threads to use when downloading an artifact concurrently
      */
-    private static final int CONCURRENT_DOWNLOAD_THREADS = 3;
+    public static final int DEFAULT_CONCURRENT_DOWNLOAD_THREADS = 8;
     /**
-     * Minimum file size for concurrent download
+     * Default minimum file size for concurrent download
      */
     public static final int MIN_SIZE_FOR_CONCURRENT_DOWNLOAD = 5120000;
+    /**
+     * Default size of the first chunk downloaded by every thread in a concurrent download
+     */
+    public static final int DEFAULT_CONCURRENT_DOWNLOAD_CHUNK_SIZE_KB = 2048;
+    /**
+     * Default number of times to retry a failed chunk in a concurrent download
+     */
+    public static final int DEFAULT_CONCURRENT_DOWNLOAD_CHUNK_RETRIES = 3;
+
+    /**
+     * Number of entries of a zip archive to extract in parallel
+     */
+    private static final int EXTRACTION_THREADS = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors()));
+    private static final Object SEARCH_END = new Object();
+
+    private final DependenciesDownloader downloader;
+    private final Log log;
+    private int downloadThreads = DEFAULT_DOWNLOAD_THREADS;
+    private int concurrentDownloadThreads = DEFAULT_CONCURRENT_DOWNLOAD_THREADS;
+    private long minSizeForConcurrentDownload = MIN_SIZE_FOR_CONCURRENT_DOWNLOAD;
+    private long concurrentDownloadChunkSize = DEFAULT_CONCURRENT_DOWNLOAD_CHUNK_SIZE_KB * 1024L;
+    private int concurrentDownloadChunkRetries = DEFAULT_CONCURRENT_DOWNLOAD_CHUNK_RETRIES;
+    private DownloadCache downloadCache;
+    private int searchPageSize = AqlHelperBase.DEFAULT_PAGE_SIZE;
+    /**
+     * Directories of archives which were extracted while downloaded, by the downloaded artifact. Several artifacts may
+     * share the same destination, so each one is extracted to its own directory.
+     */
+    private final Map<DownloadableArtifact, File> extractedArchives = Collections.synchronizedMap(new IdentityHashMap<>());
 
     public DependenciesDownloaderHelper(DependenciesDownloader downloader, Log log) {
         this.downloader = downloader;
@@ -60,6 +104,87 @@ public class DependenciesDownloaderHelper {
         this.log = log;
     }
 
+    /**
+     * Set the number of artifacts to download in parallel. Artifacts with the same local path are always downloaded
+     * one after the other.
+     *
+     * @param downloadThreads number of download threads, 1 to download the artifacts serially
+     */
+    public void setDownloadThreads(int downloadThreads) {
+        this.downloadThreads = Math.max(1, downloadThreads);
+    }
+
+    /**
+     * Set the maximum number of range requests of a single artifact download.
+     */
+    public void setConcurrentDownloadThreads(int concurrentDownloadThreads) {
+        this.concurrentDownloadThreads = concurrentDownloadThreads;
+    }
+
+    /**
+     * Set the minimum file size in bytes, from which files are downloaded by concurrent range requests.
+     */
+    public void setMinSizeForConcurrentDownload(long minSizeForConcurrentDownload) {
+        this.minSizeForConcurrentDownload = minSizeForConcurrentDownload;
+    }
+
+    /**
+     * Set the size in bytes of the first range downloaded by each thread of a concurrent download.
+     * The size of the next ranges is adapted to the observed download throughput.
+     */
+    public void setConcurrentDownloadChunkSize(long concurrentDownloadChunkSize) {
+        this.concurrentDownloadChunkSize = concurrentDownloadChunkSize;
+    }
+
+    /**
+     * Set the number of times to retry a failed range of a concurrent download.
+     */
+    public void setConcurrentDownloadChunkRetries(int concurrentDownloadChunkRetries) {
+        this.concurrentDownloadChunkRetries = concurrentDownloadChunkRetries;
+    }
+
+    /**
+     * Set a cache of downloaded files, consulted before downloading an artifact and populated after downloading it.
+     *
+     * @param downloadCache the download cache, or null to download without a cache
+     */
+    public void setDownloadCache(DownloadCache downloadCache) {
+        this.downloadCache = downloadCache;
+    }
+
+    /**
+     * Set the number of search results to request at once when downloading by a spec. The results of every page are
+     * downloaded while the next page is requested. This is also the max number of found artifacts which are kept
+     * while waiting for download, when downloading the results of a search.
+     */
+    public void setSearchPageSize(int searchPageSize) {
+        this.searchPageSize = Math.max(1, searchPageSize);
+    }
+
+    /**
+     * Apply the download settings of the resolver configuration.
+     */
+    public void setResolverConfiguration(ArtifactoryClientConfiguration.ResolverHandler resolver) {
+        setDownloadThreads(resolver.getDownloadThreads());
+        setConcurrentDownloadThreads(resolver.getConcurrentDownloadThreads());
+        setMinSizeForConcurrentDownload(resolver.getConcurrentDownloadMinSizeKb() * 1024L);
+        setConcurrentDownloadChunkSize(resolver.getConcurrentDownloadChunkSizeKb() * 1024L);
+        setConcurrentDownloadChunkRetries(resolver.getConcurrentDownloadChunkRetries());
+        if (downloader instanceof DependenciesDownloaderImpl) {
+            DependenciesDownloaderImpl downloaderImpl = (DependenciesDownloaderImpl) downloader;
+            if (StringUtils.isNotBlank(resolver.getChecksumsIndexFile())) {
+                downloaderImpl.setChecksumsIndexFile(new File(resolver.getChecksumsIndexFile()));
+            }
+            downloaderImpl.setVerifyLocalChecksums(resolver.isVerifyLocalChecksums());
+        }
+        if (StringUtils.isNotBlank(resolver.getDownloadCacheDir())) {
+            DownloadCache cache = new DownloadCache(new File(resolver.getDownloadCacheDir()),
+                    resolver.getDownloadCacheMaxSizeMb() * 1024L * 1024L, log);
+            cache.setUseLinks(resolver.isDownloadCacheUseLinks());
+            setDownloadCache(cache);
+        }
+    }
+
     /**
      * Download dependencies by the provided spec using the provided in the constructor client.
      * returns list of downloaded artifacts
@@ -70,23 +195,38 @@ public class DependenciesDownloaderHelper {
      */
     public List<Dependency> downloadDependencies(Spec downloadSpec) throws IOException {
         ArtifactorySearcher searcher = new ArtifactorySearcher(downloader.getArtifactoryManager(), log);
-        Set<DownloadableArtifact> downloadableArtifacts;
-        List<AqlSearchResult.SearchEntry> searchResults;
+        searcher.setPageSize(searchPageSize);
         List<Dependency> resolvedDependencies = new ArrayList<>();
 
         for (FileSpec file : downloadSpec.getFiles()) {
             log.debug("Downloading dependencies using spec: \n" + file.toString());
             this.downloader.setFlatDownload(BooleanUtils.toBoolean(file.getFlat()));
-            searchResults = searcher.SearchByFileSpec(file);
-            downloadableArtifacts = fetchDownloadableArtifactsFromResult(searchResults, Boolean.valueOf(file.getExplode()), file.getTarget());
-            if (file.getSpecType() == FileSpec.SpecType.PATTERN) {
-                replaceTargetPlaceholders(file.getPattern(), downloadableArtifacts, file.getTarget());
-            }
-            resolvedDependencies.addAll(downloadDependencies(downloadableArtifacts));
+            boolean explode = Boolean.valueOf(file.getExplode());
+            log.info("Beginning to resolve Build Info published dependencies.");
+            // Download the search results in batches, while the next results are received
+            Set<DownloadableArtifact> batch = new LinkedHashSet<>();
+            Set<DownloadableArtifact> downloadedArtifacts = new HashSet<>();
+            searcher.searchByFileSpec(file, searchEntry -> {
+                batch.add(toDownloadableArtifact(searchEntry, explode, file.getTarget()));
+                if (batch.size() >= searchPageSize) {
+                    resolvedDependencies.addAll(downloadBatch(file, batch, downloadedArtifacts));
+                    batch.clear();
+                }
+            });
+            resolvedDependencies.addAll(downloadBatch(file, batch, downloadedArtifacts));
+            finishDownload(downloadedArtifacts);
         }
         return resolvedDependencies;
     }
 
+    private List<Dependency> downloadBatch(FileSpec file, Set<DownloadableArtifact> batch,
+                                           Set<DownloadableArtifact> downloadedArtifacts) throws IOException {
+        if (file.getSpecType() == FileSpec.SpecType.PATTERN) {
+            replaceTargetPlaceholders(file.getPattern(), batch, file.getTarget());
+        }
+        return downloadBatch(batch, downloadedArtifacts);
+    }
+
     private void replaceTargetPlaceholders(String searchPattern, Set<DownloadableArtifact> downloadableArtifacts, String target) {
         searchPattern = StringUtils.substringAfter(searchPattern, "/");
         Pattern pattern = Pattern.compile(PathsUtils.pathToRegExp(searchPattern));
@@ -104,35 +244,206 @@ public class DependenciesDownloaderHelper {
     }
 
     /**
-     * Converts the found results to DownloadableArtifact types before downloading.
+     * Converts a found result to a DownloadableArtifact before downloading.
      */
-    private Set<DownloadableArtifact> fetchDownloadableArtifactsFromResult(List<AqlSearchResult.SearchEntry> searchResults, boolean explode, String target) {
-        Set<DownloadableArtifact> downloadableArtifacts = new HashSet<>();
-        for (AqlSearchResult.SearchEntry searchEntry : searchResults) {
-            String path = searchEntry.getPath().equals(".") ? "" : searchEntry.getPath() + "/";
-            DownloadableArtifact downloadableArtifact = new DownloadableArtifact(searchEntry.getRepo(), target, path + searchEntry.getName(), "", "", PatternType.NORMAL);
-            downloadableArtifact.setExplode(explode);
-            downloadableArtifacts.add(downloadableArtifact);
-        }
-        return downloadableArtifacts;
+    private static DownloadableArtifact toDownloadableArtifact(AqlSearchResult.SearchEntry searchEntry, boolean explode, String target) {
+        String path = searchEntry.getPath().equals(".") ? "" : searchEntry.getPath() + "/";
+        DownloadableArtifact downloadableArtifact = new DownloadableArtifact(searchEntry.getRepo(), target, path + searchEntry.getName(), "", "", PatternType.NORMAL);
+        downloadableArtifact.setExplode(explode);
+        // Keep the metadata returned by the search, to avoid requesting it again before the download
+        downloadableArtifact.setSha1(searchEntry.getActualSha1());
+        downloadableArtifact.setMd5(searchEntry.getActualMd5());
+        downloadableArtifact.setSize(searchEntry.getSize());
+        return downloadableArtifact;
     }
 
+    /**
+     * Download the provided artifacts, up to {@link #setDownloadThreads(int)} artifacts in parallel.
+     * The returned dependencies are ordered by the iteration order of the provided set, regardless of the order in which
+     * the downloads complete. Archives are extracted after all downloads are done.
+     */
     public List<Dependency> downloadDependencies(Set<DownloadableArtifact> downloadableArtifacts) throws IOException {
         log.info("Beginning to resolve Build Info published dependencies.");
+        Set<DownloadableArtifact> downloadedArtifacts = new HashSet<>();
+        List<Dependency> dependencies = downloadBatch(downloadableArtifacts, downloadedArtifacts);
+        finishDownload(downloadedArtifacts);
+        return dependencies;
+    }
+
+    /**
+     * Download the artifacts found by the search, while the search runs on a background thread.
+     * Every batch downloads the artifacts found since the previous batch, up to the search page size, so the downloads
+     * start as soon as the first artifacts are found. An artifact found more than once, for example by overlapping
+     * patterns, is downloaded only once.
+     */
+    public List<Dependency> downloadDependencies(DependenciesDownloader.ArtifactsSearch search) throws IOException {
+        log.info("Beginning to resolve Build Info published dependencies.");
+        BlockingQueue<Object> queue = new ArrayBlockingQueue<>(searchPageSize);
+        Thread searcher = new Thread(() -> runSearch(search, queue), "artifacts_searcher");
+        searcher.setDaemon(true);
+        searcher.start();
         List<Dependency> dependencies = new ArrayList<>();
         Set<DownloadableArtifact> downloadedArtifacts = new HashSet<>();
-        for (DownloadableArtifact downloadableArtifact : downloadableArtifacts) {
-            Dependency dependency = downloadArtifact(downloadableArtifact);
-            if (dependency != null) {
-                dependencies.add(dependency);
-                downloadedArtifacts.add(downloadableArtifact);
-                explodeDependenciesIfNeeded(downloadableArtifact);
+        Set<List<String>> scheduledArtifacts = new HashSet<>();
+        List<Object> found = new ArrayList<>();
+        try {
+            boolean searching = true;
+            while (searching) {
+                found.add(queue.take());
+                queue.drainTo(found, searchPageSize - 1);
+                Set<DownloadableArtifact> batch = new LinkedHashSet<>();
+                for (Object item : found) {
+                    if (item == SEARCH_END) {
+                        searching = false;
+                    } else if (item instanceof SearchFailure) {
+                        throw ((SearchFailure) item).rethrow();
+                    } else if (scheduledArtifacts.add(getArtifactKey((DownloadableArtifact) item))) {
+                        batch.add((DownloadableArtifact) item);
+                    }
+                }
+                found.clear();
+                if (!batch.isEmpty()) {
+                    dependencies.addAll(downloadBatch(batch, downloadedArtifacts));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while searching for artifacts to download");
+        } finally {
+            // Stop searching if the download failed
+            searcher.interrupt();
+        }
+        finishDownload(downloadedArtifacts);
+        return dependencies;
+    }
+
+    /**
+     * Get the key of the artifact, composed of its source and local path.
+     */
+    private static List<String> getArtifactKey(DownloadableArtifact artifact) {
+        return Arrays.asList(artifact.getRepoUrl(), artifact.getFilePath(), artifact.getMatrixParameters(),
+                artifact.getTargetDirPath(), artifact.getRelativeDirPath());
+    }
+
+    private static void runSearch(DependenciesDownloader.ArtifactsSearch search, BlockingQueue<Object> queue) {
+        try {
+            search.run(downloadableArtifact -> {
+                try {
+                    queue.put(downloadableArtifact);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while searching for artifacts to download");
+                }
+            });
+            queue.put(SEARCH_END);
+        } catch (InterruptedException e) {
+            // Stopped by the downloading thread
+        } catch (IOException | RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Stopped by the downloading thread
+                return;
+            }
+            try {
+                queue.put(new SearchFailure(e));
+            } catch (InterruptedException ignored) {
+                // Stopped by the downloading thread
             }
         }
+    }
 
+    /**
+     * Download and extract the provided artifacts, and add the downloaded artifacts to the provided set.
+     */
+    private List<Dependency> downloadBatch(Set<DownloadableArtifact> downloadableArtifacts,
+                                           Set<DownloadableArtifact> downloadedArtifacts) throws IOException {
+        List<DownloadableArtifact> artifacts = new ArrayList<>(downloadableArtifacts);
+        List<Dependency> dependencies = new ArrayList<>();
+        try {
+            Dependency[] results = downloadArtifacts(artifacts);
+            for (int i = 0; i < artifacts.size(); i++) {
+                if (results[i] != null) {
+                    dependencies.add(results[i]);
+                    downloadedArtifacts.add(artifacts.get(i));
+                    explodeDependenciesIfNeeded(artifacts.get(i));
+                }
+            }
+        } finally {
+            // Cleanup the extraction directories left after a failure
+            synchronized (extractedArchives) {
+                for (File extractionDir : extractedArchives.values()) {
+                    FileUtils.deleteQuietly(extractionDir);
+                }
+                extractedArchives.clear();
+            }
+        }
+        return dependencies;
+    }
+
+    private void finishDownload(Set<DownloadableArtifact> downloadedArtifacts) throws IOException {
         removeUnusedArtifactsFromLocal(downloadedArtifacts);
+        downloader.downloadFinished();
+        if (downloadCache != null) {
+            downloadCache.evict();
+        }
         log.info("Finished resolving Build Info published dependencies.");
-        return dependencies;
+    }
+
+    /**
+     * Download the artifacts in parallel. Artifacts sharing the same local path are downloaded serially by the same
+     * task, in their original order, so that the last one wins as in a serial download.
+     *
+     * @return the downloaded dependencies, in the order of the artifacts. Null for artifacts which were not downloaded.
+     */
+    private Dependency[] downloadArtifacts(List<DownloadableArtifact> artifacts) throws IOException {
+        Dependency[] results = new Dependency[artifacts.size()];
+        if (downloadThreads <= 1 || artifacts.size() <= 1) {
+            for (int i = 0; i < artifacts.size(); i++) {
+                results[i] = downloadArtifact(artifacts.get(i));
+            }
+            return results;
+        }
+
+        Map<String, List<Integer>> artifactsByDestination = new LinkedHashMap<>();
+        for (int i = 0; i < artifacts.size(); i++) {
+            DownloadableArtifact artifact = artifacts.get(i);
+            String fileDestination = downloader.getTargetDir(artifact.getTargetDirPath(), artifact.getRelativeDirPath());
+            artifactsByDestination.computeIfAbsent(fileDestination, key -> new ArrayList<>()).add(i);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(downloadThreads, artifactsByDestination.size()), createDownloadThreadFactory());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (List<Integer> indices : artifactsByDestination.values()) {
+                futures.add(executor.submit(() -> {
+                    for (int i : indices) {
+                        results[i] = downloadArtifact(artifacts.get(i));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while downloading artifacts", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        } finally {
+            // Stop the remaining downloads in case of a failure
+            executor.shutdownNow();
+        }
+    }
+
+    private static ThreadFactory createDownloadThreadFactory() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "artifact_downloader_" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
     }
 
     private void explodeDependenciesIfNeeded(DownloadableArtifact downloadableArtifact) throws IOException {
@@ -144,12 +455,41 @@ public class DependenciesDownloaderHelper {
         log.info("Extracting Archive: " + fileDestination);
         File sourceArchive = new File(fileDestination);
         File parentFile = FileUtils.getFile(fileDestination).getParentFile();
-        ZipUtils.extract(sourceArchive, parentFile);
+        File extractionDir = extractedArchives.remove(downloadableArtifact);
+        if (extractionDir != null) {
+            // Extracted by the download task, after the checksums of the archive were validated
+            moveDirectoryContent(extractionDir, parentFile);
+            FileUtils.deleteQuietly(extractionDir);
+        } else {
+            ZipUtils.extract(sourceArchive, parentFile, EXTRACTION_THREADS);
+        }
         log.info("Finished extracting archive to " + parentFile);
         log.debug("Deleting archive...");
         org.apache.commons.io.FileUtils.deleteQuietly(sourceArchive);
     }
 
+    /**
+     * Move the files of the source directory to the same relative paths under the destination directory, replacing
+     * existing files. Moving within the same file system doesn't copy the files content.
+     */
+    private static void moveDirectoryContent(File sourceDir, File destinationDir) throws IOException {
+        Path source = sourceDir.toPath();
+        Path destination = destinationDir.toPath();
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(destination.resolve(source.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.move(file, destination.resolve(source.relativize(file)), StandardCopyOption.REPLACE_EXISTING);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
     private void removeUnusedArtifactsFromLocal(Set<DownloadableArtifact> downloadableArtifacts) throws IOException {
         Set<String> forDeletionFiles = new HashSet<>();
         Set<String> allResolvesFiles = new HashSet<>();
@@ -177,7 +517,10 @@ public class DependenciesDownloaderHelper {
         String uri = downloadableArtifact.getRepoUrl() + '/' + filePath;
         final String uriWithParams = (StringUtils.isBlank(matrixParams) ? uri : uri + ';' + matrixParams);
 
-        ArtifactMetaData artifactMetaData = downloadArtifactMetaData(uriWithParams);
+        ArtifactMetaData artifactMetaData = getArtifactMetaData(downloadableArtifact);
+        if (artifactMetaData == null) {
+            artifactMetaData = downloadArtifactMetaData(uriWithParams);
+        }
         // If Artifactory returned no fileMetaData, this is probably because the URL points to a folder,
         // so there's no need to download it.
         if (StringUtils.isBlank(artifactMetaData.getMd5()) && StringUtils.isBlank(artifactMetaData.getSha1())) {
@@ -204,10 +547,18 @@ public class DependenciesDownloaderHelper {
         if (dependencyResult != null) {
             return dependencyResult;
         }
+        dependencyResult = getDependencyFromCache(artifactMetaData, fileDestination, remotePath);
+        if (dependencyResult != null) {
+            return dependencyResult;
+        }
+        // Zip archives are downloaded to a file, and extracted in parallel from their central directory
+        if (downloadableArtifact.isExplode() && downloadCache == null && ZipUtils.isSequentialArchive(fileDestination)) {
+            return downloadAndExtract(downloadableArtifact, artifactMetaData, uriWithParams, filePath, fileDestination, remotePath);
+        }
 
         try {
             log.info(String.format("Downloading '%s'...", uriWithParams));
-            Map<String, String> checksumsMap = artifactMetaData.getSize() >= MIN_SIZE_FOR_CONCURRENT_DOWNLOAD && artifactMetaData.isAcceptRange()
+            Map<String, String> checksumsMap = artifactMetaData.getSize() >= minSizeForConcurrentDownload && artifactMetaData.isAcceptRange()
                     ? downloadFileConcurrently(uriWithParams, artifactMetaData.getSize(), fileDestination, filePath)
                     : downloadFile(uriWithParams, fileDestination);
 
@@ -218,6 +569,14 @@ public class DependenciesDownloaderHelper {
 
             dependencyResult = validateChecksumsAndBuildDependency(checksumsMap, artifactMetaData, filePath, fileDestination, remotePath);
             log.info(String.format("Successfully downloaded '%s' to '%s'", uriWithParams, fileDestination));
+            downloader.fileDownloaded(fileDestination, checksumsMap);
+            if (downloadCache != null) {
+                downloadCache.put(dependencyResult.getSha1(), new File(fileDestination));
+            }
+            if (downloadableArtifact.isExplode()) {
+                // Extract by the download task, before the next archive with the same destination is downloaded
+                extractDownloadedArchive(downloadableArtifact, new File(fileDestination));
+            }
 
             return dependencyResult;
         } catch (Exception e) {
@@ -225,6 +584,55 @@ public class DependenciesDownloaderHelper {
         }
     }
 
+    /**
+     * Download a tar or gzip archive and extract it while it's downloaded, without writing the archive to the disk.
+     * The archive is extracted to a temporary directory next to its destination, and moved to its final location by
+     * {@link #explodeDependenciesIfNeeded(DownloadableArtifact)} after its checksums are validated.
+     */
+    private Dependency downloadAndExtract(DownloadableArtifact downloadableArtifact, ArtifactMetaData artifactMetaData,
+                                         String uriWithParams, String filePath, String fileDestination, String remotePath) throws IOException {
+        File destination = new File(fileDestination);
+        File extractionDir = createExtractionDir(destination);
+        boolean extracted = false;
+        try {
+            log.info(String.format("Downloading and extracting '%s'...", uriWithParams));
+            Map<String, String> checksumsMap = downloader.getArtifactoryManager().downloadAndExtract(uriWithParams, destination.getName(), extractionDir);
+            Dependency dependencyResult = validateChecksumsAndBuildDependency(checksumsMap, artifactMetaData, filePath, fileDestination, remotePath);
+            extractedArchives.put(downloadableArtifact, extractionDir);
+            extracted = true;
+            log.info(String.format("Successfully downloaded '%s' to '%s'", uriWithParams, extractionDir));
+            return dependencyResult;
+        } finally {
+            if (!extracted) {
+                FileUtils.deleteQuietly(extractionDir);
+            }
+        }
+    }
+
+    /**
+     * Extract a downloaded archive to a temporary directory next to it, and delete the archive. Zip archives are
+     * extracted in parallel. The extracted files are moved to their final location by
+     * {@link #explodeDependenciesIfNeeded(DownloadableArtifact)}.
+     */
+    private void extractDownloadedArchive(DownloadableArtifact downloadableArtifact, File archive) throws IOException {
+        File extractionDir = createExtractionDir(archive);
+        boolean extracted = false;
+        try {
+            ZipUtils.extract(archive, extractionDir, EXTRACTION_THREADS);
+            extractedArchives.put(downloadableArtifact, extractionDir);
+            extracted = true;
+        } finally {
+            if (!extracted) {
+                FileUtils.deleteQuietly(extractionDir);
+            }
+        }
+        FileUtils.deleteQuietly(archive);
+    }
+
+    private static File createExtractionDir(File archive) {
+        return new File(archive.getParentFile(), "." + archive.getName() + ".extract-" + UUID.randomUUID());
+    }
+
     protected Map<String, String> downloadFile(String downloadPath, String fileDestination) throws IOException {
         File downloadedFile = downloader.getArtifactoryManager().downloadToFile(downloadPath, fileDestination);
         try {
@@ -235,8 +643,9 @@ public class DependenciesDownloaderHelper {
     }
 
     /**
-     * Download an artifact using {@link #CONCURRENT_DOWNLOAD_THREADS} multiple threads.
-     * This method will be used for artifacts of size larger than {@link #MIN_SIZE_FOR_CONCURRENT_DOWNLOAD}.
+     * Download an artifact by concurrent range requests, see {@link ConcurrentRangeDownloader}.
+     * This method will be used for artifacts of size larger than {@link #setMinSizeForConcurrentDownload(long)}.
+     * The destination file is preallocated, and each range is written directly to its offset in the file.
      *
      * @param uriWithParams   the request uri
      * @param fileSize        in bytes, used for setting the download ranges
@@ -246,81 +655,32 @@ public class DependenciesDownloaderHelper {
      */
     protected Map<String, String> downloadFileConcurrently(final String uriWithParams, long fileSize, final String fileDestination, String filePath)
             throws Exception {
-        String[] downloadedFilesPaths;
-        File tempDir = Files.createTempDir();
-        String tempPath = tempDir.getPath() + File.separatorChar + filePath;
+        File dest = new File(fileDestination);
+        if (dest.exists()) {
+            dest.delete();
+        } else {
+            dest.getParentFile().mkdirs();
+        }
+        boolean downloaded = false;
         try {
-            downloadedFilesPaths = doConcurrentDownload(fileSize, uriWithParams, tempPath);
-            try (InputStream inputStream = concatenateFilesToSingleStream(downloadedFilesPaths)) {
-                return downloader.saveDownloadedFile(inputStream, fileDestination);
+            try (RandomAccessFile destFile = new RandomAccessFile(dest, "rw")) {
+                destFile.setLength(fileSize);
+                new ConcurrentRangeDownloader(downloader.getArtifactoryManager(), log, concurrentDownloadThreads,
+                        concurrentDownloadChunkSize, concurrentDownloadChunkRetries).download(uriWithParams, destFile.getChannel(), fileSize);
             }
+            downloaded = true;
         } finally {
-            FileUtils.deleteDirectory(tempDir);
-        }
-    }
-
-    private String[] doConcurrentDownload(long fileSize, final String downloadPath, String tempPath)
-            throws Exception {
-        final MutableBoolean errorOccurred = new MutableBoolean(false);
-        String[] downloadedFilesPaths = new String[CONCURRENT_DOWNLOAD_THREADS];
-        long chunkSize = fileSize / CONCURRENT_DOWNLOAD_THREADS;
-        Thread[] workers = new Thread[CONCURRENT_DOWNLOAD_THREADS];
-
-        long start = 0;
-        long end = chunkSize + fileSize % CONCURRENT_DOWNLOAD_THREADS - 1;
-        for (int i = 0; i < CONCURRENT_DOWNLOAD_THREADS; i++) {
-            final Map<String, String> headers = new HashMap<>();
-            headers.put(HttpHeaders.RANGE, "bytes=" + start + "-" + end);
-
-            final String fileDestination = tempPath + i;
-            downloadedFilesPaths[i] = fileDestination;
-            workers[i] = new Thread(() -> {
-                try {
-                    downloader.getArtifactoryManager().downloadToFile(downloadPath, fileDestination, headers);
-                } catch (Exception e) {
-                    errorOccurred.setValue(true);
-                    printErrorToLog(e, fileDestination, downloadPath);
-                }
-            });
-            workers[i].setName("downloader_" + i);
-            workers[i].start();
-
-            start = end + 1;
-            end += chunkSize;
-        }
-
-        for (Thread worker : workers) {
-            worker.join();
-        }
-
-        // Check if error occurred while downloading
-        if (errorOccurred.booleanValue()) {
-            throw new Exception(String.format("Error occurred while downloading %s, please refer to logs for more information", downloadPath));
-        }
-
-        return downloadedFilesPaths;
-    }
-
-    /**
-     * Create a single InputStream.
-     * The stream is constructed from the multiple provided file paths.
-     *
-     * @param downloadedFilesPaths String array containing paths to the downloaded files
-     * @return single InputStream of the downloaded file
-     */
-    private InputStream concatenateFilesToSingleStream(String[] downloadedFilesPaths) throws FileNotFoundException {
-        InputStream inputStream = new FileInputStream(downloadedFilesPaths[0]);
-        if (downloadedFilesPaths.length < 2) {
-            return inputStream;
+            if (!downloaded) {
+                // Don't leave a partially downloaded file
+                dest.delete();
+            }
         }
-
-        for (int i = 1; i < downloadedFilesPaths.length; i++) {
-            inputStream = new SequenceInputStream(
-                    inputStream,
-                    new FileInputStream(downloadedFilesPaths[i])
-            );
+        // The checksums can't be combined from the checksums of the ranges, so they are calculated from the complete file
+        try {
+            return FileChecksumCalculator.calculateChecksums(dest, MD5_ALGORITHM_NAME, SHA1_ALGORITHM_NAME);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(String.format("Could not find checksum algorithm: %s", e.getLocalizedMessage()), e);
         }
-        return inputStream;
     }
 
     /**
@@ -332,6 +692,12 @@ public class DependenciesDownloaderHelper {
      * @param remotePath   The remote file path
      */
     private Dependency getDependencyLocally(ArtifactMetaData fileMetaData, String localPath, String remotePath) throws IOException {
+        File localFile = new File(localPath);
+        if (fileMetaData.getSize() > 0 && localFile.isFile() && localFile.length() != fileMetaData.getSize()) {
+            // No need to calculate the checksums of a local file with a different size
+            log.info(String.format("Overriding existing file: %s", localPath));
+            return null;
+        }
         if (downloader.isFileExistsLocally(localPath, fileMetaData.getMd5(), fileMetaData.getSha1())) {
             log.info(String.format("The file '%s' exists locally.", localPath));
             return new DependencyBuilder()
@@ -345,6 +711,53 @@ public class DependenciesDownloaderHelper {
         return null;
     }
 
+    /**
+     * Returns the dependency if it exists in the download cache, after materializing it in the local path.
+     * Otherwise return null.
+     *
+     * @param fileMetaData The artifact fileMetaData returned from Artifactory.
+     * @param localPath    The local file path
+     * @param remotePath   The remote file path
+     */
+    private Dependency getDependencyFromCache(ArtifactMetaData fileMetaData, String localPath, String remotePath) throws IOException {
+        long size = fileMetaData.getSize() > 0 ? fileMetaData.getSize() : -1;
+        if (downloadCache == null || !downloadCache.get(fileMetaData.getSha1(), size, new File(localPath))) {
+            return null;
+        }
+        log.info(String.format("The file '%s' was copied from the download cache.", localPath));
+        Map<String, String> checksums = new HashMap<>();
+        checksums.put(MD5_ALGORITHM_NAME, fileMetaData.getMd5());
+        checksums.put(SHA1_ALGORITHM_NAME, fileMetaData.getSha1());
+        downloader.fileDownloaded(localPath, checksums);
+        return new DependencyBuilder()
+                .md5(fileMetaData.getMd5())
+                .sha1(fileMetaData.getSha1())
+                .id(localPath.substring(localPath.lastIndexOf(String.valueOf(IOUtils.DIR_SEPARATOR)) + 1))
+                .localPath(localPath)
+                .remotePath(remotePath)
+                .build();
+    }
+
+    /**
+     * Returns the artifact metadata from the search results kept in the downloadable artifact, or null if the metadata
+     * is missing and should be requested from Artifactory.
+     * Artifactory supports range requests for all stored files, so the metadata from the search allows a concurrent download.
+     *
+     * @param downloadableArtifact download recipe
+     */
+    static ArtifactMetaData getArtifactMetaData(DownloadableArtifact downloadableArtifact) {
+        if (StringUtils.isBlank(downloadableArtifact.getSha1()) || StringUtils.isBlank(downloadableArtifact.getMd5())
+                || downloadableArtifact.getSize() == null) {
+            return null;
+        }
+        ArtifactMetaData artifactMetaData = new ArtifactMetaData();
+        artifactMetaData.setSha1(downloadableArtifact.getSha1());
+        artifactMetaData.setMd5(downloadableArtifact.getMd5());
+        artifactMetaData.setSize(downloadableArtifact.getSize());
+        artifactMetaData.setAcceptRange(true);
+        return artifactMetaData;
+    }
+
     protected ArtifactMetaData downloadArtifactMetaData(String url) throws IOException {
         try {
             ArtifactMetaData artifactMetaData = new ArtifactMetaData();
@@ -424,12 +837,6 @@ public class DependenciesDownloaderHelper {
         }
     }
 
-    private void printErrorToLog(Exception e, String downloadPath, String uriWithParams) {
-        StringWriter sw = new StringWriter();
-        e.printStackTrace(new PrintWriter(sw));
-        log.error(String.format("[Thread %s] downloading %s as part of file %s threw an exception: %s", Thread.currentThread().getName(), downloadPath, uriWithParams, sw.toString()));
-    }
-
     protected static class ArtifactMetaData {
         private String sha1;
         private String md5;
@@ -468,4 +875,19 @@ public class DependenciesDownloaderHelper {
             this.acceptRange = acceptRange;
         }
     }
+
+    private static class SearchFailure {
+        private final Exception exception;
+
+        private SearchFailure(Exception exception) {
+            this.exception = exception;
+        }
+
+        private IOException rethrow() {
+            if (exception instanceof RuntimeException) {
+                throw (RuntimeException) exception;
+            }
+            return (IOException) exception;
+        }
+    }
 }
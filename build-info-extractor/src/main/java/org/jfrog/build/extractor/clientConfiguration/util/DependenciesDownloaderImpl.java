@@ -29,6 +29,9 @@ public class DependenciesDownloaderImpl implements DependenciesDownloader {
     private File workingDirectory;
     private Log log;
     private boolean flatDownload = false;
+    // Null unless requested, so that nothing but the downloaded files is written to the working directory
+    private LocalChecksumsIndex checksumsIndex;
+    private boolean verifyLocalChecksums;
 
     public DependenciesDownloaderImpl(ArtifactoryManager artifactoryManager, String workingDirectory, Log log) {
         this.workingDirectory = new File(workingDirectory);
@@ -37,6 +40,31 @@ public class DependenciesDownloaderImpl implements DependenciesDownloader {
         this.artifactoryManager = artifactoryManager;
     }
 
+    /**
+     * Keep the checksums of the downloaded files in an index file, so that the checksums of existing local files which
+     * didn't change since they were downloaded are not calculated again on the next downloads.
+     * The index file should be outside the download target directories.
+     *
+     * @param indexFile the index file, or null to always calculate the checksums of existing local files
+     */
+    public void setChecksumsIndexFile(File indexFile) {
+        checksumsIndex = indexFile == null ? null : new LocalChecksumsIndex(indexFile, log);
+        if (checksumsIndex != null) {
+            checksumsIndex.setVerify(verifyLocalChecksums);
+        }
+    }
+
+    /**
+     * Set whether to always calculate the checksums of existing local files, instead of trusting the checksums index
+     * for files which didn't change since they were indexed.
+     */
+    public void setVerifyLocalChecksums(boolean verify) {
+        verifyLocalChecksums = verify;
+        if (checksumsIndex != null) {
+            checksumsIndex.setVerify(verify);
+        }
+    }
+
     @Override
     public ArtifactoryManager getArtifactoryManager() {
         return artifactoryManager;
@@ -48,6 +76,12 @@ public class DependenciesDownloaderImpl implements DependenciesDownloader {
         return helper.downloadDependencies(downloadableArtifacts);
     }
 
+    @Override
+    public List<Dependency> download(ArtifactsSearch search) throws IOException {
+        DependenciesDownloaderHelper helper = new DependenciesDownloaderHelper(this, log);
+        return helper.downloadDependencies(search);
+    }
+
     @Override
     public String getTargetDir(String targetDir, String relativeDir) throws IOException {
         String downloadFileRelativePath = this.flatDownload && relativeDir.contains("/") ?
@@ -76,22 +110,43 @@ public class DependenciesDownloaderImpl implements DependenciesDownloader {
             throw new IOException(String.format("File can't override an existing directory: %s", dest.toString()));
         }
 
-        try {
-            Map<String, String> checksumsMap = FileChecksumCalculator.calculateChecksums(dest, MD5_ALGORITHM_NAME, SHA1_ALGORITHM_NAME);
-            boolean isExists = checksumsMap != null &&
-                    StringUtils.isNotBlank(md5) && StringUtils.equals(md5, checksumsMap.get(MD5_ALGORITHM_NAME)) &&
-                    StringUtils.isNotBlank(sha1) && StringUtils.equals(sha1, checksumsMap.get(SHA1_ALGORITHM_NAME));
-            if (isExists) {
-                return true;
-            }
+        Map<String, String> checksumsMap = getChecksums(dest);
+        boolean isExists = checksumsMap != null &&
+                StringUtils.isNotBlank(md5) && StringUtils.equals(md5, checksumsMap.get(MD5_ALGORITHM_NAME)) &&
+                StringUtils.isNotBlank(sha1) && StringUtils.equals(sha1, checksumsMap.get(SHA1_ALGORITHM_NAME));
+        if (isExists) {
+            return true;
+        }
 
-            log.info(String.format("Overriding existing file: %s", dest.toString()));
-            return false;
+        log.info(String.format("Overriding existing file: %s", dest.toString()));
+        return false;
+    }
+
+    private Map<String, String> getChecksums(File file) throws IOException {
+        if (checksumsIndex != null) {
+            return checksumsIndex.getChecksums(file);
+        }
+        try {
+            return FileChecksumCalculator.calculateChecksums(file, MD5_ALGORITHM_NAME, SHA1_ALGORITHM_NAME);
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException(String.format("Could not find checksum algorithm: %s", e.getLocalizedMessage()), e);
         }
     }
 
+    @Override
+    public void fileDownloaded(String filePath, Map<String, String> checksums) throws IOException {
+        if (checksumsIndex != null) {
+            checksumsIndex.put(new File(filePath), checksums);
+        }
+    }
+
+    @Override
+    public void downloadFinished() throws IOException {
+        if (checksumsIndex != null) {
+            checksumsIndex.save();
+        }
+    }
+
     @Override
     public void removeUnusedArtifactsFromLocal(Set<String> allResolvesFiles, Set<String> forDeletionFiles)
             throws IOException {
@@ -102,7 +157,7 @@ public class DependenciesDownloaderImpl implements DependenciesDownloader {
             if (!(fileSiblings == null || fileSiblings.length == 0)) {
 
                 for (File sibling : fileSiblings) {
-                    if (!isResolvedOrParentOfResolvedFile(allResolvesFiles, sibling.getPath())) {
+                    if (!isResolvedOrParentOfResolvedFile(allResolvesFiles, sibling.getPath()) && !isChecksumsIndex(sibling)) {
                         log.info("Deleted unresolved file '" + sibling.getPath() + "'");
                         sibling.delete();
                     }
@@ -116,6 +171,10 @@ public class DependenciesDownloaderImpl implements DependenciesDownloader {
         this.flatDownload = flat;
     }
 
+    private boolean isChecksumsIndex(File file) {
+        return checksumsIndex != null && checksumsIndex.getIndexFile().getAbsoluteFile().equals(file.getAbsoluteFile());
+    }
+
     private boolean isResolvedOrParentOfResolvedFile(Set<String> resolvedFiles, final String path) {
         return CommonUtils.isAnySatisfying(resolvedFiles,
                 filePath -> (StringUtils.equals(filePath, path) || StringUtils.startsWith(filePath, path)));
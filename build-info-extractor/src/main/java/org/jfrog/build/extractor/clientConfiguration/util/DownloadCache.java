@@ -0,0 +1,252 @@
+package org.jfrog.build.extractor.clientConfiguration.util;
+
+import org.apache.commons.lang.StringUtils;
+import org.jfrog.build.api.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Content addressable cache of downloaded files, which may be shared by several workspaces and processes.
+ * The files are stored by their SHA-1 checksum under the cache directory, and materialized in the workspace by a hard
+ * link when the file system supports it, or by a copy otherwise.
+ * <p>
+ * The downloaded files are copied into the cache, and the cache entries are read-only, so that modifying a workspace
+ * file can't change the cached content. The entries are added by an atomic move, so a partially written entry is never
+ * visible. The time an entry was last used is tracked by a separate marker file, since updating the entry itself would
+ * also change the workspace files linked to it. The least recently used entries are evicted when the cache grows
+ * beyond its maximum size. The eviction is guarded by a file lock, so only one process evicts entries at a time.
+ */
+public class DownloadCache {
+    /**
+     * Default maximum size of the cache
+     */
+    public static final int DEFAULT_MAX_SIZE_MB = 10240;
+    private static final String ENTRIES_DIR = "sha1";
+    private static final String USED_MARKERS_DIR = "used";
+    private static final String TEMP_DIR = "tmp";
+    private static final String LOCK_FILE = ".lock";
+
+    private final Path cacheDir;
+    private final long maxSize;
+    private final Log log;
+    private boolean useLinks = true;
+
+    /**
+     * @param cacheDir the cache directory
+     * @param maxSize  maximum size in bytes of the cached files
+     * @param log      the logger
+     */
+    public DownloadCache(File cacheDir, long maxSize, Log log) {
+        this.cacheDir = cacheDir.toPath().toAbsolutePath();
+        this.maxSize = maxSize;
+        this.log = log;
+    }
+
+    /**
+     * Set whether cached files may be materialized by hard links. Files materialized by hard links share their content
+     * and their read-only permission with the cache entry. Otherwise, the files are copied.
+     */
+    public void setUseLinks(boolean useLinks) {
+        this.useLinks = useLinks;
+    }
+
+    /**
+     * Materialize the cached file with the given checksum at the destination path.
+     *
+     * @param sha1        the SHA-1 checksum of the file
+     * @param size        the expected file size, or a negative number if unknown
+     * @param destination the destination file, replaced if exists
+     * @return true if the file was found in the cache and materialized
+     */
+    public boolean get(String sha1, long size, File destination) throws IOException {
+        Path entry = getEntry(sha1);
+        if (entry == null || !Files.isRegularFile(entry)) {
+            return false;
+        }
+        if (size >= 0 && Files.size(entry) != size) {
+            log.debug(String.format("Ignoring the cached file '%s' of unexpected size", entry));
+            return false;
+        }
+        Path destinationPath = destination.toPath();
+        Files.createDirectories(destinationPath.toAbsolutePath().getParent());
+        Files.deleteIfExists(destinationPath);
+        try {
+            materialize(entry, destinationPath);
+        } catch (NoSuchFileException e) {
+            // Evicted by another process meanwhile
+            return false;
+        }
+        markUsed(entry);
+        return true;
+    }
+
+    /**
+     * Add a downloaded file to the cache. The file is copied, so that the cache entry doesn't change if the downloaded
+     * file is modified later. The checksum of the file must be validated by the caller.
+     *
+     * @param sha1 the SHA-1 checksum of the file
+     * @param file the downloaded file
+     */
+    public void put(String sha1, File file) throws IOException {
+        Path entry = getEntry(sha1);
+        if (entry == null || Files.isRegularFile(entry)) {
+            return;
+        }
+        Path tempDir = Files.createDirectories(cacheDir.resolve(TEMP_DIR));
+        Path tempFile = tempDir.resolve(sha1 + "." + UUID.randomUUID());
+        try {
+            Files.copy(file.toPath(), tempFile);
+            if (!tempFile.toFile().setReadOnly()) {
+                log.debug(String.format("Couldn't make the cache entry '%s' read-only", entry));
+            }
+            Files.createDirectories(entry.getParent());
+            try {
+                Files.move(tempFile, entry, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Remove the least recently used entries, until the size of the cache is below its maximum size.
+     * Skipped if another process is evicting entries of the same cache.
+     */
+    public void evict() throws IOException {
+        Path entriesDir = cacheDir.resolve(ENTRIES_DIR);
+        if (!Files.isDirectory(entriesDir)) {
+            return;
+        }
+        try (FileChannel lockChannel = new RandomAccessFile(cacheDir.resolve(LOCK_FILE).toFile(), "rw").getChannel();
+             FileLock lock = tryLock(lockChannel)) {
+            if (lock == null) {
+                log.debug("Skipping the download cache eviction, since it's done by another process");
+                return;
+            }
+            List<CacheEntry> entries = new ArrayList<>();
+            long totalSize = 0;
+            try (Stream<Path> files = Files.walk(entriesDir)) {
+                for (Path path : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                    CacheEntry cacheEntry = new CacheEntry(path, Files.size(path), getLastUsed(path));
+                    entries.add(cacheEntry);
+                    totalSize += cacheEntry.size;
+                }
+            }
+            if (totalSize <= maxSize) {
+                return;
+            }
+            entries.sort(Comparator.comparingLong(cacheEntry -> cacheEntry.lastUsed));
+            for (CacheEntry cacheEntry : entries) {
+                if (totalSize <= maxSize) {
+                    break;
+                }
+                // Files materialized by links keep their content after the entry is deleted
+                Files.deleteIfExists(cacheEntry.path);
+                Files.deleteIfExists(getUsedMarker(cacheEntry.path));
+                totalSize -= cacheEntry.size;
+            }
+            log.debug(String.format("Evicted download cache entries, the cache size is now %d bytes", totalSize));
+        }
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Locked by another thread of this process
+            return null;
+        }
+    }
+
+    private void materialize(Path entry, Path destination) throws IOException {
+        if (useLinks) {
+            try {
+                Files.createLink(destination, entry);
+                return;
+            } catch (FileAlreadyExistsException | NoSuchFileException e) {
+                throw e;
+            } catch (UnsupportedOperationException | IOException e) {
+                // Links are not supported by the file system, or between different file systems
+                log.debug(String.format("Couldn't link '%s' to '%s', copying it instead: %s", destination, entry, e.getMessage()));
+            }
+        }
+        Files.copy(entry, destination, StandardCopyOption.REPLACE_EXISTING);
+        // The copy gets the read-only permission of the entry
+        destination.toFile().setWritable(true);
+    }
+
+    /**
+     * Update the last used time of the entry, without changing the entry itself.
+     */
+    private void markUsed(Path entry) {
+        Path marker = getUsedMarker(entry);
+        try {
+            FileTime now = FileTime.fromMillis(System.currentTimeMillis());
+            try {
+                Files.setLastModifiedTime(marker, now);
+            } catch (NoSuchFileException e) {
+                Files.createDirectories(marker.getParent());
+                Files.write(marker, new byte[0]);
+            }
+        } catch (IOException e) {
+            log.debug(String.format("Couldn't mark the cache entry '%s' as used: %s", entry, e.getMessage()));
+        }
+    }
+
+    /**
+     * @return the time the entry was last used, or added if it wasn't used since
+     */
+    private long getLastUsed(Path entry) throws IOException {
+        long added = Files.getLastModifiedTime(entry).toMillis();
+        Path marker = getUsedMarker(entry);
+        if (!Files.isRegularFile(marker)) {
+            return added;
+        }
+        return Math.max(added, Files.getLastModifiedTime(marker).toMillis());
+    }
+
+    private Path getUsedMarker(Path entry) {
+        return cacheDir.resolve(USED_MARKERS_DIR).resolve(cacheDir.resolve(ENTRIES_DIR).relativize(entry));
+    }
+
+    /**
+     * @return the path of the cache entry of the given checksum, or null for an invalid checksum
+     */
+    private Path getEntry(String sha1) {
+        if (StringUtils.length(sha1) != 40 || !StringUtils.containsOnly(sha1, "0123456789abcdef")) {
+            return null;
+        }
+        return cacheDir.resolve(ENTRIES_DIR).resolve(sha1.substring(0, 2)).resolve(sha1);
+    }
+
+    private static class CacheEntry {
+        private final Path path;
+        private final long size;
+        private final long lastUsed;
+
+        private CacheEntry(Path path, long size, long lastUsed) {
+            this.path = path;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
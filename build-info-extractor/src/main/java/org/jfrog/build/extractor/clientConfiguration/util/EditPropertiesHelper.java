@@ -17,23 +17,35 @@ public class EditPropertiesHelper {
 
     private final ArtifactoryManager artifactoryManager;
     private final Log log;
+    private int searchPageSize = AqlHelperBase.DEFAULT_PAGE_SIZE;
 
     public EditPropertiesHelper(ArtifactoryManager artifactoryManager, Log log) {
         this.artifactoryManager = artifactoryManager;
         this.log = log;
     }
 
+    /**
+     * Set the number of search results to request at once.
+     */
+    public void setSearchPageSize(int searchPageSize) {
+        this.searchPageSize = searchPageSize;
+    }
+
     public boolean editProperties(Spec spec, EditPropertiesActionType editType, String props) throws IOException {
         ArtifactorySearcher searcher = new ArtifactorySearcher(artifactoryManager, log);
+        searcher.setPageSize(searchPageSize);
         // Here to mark that at least one action has been successfully made. Needed for the failNoOp flag.
         boolean propertiesSet = false;
 
         for (FileSpec file : spec.getFiles()) {
             log.debug("Editing properties using spec: \n" + file.toString());
+            // Collect all the results before editing them. The edit may change which artifacts match the spec,
+            // and shift the next pages of the search.
+            List<AqlSearchResult.SearchEntry> searchResults = searcher.searchByFileSpec(file);
             if (editType == EditPropertiesActionType.SET) {
-                propertiesSet = setPropertiesOnResults(searcher.SearchByFileSpec(file), props) || propertiesSet;
+                propertiesSet = setPropertiesOnResults(searchResults, props) || propertiesSet;
             } else {
-                propertiesSet = deletePropertiesOnResults(searcher.SearchByFileSpec(file), props) || propertiesSet;
+                propertiesSet = deletePropertiesOnResults(searchResults, props) || propertiesSet;
             }
 
         }
@@ -1,35 +1,79 @@
 package org.jfrog.build.extractor.clientConfiguration.util;
 
+import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.jfrog.build.extractor.BuildInfoExtractorUtils.createMapper;
 
 public class JsonUtils {
+    // Jackson factories, mappers and readers are thread-safe once configured, and expensive to create.
+    private static final JsonFactory SHARED_JSON_FACTORY = createJsonFactory();
+    private static final Map<JavaType, ObjectReader> READERS = new ConcurrentHashMap<>();
+
     public static String toJsonString(Object object) throws IOException {
-        JsonFactory jsonFactory = createJsonFactory();
         StringWriter writer = new StringWriter();
-        JsonGenerator jsonGenerator = jsonFactory.createJsonGenerator(writer);
+        JsonGenerator jsonGenerator = SHARED_JSON_FACTORY.createGenerator(writer);
         jsonGenerator.useDefaultPrettyPrinter();
         jsonGenerator.writeObject(object);
         return writer.getBuffer().toString();
     }
 
+    /**
+     * Serialize the input object directly to the output stream, without materializing the JSON in memory.
+     * The output stream is flushed but not closed.
+     *
+     * @param object - The object to serialize
+     * @param out    - The target stream
+     */
+    public static void writeJson(Object object, OutputStream out) throws IOException {
+        JsonGenerator jsonGenerator = SHARED_JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+        jsonGenerator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        jsonGenerator.writeObject(object);
+        jsonGenerator.close();
+    }
+
     public static JsonParser createJsonParser(InputStream in) throws IOException {
-        JsonFactory jsonFactory = createJsonFactory();
-        return jsonFactory.createParser(in);
+        return SHARED_JSON_FACTORY.createParser(in);
     }
 
     public static JsonParser createJsonParser(String content) throws IOException {
-        JsonFactory jsonFactory = createJsonFactory();
-        return jsonFactory.createParser(content);
+        return SHARED_JSON_FACTORY.createParser(content);
+    }
+
+    /**
+     * Get the mapper shared by all JFrog services. The mapper must not be reconfigured.
+     *
+     * @return the shared mapper.
+     */
+    public static ObjectMapper getSharedMapper() {
+        return (ObjectMapper) SHARED_JSON_FACTORY.getCodec();
+    }
+
+    /**
+     * Get a cached reader of the shared mapper for the input type.
+     *
+     * @param type - The type to deserialize
+     * @return the reader.
+     */
+    public static ObjectReader getReader(JavaType type) {
+        return READERS.computeIfAbsent(type, getSharedMapper()::readerFor);
+    }
+
+    public static ObjectReader getReader(Class<?> type) {
+        return getReader(getSharedMapper().constructType(type));
     }
 
     public static JsonFactory createJsonFactory() {
@@ -0,0 +1,208 @@
+package org.jfrog.build.extractor.clientConfiguration.util;
+
+import com.fasterxml.jackson.databind.JavaType;
+import org.jfrog.build.api.util.FileChecksumCalculator;
+import org.jfrog.build.api.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.jfrog.build.extractor.clientConfiguration.util.DependenciesDownloaderHelper.MD5_ALGORITHM_NAME;
+import static org.jfrog.build.extractor.clientConfiguration.util.DependenciesDownloaderHelper.SHA1_ALGORITHM_NAME;
+
+/**
+ * Persistent index of the checksums of local files, to avoid calculating the checksums of files which didn't change
+ * since the last run.
+ * A file is considered unchanged if its size, last modified time and file key (the inode on Unix) are the same as when
+ * its checksums were indexed. In verification mode, the checksums are always calculated and the index is refreshed.
+ */
+public class LocalChecksumsIndex {
+    private final File indexFile;
+    private final Log log;
+    private Map<String, Entry> entries;
+    private boolean verify;
+    private volatile boolean modified;
+
+    public LocalChecksumsIndex(File indexFile, Log log) {
+        this.indexFile = indexFile;
+        this.log = log;
+    }
+
+    public File getIndexFile() {
+        return indexFile;
+    }
+
+    /**
+     * Set verification mode, in which the checksums of local files are always calculated.
+     */
+    public void setVerify(boolean verify) {
+        this.verify = verify;
+    }
+
+    /**
+     * Get the MD5 and SHA-1 checksums of a local file, from the index if the file didn't change since it was indexed.
+     *
+     * @param file the local file
+     * @return checksums map by {@link DependenciesDownloaderHelper#MD5_ALGORITHM_NAME} and
+     * {@link DependenciesDownloaderHelper#SHA1_ALGORITHM_NAME}
+     */
+    public Map<String, String> getChecksums(File file) throws IOException {
+        String key = file.getAbsolutePath();
+        Entry current = createEntry(file);
+        Entry indexed = getEntries().get(key);
+        if (!verify && indexed != null && indexed.isSameFile(current)) {
+            Map<String, String> checksums = new HashMap<>();
+            checksums.put(MD5_ALGORITHM_NAME, indexed.getMd5());
+            checksums.put(SHA1_ALGORITHM_NAME, indexed.getSha1());
+            return checksums;
+        }
+        try {
+            Map<String, String> checksums = FileChecksumCalculator.calculateChecksums(file, MD5_ALGORITHM_NAME, SHA1_ALGORITHM_NAME);
+            put(key, current, checksums);
+            return checksums;
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(String.format("Could not find checksum algorithm: %s", e.getLocalizedMessage()), e);
+        }
+    }
+
+    /**
+     * Index the checksums of a file, which were validated after downloading it.
+     *
+     * @param file      the local file
+     * @param checksums checksums map by {@link DependenciesDownloaderHelper#MD5_ALGORITHM_NAME} and
+     *                  {@link DependenciesDownloaderHelper#SHA1_ALGORITHM_NAME}
+     */
+    public void put(File file, Map<String, String> checksums) throws IOException {
+        put(file.getAbsolutePath(), createEntry(file), checksums);
+    }
+
+    /**
+     * Write the index if it was modified.
+     */
+    public void save() throws IOException {
+        if (!modified) {
+            return;
+        }
+        Map<String, Entry> existingEntries = new HashMap<>();
+        for (Map.Entry<String, Entry> entry : getEntries().entrySet()) {
+            if (new File(entry.getKey()).isFile()) {
+                existingEntries.put(entry.getKey(), entry.getValue());
+            }
+        }
+        Path indexPath = indexFile.toPath();
+        Files.createDirectories(indexPath.toAbsolutePath().getParent());
+        Path tempFile = Files.createTempFile(indexPath.toAbsolutePath().getParent(), indexFile.getName(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                JsonUtils.writeJson(existingEntries, out);
+            }
+            try {
+                Files.move(tempFile, indexPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, indexPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            modified = false;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private void put(String key, Entry entry, Map<String, String> checksums) {
+        entry.setMd5(checksums.get(MD5_ALGORITHM_NAME));
+        entry.setSha1(checksums.get(SHA1_ALGORITHM_NAME));
+        getEntries().put(key, entry);
+        modified = true;
+    }
+
+    private synchronized Map<String, Entry> getEntries() {
+        if (entries == null) {
+            entries = new ConcurrentHashMap<>();
+            if (indexFile.isFile()) {
+                JavaType type = JsonUtils.getSharedMapper().getTypeFactory().constructMapType(HashMap.class, String.class, Entry.class);
+                try (InputStream in = Files.newInputStream(indexFile.toPath())) {
+                    Map<String, Entry> indexedEntries = JsonUtils.getReader(type).readValue(in);
+                    entries.putAll(indexedEntries);
+                } catch (IOException e) {
+                    // The index is only an optimization, the checksums are calculated again
+                    log.warn(String.format("Ignoring the unreadable checksums index '%s': %s", indexFile, e.getMessage()));
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static Entry createEntry(File file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        Entry entry = new Entry();
+        entry.setSize(attributes.size());
+        entry.setLastModified(attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+        entry.setFileKey(attributes.fileKey() != null ? attributes.fileKey().toString() : null);
+        return entry;
+    }
+
+    public static class Entry {
+        private long size;
+        private long lastModified;
+        private String fileKey;
+        private String md5;
+        private String sha1;
+
+        public long getSize() {
+            return size;
+        }
+
+        public void setSize(long size) {
+            this.size = size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public void setLastModified(long lastModified) {
+            this.lastModified = lastModified;
+        }
+
+        public String getFileKey() {
+            return fileKey;
+        }
+
+        public void setFileKey(String fileKey) {
+            this.fileKey = fileKey;
+        }
+
+        public String getMd5() {
+            return md5;
+        }
+
+        public void setMd5(String md5) {
+            this.md5 = md5;
+        }
+
+        public String getSha1() {
+            return sha1;
+        }
+
+        public void setSha1(String sha1) {
+            this.sha1 = sha1;
+        }
+
+        private boolean isSameFile(Entry other) {
+            return size == other.size && lastModified == other.lastModified && Objects.equals(fileKey, other.fileKey)
+                    && md5 != null && sha1 != null;
+        }
+    }
+}
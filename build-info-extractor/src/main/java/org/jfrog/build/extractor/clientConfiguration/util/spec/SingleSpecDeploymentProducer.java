@@ -4,16 +4,16 @@ import com.google.common.collect.Multimap;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.BooleanUtils;
 import org.apache.commons.lang.StringUtils;
+import org.jfrog.build.api.producerConsumer.ProducerConsumerItem;
 import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
 import org.jfrog.build.extractor.clientConfiguration.util.PathsUtils;
-import org.jfrog.build.extractor.producerConsumer.ProducerConsumerExecutor;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
 import java.util.regex.Pattern;
 
 /**
@@ -50,11 +50,12 @@ public class SingleSpecDeploymentProducer {
 
     /**
      * Executes a single FileSpec.
-     * Find all files matching the spec, create and publish its DeployDetails.
+     * Find all files matching the spec, create its DeployDetails and publish them for checksums calculation.
      * @param deploymentSet Set containing the DeployDetails to deploy
+     * @param hashingQueue BlockingQueue of DeployDetails waiting for checksums calculation
      */
-    public void executeSpec(Set<DeployDetails> deploymentSet, ProducerConsumerExecutor executor)
-            throws IOException, NoSuchAlgorithmException, InterruptedException {
+    public void executeSpec(Set<DeployDetails> deploymentSet, BlockingQueue<ProducerConsumerItem> hashingQueue)
+            throws IOException, InterruptedException {
         init();
         File[] filesToScan = new File(baseDir).listFiles();
         if (filesToScan == null) {
@@ -68,17 +69,17 @@ public class SingleSpecDeploymentProducer {
             }
 
             if (file.isFile()) {
-                processDeployCandidate(file, deploymentSet, executor);
+                processDeployCandidate(file, deploymentSet, hashingQueue);
                 continue;
             }
             if (isRecursive) {
-                collectFiles(file.getAbsolutePath(), -1, deploymentSet, executor);
+                collectFiles(file.getAbsolutePath(), -1, deploymentSet, hashingQueue);
                 continue;
             }
             if (!isRegexp) {
                 // In case of not recursive wildcard pattern we can stop scanning in certain depth.
                 // This depth is when the number of slashes in the path and base directory with pattern are equal.
-                collectFiles(file.getAbsolutePath(), separatorsCount, deploymentSet, executor);
+                collectFiles(file.getAbsolutePath(), separatorsCount, deploymentSet, hashingQueue);
             }
         }
     }
@@ -138,9 +139,10 @@ public class SingleSpecDeploymentProducer {
      * @param dir base directory to start search for files
      * @param depth level of folders to search in
      * @param deploymentSet Set containing the DeployDetails to deploy
+     * @param hashingQueue BlockingQueue of DeployDetails waiting for checksums calculation
      */
-    private void collectFiles(String dir, int depth, Set<DeployDetails> deploymentSet, ProducerConsumerExecutor executor)
-            throws IOException, NoSuchAlgorithmException, InterruptedException {
+    private void collectFiles(String dir, int depth, Set<DeployDetails> deploymentSet, BlockingQueue<ProducerConsumerItem> hashingQueue)
+            throws IOException, InterruptedException {
         List<String> foldersToScan = new LinkedList<>();
         foldersToScan.add(dir);
 
@@ -185,7 +187,7 @@ public class SingleSpecDeploymentProducer {
                 // File can be candidate only if it in the correct depth or if the spec is recursive (depth == -1)
                 if (depth == -1 || StringUtils.countMatches(entry.getPath(), File.separator) == depth) {
                     // Send this path for further process
-                    processDeployCandidate(entry, deploymentSet, executor);
+                    processDeployCandidate(entry, deploymentSet, hashingQueue);
                 }
             }
         }
@@ -193,12 +195,13 @@ public class SingleSpecDeploymentProducer {
 
     /**
      * Receives a candidate file to upload, creates DeployDetails for the file in case should upload it.
-     * Adds the DeployDetails to the BlockingQueue.
+     * Adds the DeployDetails to the hashing BlockingQueue. The checksums are calculated later by the hashing producers.
      * @param file upload candidate
      * @param deploymentSet Set containing the DeployDetails to deploy
+     * @param hashingQueue BlockingQueue of DeployDetails waiting for checksums calculation
      */
-    private void processDeployCandidate(File file, Set<DeployDetails> deploymentSet, ProducerConsumerExecutor executor)
-            throws IOException, NoSuchAlgorithmException, InterruptedException {
+    private void processDeployCandidate(File file, Set<DeployDetails> deploymentSet, BlockingQueue<ProducerConsumerItem> hashingQueue)
+            throws InterruptedException {
         String filePath = file.getAbsolutePath().replace("\\", "/");
 
         // Check if matches pattern
@@ -210,13 +213,13 @@ public class SingleSpecDeploymentProducer {
         String uploadPath = UploadSpecHelper.getUploadPath(file, pathPattern, targetPath, isFlat, isAbsolutePath, workspace, isTargetDirectory);
 
         // Create DeployDetails
-        DeployDetails deployDetails = UploadSpecHelper.buildDeployDetails(uploadPath, file, spec.getTarget(),
+        DeployDetails deployDetails = UploadSpecHelper.buildDeployDetailsWithoutChecksums(uploadPath, file, spec.getTarget(),
                 spec.getExplode(), spec.getProps(), buildProperties);
 
         // Add the created DeploymentDetails if artifact hasn't been added for deployment yet
         if (deploymentSet.add(deployDetails)) {
             validateUploadLimit(deploymentSet.size());
-            executor.put(deployDetails);
+            hashingQueue.put(deployDetails);
         }
     }
 
@@ -19,9 +19,19 @@ public class SpecDeploymentConsumer extends ConsumerRunnableBase {
     private ProducerConsumerExecutor executor;
     private Log log;
     private final ArtifactoryManager ArtifactoryManager;
+    private final Integer minChecksumDeploySizeKb;
 
     public SpecDeploymentConsumer(ArtifactoryManager ArtifactoryManager) {
+        this(ArtifactoryManager, null);
+    }
+
+    /**
+     * @param ArtifactoryManager      the manager to upload with
+     * @param minChecksumDeploySizeKb min file size for checksum deploy, or null for the default
+     */
+    public SpecDeploymentConsumer(ArtifactoryManager ArtifactoryManager, Integer minChecksumDeploySizeKb) {
         this.ArtifactoryManager = ArtifactoryManager;
+        this.minChecksumDeploySizeKb = minChecksumDeploySizeKb;
     }
 
     @Override
@@ -36,7 +46,7 @@ public class SpecDeploymentConsumer extends ConsumerRunnableBase {
                     break;
                 }
                 // Perform artifact deploy
-                ArtifactoryManager.upload((DeployDetails) item, "[" + Thread.currentThread().getName() + "]");
+                ArtifactoryManager.upload((DeployDetails) item, "[" + Thread.currentThread().getName() + "]", minChecksumDeploySizeKb);
             } catch (InterruptedException e) {
                 return;
             } catch (IOException e) {
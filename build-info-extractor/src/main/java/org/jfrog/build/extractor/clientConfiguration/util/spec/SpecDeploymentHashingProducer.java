@@ -0,0 +1,113 @@
+package org.jfrog.build.extractor.clientConfiguration.util.spec;
+
+import org.jfrog.build.api.producerConsumer.ProducerConsumerItem;
+import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
+import org.jfrog.build.extractor.clientConfiguration.util.ChecksumExistenceHelper;
+import org.jfrog.build.extractor.producerConsumer.ProducerRunnableBase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration.DEFAULT_MIN_CHECKSUM_DEPLOY_SIZE_KB;
+
+/**
+ * Producer object to use with the ProducerConsumerExecutor during artifact deployment by filespec operation.
+ * Takes the DeployDetails published by the {@link SpecDeploymentProducer}, calculates their checksums and publishes them
+ * to the deployment consumers. Running several hashing producers allows calculating the checksums of the next files
+ * while the previous files are being uploaded.
+ * Files which are not deployed by checksum are not hashed in advance. Their checksums are calculated during the upload,
+ * so that they are read only once.
+ * The hashed DeployDetails are published in batches, after checking in bulk which of their checksums exist in Artifactory.
+ */
+public class SpecDeploymentHashingProducer extends ProducerRunnableBase {
+
+    /**
+     * Item used to indicate that all DeployDetails were published to the hashing queue
+     */
+    static final ProducerConsumerItem TERMINATE = new HashingTerminateItem();
+
+    static final int CHECKSUMS_BATCH_SIZE = 100;
+    private static final long CHECKSUMS_BATCH_TIMEOUT_MILLIS = 200;
+
+    private BlockingQueue<ProducerConsumerItem> hashingQueue;
+    private ChecksumExistenceHelper checksumExistenceHelper;
+    private int minChecksumDeploySizeKb;
+    private List<DeployDetails> batch = new ArrayList<>();
+
+    /**
+     * @param hashingQueue            BlockingQueue of DeployDetails waiting for checksums calculation
+     * @param checksumExistenceHelper helper to check which checksums exist in Artifactory, or null to skip the check
+     * @param minChecksumDeploySizeKb min file size for checksum deploy, as passed to the upload, or null for the default
+     */
+    SpecDeploymentHashingProducer(BlockingQueue<ProducerConsumerItem> hashingQueue, ChecksumExistenceHelper checksumExistenceHelper,
+                                  Integer minChecksumDeploySizeKb) {
+        this.hashingQueue = hashingQueue;
+        this.checksumExistenceHelper = checksumExistenceHelper;
+        this.minChecksumDeploySizeKb = minChecksumDeploySizeKb != null ? minChecksumDeploySizeKb : DEFAULT_MIN_CHECKSUM_DEPLOY_SIZE_KB;
+    }
+
+    @Override
+    public void producerRun() throws InterruptedException {
+        log.debug(String.format("[Thread %s] starting run()", Thread.currentThread().getName()));
+        try {
+            while (!Thread.interrupted()) {
+                // While a batch is pending, wait for the next item only for a short time, to avoid holding the batch back
+                ProducerConsumerItem item = batch.isEmpty() ? hashingQueue.take() :
+                        hashingQueue.poll(CHECKSUMS_BATCH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (item == null) {
+                    publishBatch();
+                    continue;
+                }
+                if (item == TERMINATE) {
+                    publishBatch();
+                    // If reached the TERMINATE item, return it to the queue for the other hashing producers and exit
+                    hashingQueue.put(item);
+                    return;
+                }
+                DeployDetails deployDetails = (DeployDetails) item;
+                if (!isChecksumDeployCandidate(deployDetails)) {
+                    executor.put(deployDetails);
+                    continue;
+                }
+                UploadSpecHelper.calculateChecksums(deployDetails);
+                if (checksumExistenceHelper == null) {
+                    executor.put(deployDetails);
+                    continue;
+                }
+                batch.add(deployDetails);
+                if (batch.size() >= CHECKSUMS_BATCH_SIZE) {
+                    publishBatch();
+                }
+            }
+            // The thread was interrupted
+            throw new InterruptedException();
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            // Throw unchecked exception for the UncaughtExceptionHandler
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void publishBatch() throws InterruptedException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        checksumExistenceHelper.markExistingChecksums(batch);
+        for (DeployDetails deployDetails : batch) {
+            executor.put(deployDetails);
+        }
+        batch.clear();
+    }
+
+    /**
+     * Checksum deploy requires the checksums before the upload starts. It is skipped for small files and archives to explode.
+     */
+    private boolean isChecksumDeployCandidate(DeployDetails deployDetails) {
+        return !deployDetails.isExplode() && deployDetails.getFile().length() >= minChecksumDeploySizeKb * 1024L;
+    }
+
+    private static class HashingTerminateItem implements ProducerConsumerItem {}
+}
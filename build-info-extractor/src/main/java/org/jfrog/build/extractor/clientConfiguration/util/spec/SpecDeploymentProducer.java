@@ -1,15 +1,18 @@
 package org.jfrog.build.extractor.clientConfiguration.util.spec;
 
 import com.google.common.collect.Multimap;
+import org.jfrog.build.api.producerConsumer.ProducerConsumerItem;
 import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
 import org.jfrog.build.extractor.producerConsumer.ProducerRunnableBase;
 
 import java.io.File;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 
 /**
  * Producer object to use with the ProducerConsumerExecutor during artifact deployment by filespec operation.
+ * Walks the file-system and publishes the DeployDetails to the hashing queue, to be consumed by the {@link SpecDeploymentHashingProducer}s.
  *
  * Created by Bar Belity on 27/03/2018.
  */
@@ -23,11 +26,13 @@ public class SpecDeploymentProducer extends ProducerRunnableBase {
     private Spec spec;
     private File workspace;
     private Multimap<String, String> buildProperties;
+    private BlockingQueue<ProducerConsumerItem> hashingQueue;
 
-    SpecDeploymentProducer(Spec spec, File workspace, Multimap<String, String> buildProperties) {
+    SpecDeploymentProducer(Spec spec, File workspace, Multimap<String, String> buildProperties, BlockingQueue<ProducerConsumerItem> hashingQueue) {
         this.spec = spec;
         this.workspace = workspace;
         this.buildProperties = buildProperties;
+        this.hashingQueue = hashingQueue;
     }
 
     @Override
@@ -44,8 +49,10 @@ public class SpecDeploymentProducer extends ProducerRunnableBase {
 
                 // Execute FileSpec
                 SingleSpecDeploymentProducer fileSpecProducer = new SingleSpecDeploymentProducer(uploadFile, workspace, buildProperties);
-                fileSpecProducer.executeSpec(deployDetailsSet, executor);
+                fileSpecProducer.executeSpec(deployDetailsSet, hashingQueue);
             }
+            // Notify the hashing producers that no more DeployDetails will be published
+            hashingQueue.put(SpecDeploymentHashingProducer.TERMINATE);
         } catch (InterruptedException e) {
             throw e;
         } catch (Exception e) {
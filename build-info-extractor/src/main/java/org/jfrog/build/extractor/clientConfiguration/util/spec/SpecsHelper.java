@@ -10,10 +10,13 @@ import org.apache.commons.lang.StringUtils;
 import org.jfrog.build.api.Artifact;
 import org.jfrog.build.api.Dependency;
 import org.jfrog.build.api.builder.ArtifactBuilder;
+import org.jfrog.build.api.producerConsumer.ProducerConsumerItem;
 import org.jfrog.build.api.util.Log;
+import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryManagerBuilder;
 import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
 import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
+import org.jfrog.build.extractor.clientConfiguration.util.ChecksumExistenceHelper;
 import org.jfrog.build.extractor.clientConfiguration.util.DependenciesDownloaderHelper;
 import org.jfrog.build.extractor.clientConfiguration.util.EditPropertiesHelper;
 import org.jfrog.build.extractor.clientConfiguration.util.spec.validator.SearchBasedSpecValidator;
@@ -26,9 +29,10 @@ import org.jfrog.build.extractor.producerConsumer.ProducerRunnableBase;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import static org.jfrog.build.api.util.CommonUtils.handleJavaTmpdirProperty;
-import static org.jfrog.build.client.PreemptiveHttpClientBuilder.CONNECTION_POOL_SIZE;
 
 /**
  * Created by diman on 24/08/2016.
@@ -36,12 +40,24 @@ import static org.jfrog.build.client.PreemptiveHttpClientBuilder.CONNECTION_POOL
 public class SpecsHelper {
 
     private static final int DEFAULT_NUMBER_OF_THREADS = 3; // default number of threads for file spec uploads
+    // default number of threads for calculating the checksums of the file spec uploads
+    private static final int DEFAULT_NUMBER_OF_HASHING_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
     private final Log log;
+    private Integer minChecksumDeploySizeKb;
 
     public SpecsHelper(Log log) {
         this.log = log;
     }
 
+    /**
+     * Min file size for deploying the uploaded files by checksum.
+     *
+     * @param minChecksumDeploySizeKb Size in KB, or null to use the default.
+     */
+    public void setMinChecksumDeploySizeKb(Integer minChecksumDeploySizeKb) {
+        this.minChecksumDeploySizeKb = minChecksumDeploySizeKb;
+    }
+
     /**
      * Upload artifacts according to a given spec, return a list describing the deployed items.
      * Retains compatibility with other plugins using file specs
@@ -94,21 +110,50 @@ public class SpecsHelper {
     public List<Artifact> uploadArtifactsBySpec(String uploadSpec, int numberOfThreads, File workspace,
                                                 Multimap<String, String> buildProperties,
                                                 ArtifactoryManagerBuilder artifactoryManagerBuilder) throws Exception {
+        return uploadArtifactsBySpec(uploadSpec, numberOfThreads, DEFAULT_NUMBER_OF_HASHING_THREADS, workspace, buildProperties, artifactoryManagerBuilder);
+    }
+
+    /**
+     * Upload artifacts according to a given spec, return a list describing the deployed items.
+     * The upload is a pipeline of 3 stages: a single thread scans the file-system, the hashing threads calculate the
+     * checksums of the files and the upload threads deploy them. Each stage blocks when the next stage falls behind.
+     *
+     * @param uploadSpec                The required spec represented as String
+     * @param numberOfThreads           Number of concurrent threads to use for handling uploads
+     * @param numberOfHashingThreads    Number of concurrent threads to use for calculating the checksums of the files
+     * @param workspace                 File object that represents the workspace
+     * @param buildProperties           Upload properties
+     * @param artifactoryManagerBuilder ArtifactoryManagerBuilder which will build the ArtifactoryManager per the number of passed threads number to perform the actual upload
+     * @return Set of DeployDetails that was calculated from the given params
+     * @throws IOException Thrown if any error occurs while reading the file, calculating the
+     *                     checksums or in case of any file system exception
+     */
+    public List<Artifact> uploadArtifactsBySpec(String uploadSpec, int numberOfThreads, int numberOfHashingThreads, File workspace,
+                                                Multimap<String, String> buildProperties,
+                                                ArtifactoryManagerBuilder artifactoryManagerBuilder) throws Exception {
         Spec spec = this.getSpecFromString(uploadSpec, new UploadSpecValidator());
 
         try (ArtifactoryManager artifactoryManager = artifactoryManagerBuilder.build()) {
-            // Create producer Runnable
-            ProducerRunnableBase[] producerRunnable = new ProducerRunnableBase[]{new SpecDeploymentProducer(spec, workspace, buildProperties)};
+            // Create producer Runnables - a single file-system walker and the hashing producers
+            BlockingQueue<ProducerConsumerItem> hashingQueue = new ArrayBlockingQueue<>(numberOfHashingThreads * 2);
+            SpecDeploymentProducer deploymentProducer = new SpecDeploymentProducer(spec, workspace, buildProperties, hashingQueue);
+            ProducerRunnableBase[] producerRunnables = new ProducerRunnableBase[numberOfHashingThreads + 1];
+            producerRunnables[0] = deploymentProducer;
+            ChecksumExistenceHelper checksumExistenceHelper = new ChecksumExistenceHelper(artifactoryManager, log);
+            for (int i = 1; i <= numberOfHashingThreads; i++) {
+                producerRunnables[i] = new SpecDeploymentHashingProducer(hashingQueue, checksumExistenceHelper, minChecksumDeploySizeKb);
+            }
             // Create consumer Runnables
             ConsumerRunnableBase[] consumerRunnables = new ConsumerRunnableBase[numberOfThreads];
             for (int i = 0; i < numberOfThreads; i++) {
-                consumerRunnables[i] = new SpecDeploymentConsumer(artifactoryManager);
+                consumerRunnables[i] = new SpecDeploymentConsumer(artifactoryManager, minChecksumDeploySizeKb);
             }
             // Create the deployment executor
-            ProducerConsumerExecutor deploymentExecutor = new ProducerConsumerExecutor(log, producerRunnable, consumerRunnables, CONNECTION_POOL_SIZE);
+            ProducerConsumerExecutor deploymentExecutor = new ProducerConsumerExecutor(log, producerRunnables, consumerRunnables, artifactoryManager.getMaxTotalConnections());
 
             deploymentExecutor.start();
-            Set<DeployDetails> deployedArtifacts = ((SpecDeploymentProducer) producerRunnable[0]).getDeployedArtifacts();
+            checksumExistenceHelper.logStats();
+            Set<DeployDetails> deployedArtifacts = deploymentProducer.getDeployedArtifacts();
             return convertDeployDetailsToArtifacts(deployedArtifacts);
         }
     }
@@ -133,9 +178,45 @@ public class SpecsHelper {
      * @throws IOException in case of IOException
      */
     public List<Dependency> downloadArtifactsBySpec(String spec, ArtifactoryManager client, String targetDirectory) throws IOException {
+        return downloadArtifactsBySpec(spec, client, targetDirectory, DependenciesDownloaderHelper.DEFAULT_DOWNLOAD_THREADS);
+    }
+
+    /**
+     * Downloads Artifacts by spec and returns a list of the downloaded dependencies.
+     * The artifacts will be downloaded using the provided client.
+     * In case of relative path the artifacts will be downloaded to the targetDirectory.
+     *
+     * @param spec            the spec to use for download.
+     * @param client          the client to use for download.
+     * @param targetDirectory the target directory in case of relative path in the spec
+     * @param downloadThreads number of artifacts to download in parallel
+     * @return A list of the downloaded dependencies.
+     * @throws IOException in case of IOException
+     */
+    public List<Dependency> downloadArtifactsBySpec(String spec, ArtifactoryManager client, String targetDirectory, int downloadThreads) throws IOException {
         // During download, temp directories are created. This will make sure 'java.io.tmpdir' property is defined in Unix.
         handleJavaTmpdirProperty();
         DependenciesDownloaderHelper helper = new DependenciesDownloaderHelper(client, targetDirectory, log);
+        helper.setDownloadThreads(downloadThreads);
+        return helper.downloadDependencies(getSpecFromString(spec, new SearchBasedSpecValidator()));
+    }
+
+    /**
+     * Downloads Artifacts by spec and returns a list of the downloaded dependencies.
+     * The download threads and the concurrent download settings are taken from the resolver configuration.
+     *
+     * @param spec            the spec to use for download.
+     * @param client          the client to use for download.
+     * @param targetDirectory the target directory in case of relative path in the spec
+     * @param resolver        the resolver configuration
+     * @return A list of the downloaded dependencies.
+     * @throws IOException in case of IOException
+     */
+    public List<Dependency> downloadArtifactsBySpec(String spec, ArtifactoryManager client, String targetDirectory,
+                                                    ArtifactoryClientConfiguration.ResolverHandler resolver) throws IOException {
+        handleJavaTmpdirProperty();
+        DependenciesDownloaderHelper helper = new DependenciesDownloaderHelper(client, targetDirectory, log);
+        helper.setResolverConfiguration(resolver);
         return helper.downloadDependencies(getSpecFromString(spec, new SearchBasedSpecValidator()));
     }
 
@@ -6,7 +6,7 @@ import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.BooleanUtils;
 import org.apache.commons.lang.StringUtils;
-import org.jfrog.build.api.util.FileChecksumCalculator;
+import org.jfrog.build.api.util.ChecksumService;
 import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
 import org.jfrog.build.extractor.clientConfiguration.util.PathsUtils;
 
@@ -42,22 +42,32 @@ public class UploadSpecHelper {
                                                    String uploadTarget, String explode, String props,
                                                    Multimap<String, String> buildProperties)
             throws IOException, NoSuchAlgorithmException {
+        DeployDetails deployDetails = buildDeployDetailsWithoutChecksums(targetPath, artifactFile, uploadTarget, explode, props, buildProperties);
+        calculateChecksums(deployDetails);
+        return deployDetails;
+    }
+
+    /**
+     * Create a DeployDetails from the given properties, without calculating the checksums of the artifact file.
+     * The checksums should be later set by {@link #calculateChecksums(DeployDetails)}.
+     *
+     * @param targetPath target of the created artifact in Artifactory
+     * @param artifactFile the artifact to deploy
+     * @param uploadTarget target repository in Artifactory
+     * @param explode explode archive
+     * @param props properties to attach to the deployed file
+     * @param buildProperties a map of properties to add to the DeployDetails objects
+     */
+    static DeployDetails buildDeployDetailsWithoutChecksums(String targetPath, File artifactFile,
+                                                            String uploadTarget, String explode, String props,
+                                                            Multimap<String, String> buildProperties) {
         String path = UploadSpecHelper.wildcardCalculateTargetPath(targetPath, artifactFile);
         path = StringUtils.replace(path, "//", "/");
 
-        // calculate the sha1 checksum and add it to the deploy artifactsToDeploy
-        Map<String, String> checksums;
-        try {
-            checksums = FileChecksumCalculator.calculateChecksums(artifactFile, SHA1, MD5);
-        } catch (NoSuchAlgorithmException e) {
-            throw new NoSuchAlgorithmException(
-                    String.format("Could not find checksum algorithm for %s or %s.", SHA1, MD5), e);
-        }
         DeployDetails.Builder builder = new DeployDetails.Builder()
                 .file(artifactFile)
                 .artifactPath(path)
                 .targetRepository(getRepositoryKey(uploadTarget))
-                .md5(checksums.get(MD5)).sha1(checksums.get(SHA1))
                 .explode(BooleanUtils.toBoolean(explode))
                 .addProperties(SpecsHelper.getPropertiesMap(props))
                 .packageType(DeployDetails.PackageType.GENERIC);
@@ -68,6 +78,23 @@ public class UploadSpecHelper {
         return builder.build();
     }
 
+    /**
+     * Calculate the sha1 and md5 checksums of the artifact file and set them in the DeployDetails
+     *
+     * @param deployDetails the DeployDetails to calculate the checksums for
+     */
+    static void calculateChecksums(DeployDetails deployDetails) throws IOException, NoSuchAlgorithmException {
+        Map<String, String> checksums;
+        try {
+            checksums = ChecksumService.calculateChecksums(deployDetails.getFile(), SHA1, MD5);
+        } catch (NoSuchAlgorithmException e) {
+            throw new NoSuchAlgorithmException(
+                    String.format("Could not find checksum algorithm for %s or %s.", SHA1, MD5), e);
+        }
+        deployDetails.setSha1(checksums.get(SHA1));
+        deployDetails.setMd5(checksums.get(MD5));
+    }
+
     /**
      * Calculates the target deployment path of an artifact by it's name
      *
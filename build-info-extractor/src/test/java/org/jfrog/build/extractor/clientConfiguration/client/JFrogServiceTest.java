@@ -0,0 +1,211 @@
+package org.jfrog.build.extractor.clientConfiguration.client;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
+import org.jfrog.build.api.Build;
+import org.jfrog.build.api.builder.BuildInfoBuilder;
+import org.jfrog.build.api.builder.ModuleBuilder;
+import org.jfrog.build.api.dependency.PropertySearchResult;
+import org.jfrog.build.api.search.AqlSearchResult;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.services.Upload;
+import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
+import org.jfrog.build.extractor.clientConfiguration.util.JsonUtils;
+import org.jfrog.build.extractor.util.FakeArtifactory;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+import static org.testng.Assert.*;
+
+@Test
+public class JFrogServiceTest {
+
+    public void testJsonEntity() throws IOException {
+        Build build = new BuildInfoBuilder("build-name").number("1").started("2021-01-01T00:00:00.000+0000")
+                .addModule(new ModuleBuilder().id("module").build())
+                .build();
+        JsonEntity entity = new JsonEntity(build, "application/json");
+        assertTrue(entity.isRepeatable());
+        assertEquals(entity.getContentLength(), -1);
+
+        // Written twice, to make sure it can be retried
+        for (int i = 0; i < 2; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            entity.writeTo(out);
+            Build actual = JsonUtils.getReader(Build.class).readValue(out.toByteArray());
+            assertEquals(actual.getName(), "build-name");
+            assertEquals(actual.getModules().get(0).getId(), "module");
+        }
+        assertEquals(IOUtils.toString(entity.getContent(), StandardCharsets.UTF_8),
+                JsonUtils.getSharedMapper().writeValueAsString(build));
+    }
+
+    public void testReadErrorMessage() throws IOException {
+        String shortMessage = "{\"errors\": [{\"status\": 404, \"message\": \"Not Found\"}]}";
+        assertEquals(JFrogService.readErrorMessage(toStream(shortMessage)), shortMessage);
+
+        String exactMessage = StringUtils.repeat("a", JFrogService.MAX_ERROR_MESSAGE_LENGTH);
+        assertEquals(JFrogService.readErrorMessage(toStream(exactMessage)), exactMessage);
+
+        String longMessage = StringUtils.repeat("a", JFrogService.MAX_ERROR_MESSAGE_LENGTH * 3);
+        assertEquals(JFrogService.readErrorMessage(toStream(longMessage)), exactMessage + "... (truncated)");
+    }
+
+    public void testCachedReader() {
+        assertSame(JsonUtils.getReader(Build.class), JsonUtils.getReader(Build.class));
+    }
+
+    public void testChecksumCalculatingFileEntity() throws IOException {
+        File file = File.createTempFile("checksum", ".bin");
+        try {
+            byte[] content = StringUtils.repeat("content", 10000).getBytes(StandardCharsets.UTF_8);
+            FileUtils.writeByteArrayToFile(file, content);
+            ChecksumCalculatingFileEntity entity = new ChecksumCalculatingFileEntity(file, "binary/octet-stream");
+            assertNull(entity.getChecksums());
+
+            // Written twice, to make sure the checksums are recalculated on retries
+            for (int i = 0; i < 2; i++) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                entity.writeTo(out);
+                assertEquals(out.toByteArray(), content);
+                Map<String, String> checksums = entity.getChecksums();
+                assertEquals(checksums.get(ChecksumCalculatingFileEntity.SHA1), DigestUtils.sha1Hex(content));
+                assertEquals(checksums.get(ChecksumCalculatingFileEntity.MD5), DigestUtils.md5Hex(content));
+                assertEquals(checksums.get(ChecksumCalculatingFileEntity.SHA256), DigestUtils.sha256Hex(content));
+            }
+        } finally {
+            FileUtils.deleteQuietly(file);
+        }
+    }
+
+    public void testUploadCalculatesChecksums() throws IOException {
+        File file = File.createTempFile("upload", ".bin");
+        List<String> sha1Headers = new CopyOnWriteArrayList<>();
+        try (FakeArtifactory artifactory = new FakeArtifactory().handle("repo", exchange -> {
+            sha1Headers.add(String.valueOf(exchange.getRequestHeaders().getFirst(Upload.SHA1_HEADER_NAME)));
+            String sha1;
+            try (InputStream requestBody = exchange.getRequestBody()) {
+                sha1 = DigestUtils.sha1Hex(requestBody);
+            }
+            FakeArtifactory.respond(exchange, 201, "{\"checksums\": {\"sha1\": \"" + sha1 + "\"}}");
+        }); ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+            byte[] content = "small content".getBytes(StandardCharsets.UTF_8);
+            FileUtils.writeByteArrayToFile(file, content);
+            DeployDetails details = new DeployDetails.Builder().file(file).targetRepository("repo").artifactPath("path/file.bin").build();
+
+            artifactoryManager.upload(details);
+            // The checksums were unknown before the upload, so they were not sent as headers
+            assertEquals(sha1Headers, Collections.singletonList("null"));
+            assertEquals(details.getSha1(), DigestUtils.sha1Hex(content));
+            assertEquals(details.getMd5(), DigestUtils.md5Hex(content));
+            assertEquals(details.getSha256(), DigestUtils.sha256Hex(content));
+        } finally {
+            FileUtils.deleteQuietly(file);
+        }
+    }
+
+    public void testUploadChecksumMismatchDeletesArtifact() throws Exception {
+        File file = File.createTempFile("upload", ".bin");
+        List<String> requests = new CopyOnWriteArrayList<>();
+        try (FakeArtifactory artifactory = new FakeArtifactory().handle("repo", exchange -> {
+            requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath());
+            FakeArtifactory.readBody(exchange);
+            // Artifactory received a different content
+            FakeArtifactory.respond(exchange, 201, "{\"checksums\": {\"sha1\": \"0000\"}}");
+        }); ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+            FileUtils.writeStringToFile(file, "small content", StandardCharsets.UTF_8);
+            DeployDetails details = new DeployDetails.Builder().file(file).targetRepository("repo").artifactPath("path/file.bin").build();
+            try {
+                artifactoryManager.upload(details);
+                fail("Expected checksum mismatch");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("Checksum mismatch"), e.getMessage());
+                assertTrue(e.getMessage().contains("The deployed artifact was deleted."), e.getMessage());
+            }
+            assertEquals(requests, Arrays.asList("PUT /artifactory/repo/path/file.bin", "DELETE /artifactory/repo/path/file.bin"));
+
+            requests.clear();
+            try {
+                artifactoryManager.uploadAsync(details, null, null).get();
+                fail("Expected checksum mismatch");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause().getMessage().contains("The deployed artifact was deleted."), e.getCause().getMessage());
+            }
+            assertEquals(requests.get(requests.size() - 1), "DELETE /artifactory/repo/path/file.bin");
+        } finally {
+            FileUtils.deleteQuietly(file);
+        }
+    }
+
+    public void testStreamSearchArtifactsByAql() throws IOException {
+        List<String> queries = new CopyOnWriteArrayList<>();
+        try (FakeArtifactory artifactory = new FakeArtifactory().handleAql(aql -> {
+            queries.add(aql);
+            return "{\"results\":[" +
+                    "{\"repo\":\"repo\",\"path\":\"a\",\"name\":\"1.txt\",\"properties\":[{\"key\":\"build.name\",\"value\":\"build\"}]}," +
+                    "{\"repo\":\"repo\",\"path\":\"b\",\"name\":\"2.txt\",\"size\":10}" +
+                    "],\"range\":{\"start_pos\":0,\"end_pos\":2,\"total\":2}}";
+        }); ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+            // Queries which include properties can't be sent in pages
+            String aql = "items.find({\"repo\":\"repo\"}).include(\"name\",\"repo\",\"path\",\"property\")";
+            List<AqlSearchResult.SearchEntry> entries = new ArrayList<>();
+            assertEquals(artifactoryManager.searchArtifactsByAql(aql, 1, entries::add), 2);
+            assertEquals(queries, Collections.singletonList(aql));
+            assertEquals(entries.size(), 2);
+            assertEquals(entries.get(0).getName(), "1.txt");
+            assertEquals(entries.get(0).getBuildName(), "build");
+            assertEquals(entries.get(1).getPath(), "b");
+            assertEquals(entries.get(1).getSize(), Long.valueOf(10));
+        }
+    }
+
+    public void testStreamSearchEmptyResponse() throws IOException {
+        try (FakeArtifactory artifactory = new FakeArtifactory().handle("api/search", exchange -> {
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        }); ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+            assertEquals(artifactoryManager.searchArtifactsByAql("items.find()", entry -> fail()), 0);
+            assertEquals(artifactoryManager.searchArtifactsByPattern("repo/*", (repoUri, file) -> fail()), 0);
+            assertEquals(artifactoryManager.searchArtifactsByProperties("a=b", entry -> fail()), 0);
+        }
+    }
+
+    public void testStreamSearchArtifactsByPatternAndProperties() throws IOException {
+        // The files are returned before the repository URI
+        try (FakeArtifactory artifactory = new FakeArtifactory()
+                .respond("api/search/pattern",
+                        "{\"files\":[\"a/1.txt\",\"b/2.txt\"],\"repoUri\":\"http://host/artifactory/repo\",\"sourcePattern\":\"repo:*\"}")
+                .respond("api/search/prop",
+                        "{\"results\":[{\"uri\":\"http://host/artifactory/api/storage/repo/a/1.txt\"},{\"uri\":\"http://host/artifactory/api/storage/repo/b/2.txt\"}]}");
+             ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+            List<String> files = new ArrayList<>();
+            assertEquals(artifactoryManager.searchArtifactsByPattern("repo:*", (repoUri, file) -> files.add(repoUri + "/" + file)), 2);
+            assertEquals(files, Arrays.asList("http://host/artifactory/repo/a/1.txt", "http://host/artifactory/repo/b/2.txt"));
+
+            List<PropertySearchResult.SearchEntry> entries = new ArrayList<>();
+            assertEquals(artifactoryManager.searchArtifactsByProperties("a=b", entries::add), 2);
+            assertEquals(entries.size(), 2);
+            assertEquals(entries.get(0).getRepoPath(), "repo/a/1.txt");
+            assertEquals(entries.get(1).getRepoUri(), "http://host/artifactory/repo");
+        }
+    }
+
+    private ByteArrayInputStream toStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,73 @@
+package org.jfrog.build.extractor.clientConfiguration.util;
+
+import org.jfrog.build.api.BuildInfoFields;
+import org.jfrog.build.api.search.AqlSearchResult;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Unit tests for the filter of search results by build.
+ */
+public class AqlHelperBaseTest {
+
+    @Test
+    public void testFilterAqlSearchResultsByBuild() {
+        List<AqlSearchResult.SearchEntry> items = Arrays.asList(
+                createEntry("a-other-build", "sha-a", "other", "1"),
+                createEntry("a-build-name", "sha-a", "build", "2"),
+                createEntry("a-build", "sha-a", "build", "1"),
+                createEntry("a-build-copy", "sha-a", "build", "1"),
+                createEntry("b-build-name", "sha-b", "build", "2"),
+                createEntry("b-other-build", "sha-b", "other", "1"),
+                createEntry("c-other-build", "sha-c", "other", "1"),
+                createEntry("c-no-build", "sha-c", null, null),
+                createEntry("d-not-in-build", "sha-d", "build", "1"));
+        List<AqlSearchResult.SearchEntry> filtered = AqlHelperBase.filterAqlSearchResultsByBuild(items,
+                new HashSet<>(Arrays.asList("sha-a", "sha-b", "sha-c")), "build", "1");
+        assertEquals(getNames(filtered), Arrays.asList("a-build", "a-build-copy", "b-build-name", "c-other-build", "c-no-build"));
+    }
+
+    @Test
+    public void testFilterAqlSearchResultsByBuildWithoutChecksums() {
+        List<AqlSearchResult.SearchEntry> items = Arrays.asList(
+                createEntry("a-build-name", "sha-a", "build", "2"),
+                createEntry("a-build", "sha-a", "build", "1"),
+                createEntry("d-other-build", "sha-d", "other", "1"));
+        List<AqlSearchResult.SearchEntry> filtered = AqlHelperBase.filterAqlSearchResultsByBuild(items, null, "build", "1");
+        assertEquals(getNames(filtered), Arrays.asList("a-build", "d-other-build"));
+    }
+
+    private static AqlSearchResult.SearchEntry createEntry(String name, String sha1, String buildName, String buildNumber) {
+        AqlSearchResult.SearchEntry entry = new AqlSearchResult.SearchEntry();
+        entry.setName(name);
+        entry.setActualSha1(sha1);
+        List<AqlSearchResult.Property> properties = new ArrayList<>();
+        if (buildName != null) {
+            properties.add(createProperty(BuildInfoFields.BUILD_NAME, buildName));
+            properties.add(createProperty(BuildInfoFields.BUILD_NUMBER, buildNumber));
+        }
+        entry.setProperties(properties);
+        return entry;
+    }
+
+    private static AqlSearchResult.Property createProperty(String key, String value) {
+        AqlSearchResult.Property property = new AqlSearchResult.Property();
+        property.setKey(key);
+        property.setValue(value);
+        return property;
+    }
+
+    private static List<String> getNames(List<AqlSearchResult.SearchEntry> entries) {
+        List<String> names = new ArrayList<>();
+        for (AqlSearchResult.SearchEntry entry : entries) {
+            names.add(entry.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,131 @@
+package org.jfrog.build.extractor.clientConfiguration.util;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringUtils;
+import org.jfrog.build.api.util.NullLog;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
+import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
+import org.jfrog.build.extractor.util.FakeArtifactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+@Test
+public class ChecksumExistenceHelperTest {
+    private static final Pattern SHA1_PATTERN = Pattern.compile("\"actual_sha1\":\"([0-9a-f]+)\"");
+    private static final String EXISTING_REPO = "repo";
+    private final Set<String> existingChecksums = ConcurrentHashMap.newKeySet();
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+    private FakeArtifactory artifactory;
+    private File workspace;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        workspace = Files.createTempDirectory("checksum-existence").toFile();
+        artifactory = new FakeArtifactory().handleAql(aql -> {
+            queries.add(aql);
+            List<String> results = new ArrayList<>();
+            Matcher matcher = SHA1_PATTERN.matcher(aql);
+            // The checksums exist only in one repository
+            while (matcher.find() && aql.startsWith("items.find({\"repo\":\"" + EXISTING_REPO + "\",")) {
+                if (existingChecksums.contains(matcher.group(1))) {
+                    results.add("{\"repo\":\"" + EXISTING_REPO + "\",\"path\":\".\",\"name\":\"file\",\"actual_sha1\":\"" + matcher.group(1) + "\"}");
+                }
+            }
+            return "{\"results\":[" + StringUtils.join(results, ",") + "]}";
+        });
+    }
+
+    @AfterClass
+    public void tearDown() throws IOException {
+        artifactory.close();
+        FileUtils.deleteDirectory(workspace);
+    }
+
+    public void testMarkExistingChecksums() throws IOException {
+        queries.clear();
+        List<DeployDetails> deployDetails = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            deployDetails.add(createDeployDetails("file" + i, "content" + i, i % 2 == 0));
+        }
+        // Same content as file0, so the same checksum is queried only once
+        deployDetails.add(createDeployDetails("copy0", "content0", false));
+        // Same content as file0, deployed to a repository which doesn't contain it
+        DeployDetails otherRepo = new DeployDetails.Builder().file(deployDetails.get(0).getFile())
+                .targetRepository("other-repo").artifactPath("file0").sha1(deployDetails.get(0).getSha1()).build();
+        deployDetails.add(otherRepo);
+        // No checksums calculated
+        DeployDetails noChecksums = new DeployDetails.Builder().file(deployDetails.get(0).getFile())
+                .targetRepository("repo").artifactPath("no-checksums").build();
+        deployDetails.add(noChecksums);
+
+        try (ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+            ChecksumExistenceHelper helper = new ChecksumExistenceHelper(artifactoryManager, new NullLog(), 2);
+            helper.markExistingChecksums(deployDetails);
+
+            // 5 distinct checksums in the first repository, 2 per query, and one query of the other repository
+            assertEquals(queries.size(), 4);
+            for (int i = 0; i < 5; i++) {
+                assertEquals(deployDetails.get(i).getChecksumExists(), Boolean.valueOf(i % 2 == 0));
+            }
+            assertEquals(deployDetails.get(5).getChecksumExists(), Boolean.TRUE);
+            assertEquals(otherRepo.getChecksumExists(), Boolean.FALSE);
+            assertNull(noChecksums.getChecksumExists());
+            assertEquals(helper.getProbedArtifacts(), 7);
+            assertEquals(helper.getExistingArtifacts(), 4);
+            assertEquals(helper.getExistingBytes(), 4 * "content0".length());
+
+            // Already checked artifacts are not queried again
+            helper.markExistingChecksums(deployDetails);
+            assertEquals(queries.size(), 4);
+        }
+    }
+
+    public void testQueryFailure() throws IOException {
+        List<DeployDetails> deployDetails = new ArrayList<>();
+        deployDetails.add(createDeployDetails("failure", "failure", true));
+        try (ArtifactoryManager artifactoryManager = new ArtifactoryManager(artifactory.getUrl() + "/missing", new NullLog())) {
+            ChecksumExistenceHelper helper = new ChecksumExistenceHelper(artifactoryManager, new NullLog());
+            helper.markExistingChecksums(deployDetails);
+            // Unknown, so checksum deploy is still attempted
+            assertNull(deployDetails.get(0).getChecksumExists());
+            assertEquals(helper.getProbedArtifacts(), 0);
+        }
+    }
+
+    public void testBuildAql() {
+        List<String> checksums = new ArrayList<>();
+        checksums.add("a1");
+        checksums.add("b2");
+        assertEquals(ChecksumExistenceHelper.buildAql("repo", checksums),
+                "items.find({\"repo\":\"repo\",\"$or\":[{\"actual_sha1\":\"a1\"},{\"actual_sha1\":\"b2\"}]})" +
+                        ".include(\"name\",\"repo\",\"path\",\"actual_sha1\")");
+    }
+
+    private DeployDetails createDeployDetails(String name, String content, boolean exists) throws IOException {
+        File file = new File(workspace, name);
+        FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+        String sha1 = DigestUtils.sha1Hex(content);
+        if (exists) {
+            existingChecksums.add(sha1);
+        }
+        return new DeployDetails.Builder().file(file).targetRepository(EXISTING_REPO).artifactPath(name)
+                .sha1(sha1).md5(DigestUtils.md5Hex(content)).build();
+    }
+}
@@ -0,0 +1,492 @@
+package org.jfrog.build.extractor.clientConfiguration.util;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.jfrog.build.api.Dependency;
+import org.jfrog.build.api.dependency.DownloadableArtifact;
+import org.jfrog.build.api.dependency.pattern.PatternType;
+import org.jfrog.build.api.util.NullLog;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
+import org.jfrog.build.extractor.clientConfiguration.util.spec.Spec;
+import org.jfrog.build.extractor.clientConfiguration.util.spec.SpecsHelper;
+import org.jfrog.build.extractor.clientConfiguration.util.spec.validator.SearchBasedSpecValidator;
+import org.jfrog.build.extractor.util.FakeArtifactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.jfrog.build.extractor.clientConfiguration.client.artifactory.services.Upload.MD5_HEADER_NAME;
+import static org.jfrog.build.extractor.clientConfiguration.client.artifactory.services.Upload.SHA1_HEADER_NAME;
+import static org.testng.Assert.*;
+
+@Test
+public class DependenciesDownloaderHelperTest {
+    private static final byte[] CONTENT = "artifact content".getBytes(StandardCharsets.UTF_8);
+    private static final String REPO_PATH = "/artifactory/repo/";
+    private static final String LARGE_FILE = "dir/large.bin";
+    private static final byte[] LARGE_CONTENT = new byte[DependenciesDownloaderHelper.MIN_SIZE_FOR_CONCURRENT_DOWNLOAD + 1001];
+
+    private static final String ZIP_FILE = "dir/archive.zip";
+    private static final String TGZ_FILE = "dir/archive.tgz";
+    private static final String OTHER_ZIP_FILE = "other/archive.zip";
+    private static final int SEARCH_RESULTS = 5;
+    private static final Pattern AQL_PAGE = Pattern.compile("\\.offset\\((\\d+)\\)\\.limit\\((\\d+)\\)$");
+    private static final byte[] ZIP_CONTENT;
+    private static final byte[] OTHER_ZIP_CONTENT;
+    private static final byte[] TGZ_CONTENT;
+
+    static {
+        new Random(0).nextBytes(LARGE_CONTENT);
+        try {
+            ByteArrayOutputStream zip = new ByteArrayOutputStream();
+            try (ZipOutputStream zipOutputStream = new ZipOutputStream(zip)) {
+                zipOutputStream.putNextEntry(new ZipEntry("zip/a.txt"));
+                zipOutputStream.write("zip a".getBytes(StandardCharsets.UTF_8));
+                zipOutputStream.putNextEntry(new ZipEntry("../zip/b.txt"));
+                zipOutputStream.write("zip b".getBytes(StandardCharsets.UTF_8));
+            }
+            ZIP_CONTENT = zip.toByteArray();
+            ByteArrayOutputStream otherZip = new ByteArrayOutputStream();
+            try (ZipOutputStream zipOutputStream = new ZipOutputStream(otherZip)) {
+                zipOutputStream.putNextEntry(new ZipEntry("other/a.txt"));
+                zipOutputStream.write("other a".getBytes(StandardCharsets.UTF_8));
+            }
+            OTHER_ZIP_CONTENT = otherZip.toByteArray();
+            ByteArrayOutputStream tgz = new ByteArrayOutputStream();
+            try (TarArchiveOutputStream tarOutputStream = new TarArchiveOutputStream(new GzipCompressorOutputStream(tgz))) {
+                byte[] content = "tgz a".getBytes(StandardCharsets.UTF_8);
+                TarArchiveEntry entry = new TarArchiveEntry("tgz/a.txt");
+                entry.setSize(content.length);
+                tarOutputStream.putArchiveEntry(entry);
+                tarOutputStream.write(content);
+                tarOutputStream.closeArchiveEntry();
+            }
+            TGZ_CONTENT = tgz.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    private final AtomicInteger headRequests = new AtomicInteger();
+    private final AtomicInteger getRequests = new AtomicInteger();
+    private final AtomicInteger rangeRequests = new AtomicInteger();
+    private final AtomicInteger truncatedRangeRequests = new AtomicInteger();
+    private final List<String> aqlQueries = new CopyOnWriteArrayList<>();
+    private FakeArtifactory artifactory;
+    private File workspace;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        artifactory = new FakeArtifactory();
+        artifactory.handle("repo/", exchange -> {
+            byte[] content = getContent(exchange.getRequestURI().getPath().substring(REPO_PATH.length()));
+            exchange.getResponseHeaders().add(SHA1_HEADER_NAME, DigestUtils.sha1Hex(content));
+            exchange.getResponseHeaders().add(MD5_HEADER_NAME, DigestUtils.md5Hex(content));
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                headRequests.incrementAndGet();
+                exchange.getResponseHeaders().add("Content-Length", String.valueOf(content.length));
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+                return;
+            }
+            getRequests.incrementAndGet();
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            int start = 0;
+            int end = content.length - 1;
+            if (range != null) {
+                rangeRequests.incrementAndGet();
+                String[] bounds = range.substring("bytes=".length()).split("-");
+                start = Integer.parseInt(bounds[0]);
+                end = Integer.parseInt(bounds[1]);
+            }
+            exchange.sendResponseHeaders(range != null ? 206 : 200, end - start + 1);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                if (range != null && truncatedRangeRequests.getAndDecrement() > 0) {
+                    // Break the connection in the middle of the range
+                    responseBody.write(content, start, (end - start + 1) / 2);
+                    responseBody.flush();
+                    return;
+                }
+                responseBody.write(content, start, end - start + 1);
+            }
+        });
+        artifactory.handleAql(aql -> {
+            aqlQueries.add(aql);
+            int offset = 0;
+            int limit = SEARCH_RESULTS;
+            Matcher page = AQL_PAGE.matcher(aql);
+            if (page.find()) {
+                offset = Integer.parseInt(page.group(1));
+                limit = Integer.parseInt(page.group(2));
+            }
+            StringBuilder results = new StringBuilder("{\"results\":[");
+            for (int i = offset; i < Math.min(offset + limit, SEARCH_RESULTS); i++) {
+                byte[] content = getContent("paged/file" + i + ".txt");
+                results.append(i > offset ? "," : "")
+                        .append("{\"repo\":\"repo\",\"path\":\"paged\",\"name\":\"file").append(i).append(".txt\",")
+                        .append("\"type\":\"file\",\"size\":").append(content.length).append(",")
+                        .append("\"actual_sha1\":\"").append(DigestUtils.sha1Hex(content)).append("\",")
+                        .append("\"actual_md5\":\"").append(DigestUtils.md5Hex(content)).append("\"}");
+            }
+            results.append("],\"range\":{\"start_pos\":").append(offset).append("}}");
+            return results.toString();
+        });
+        artifactory.handle("api/search/pattern", exchange -> {
+            StringBuilder files = new StringBuilder();
+            for (int i = 0; i < SEARCH_RESULTS; i++) {
+                files.append(i > 0 ? "," : "").append("\"paged/file").append(i).append(".txt\"");
+            }
+            FakeArtifactory.respond(exchange, 200, "{\"repoUri\":\"repo\",\"sourcePattern\":\"repo:paged/*\",\"files\":[" + files + "]}");
+        });
+    }
+
+    @AfterClass
+    public void tearDown() {
+        artifactory.close();
+    }
+
+    @BeforeMethod
+    public void createWorkspace() throws IOException {
+        headRequests.set(0);
+        getRequests.set(0);
+        rangeRequests.set(0);
+        truncatedRangeRequests.set(0);
+        aqlQueries.clear();
+        workspace = Files.createTempDirectory("dependencies-downloader").toFile();
+    }
+
+    @AfterMethod
+    public void deleteWorkspace() throws IOException {
+        FileUtils.deleteDirectory(workspace);
+    }
+
+    public void testDownloadWithSearchMetadata() throws IOException {
+        DownloadableArtifact artifact = createDownloadableArtifact();
+        artifact.setSha1(DigestUtils.sha1Hex(CONTENT));
+        artifact.setMd5(DigestUtils.md5Hex(CONTENT));
+        artifact.setSize((long) CONTENT.length);
+
+        assertEquals(download(artifact).get(0).getSha1(), DigestUtils.sha1Hex(CONTENT));
+        assertEquals(headRequests.get(), 0);
+        assertEquals(getRequests.get(), 1);
+
+        // The file exists locally, so it's not downloaded again
+        download(artifact);
+        assertEquals(headRequests.get(), 0);
+        assertEquals(getRequests.get(), 1);
+    }
+
+    public void testDownloadWithChecksumsIndex() throws IOException {
+        DownloadableArtifact artifact = createDownloadableArtifact();
+        File indexFile = new File(workspace, "index/checksums.json");
+        try (ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+            DependenciesDownloaderImpl downloader = new DependenciesDownloaderImpl(artifactoryManager, workspace.getPath(), new NullLog());
+            downloader.setChecksumsIndexFile(indexFile);
+            new DependenciesDownloaderHelper(downloader, new NullLog()).downloadDependencies(Collections.singleton(artifact));
+        }
+        assertTrue(FileUtils.readFileToString(indexFile, StandardCharsets.UTF_8).contains(DigestUtils.sha1Hex(CONTENT)));
+
+        // Without an index file, nothing but the downloaded files is written to the working directory
+        FileUtils.deleteDirectory(indexFile.getParentFile());
+        download(artifact);
+        assertEquals(workspace.list(), new String[]{"target"});
+    }
+
+    public void testDownloadWithoutSearchMetadata() throws IOException {
+        DownloadableArtifact artifact = createDownloadableArtifact();
+        assertEquals(download(artifact).get(0).getMd5(), DigestUtils.md5Hex(CONTENT));
+        assertEquals(headRequests.get(), 1);
+        assertEquals(getRequests.get(), 1);
+    }
+
+    public void testParallelDownload() throws IOException {
+        Set<DownloadableArtifact> artifacts = new LinkedHashSet<>();
+        for (int i = 0; i < 30; i++) {
+            artifacts.add(new DownloadableArtifact("repo", "target/", "dir" + (i % 3) + "/file" + i + ".txt", "", "", PatternType.NORMAL));
+        }
+        try (ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+            DependenciesDownloaderHelper helper = new DependenciesDownloaderHelper(artifactoryManager, workspace.getPath(), new NullLog());
+            helper.setDownloadThreads(4);
+            List<Dependency> dependencies = helper.downloadDependencies(artifacts);
+
+            // The dependencies are in the order of the artifacts
+            assertEquals(dependencies.size(), artifacts.size());
+            int i = 0;
+            for (DownloadableArtifact artifact : artifacts) {
+                byte[] content = getContent(artifact.getFilePath());
+                assertEquals(dependencies.get(i++).getSha1(), DigestUtils.sha1Hex(content));
+                assertEquals(FileUtils.readFileToByteArray(new File(workspace, "target/" + artifact.getFilePath())), content);
+            }
+        }
+        assertEquals(getRequests.get(), 30);
+    }
+
+    public void testConcurrentDownload() throws IOException {
+        byte[] content = getContent(LARGE_FILE);
+        downloadConcurrently(1024 * 1024, 0);
+        assertEquals(FileUtils.readFileToByteArray(new File(workspace, "target/" + LARGE_FILE)), content);
+        // 5 MB in chunks of at least 1 MB
+        assertTrue(rangeRequests.get() >= 2 && rangeRequests.get() <= 6, "Unexpected range requests: " + rangeRequests.get());
+    }
+
+    public void testConcurrentDownloadRetriesChunk() throws IOException {
+        truncatedRangeRequests.set(1);
+        byte[] content = getContent(LARGE_FILE);
+        downloadConcurrently(1024 * 1024, 1);
+        assertEquals(FileUtils.readFileToByteArray(new File(workspace, "target/" + LARGE_FILE)), content);
+        // Only the truncated chunk was downloaded again
+        assertTrue(rangeRequests.get() >= 3 && rangeRequests.get() <= 7, "Unexpected range requests: " + rangeRequests.get());
+    }
+
+    public void testConcurrentDownloadFailedChunk() {
+        truncatedRangeRequests.set(Integer.MAX_VALUE);
+        assertThrows(IOException.class, () -> downloadConcurrently(1024 * 1024, 1));
+        // The partially downloaded file is deleted
+        assertFalse(new File(workspace, "target/" + LARGE_FILE).exists());
+    }
+
+    public void testConcurrentDownloadChunks() {
+        ConcurrentRangeDownloader rangeDownloader = new ConcurrentRangeDownloader(null, new NullLog(), 8, 1024, 3);
+        assertEquals(rangeDownloader.getThreadsCount(100), 1);
+        assertEquals(rangeDownloader.getThreadsCount(1024 * 3 + 1), 4);
+        assertEquals(rangeDownloader.getThreadsCount(1024 * 1024), 8);
+
+        // A chunk should take about a second to download
+        assertEquals(rangeDownloader.getNextChunkSize(4096, 500_000_000L), 8192);
+        assertEquals(rangeDownloader.getNextChunkSize(4096, 4_000_000_000L), 1024);
+        assertEquals(rangeDownloader.getNextChunkSize(ConcurrentRangeDownloader.MAX_CHUNK_SIZE, 100_000_000L), ConcurrentRangeDownloader.MAX_CHUNK_SIZE);
+    }
+
+    private void downloadConcurrently(long chunkSize, int chunkRetries) throws IOException {
+        DownloadableArtifact artifact = new DownloadableArtifact("repo", "target/", LARGE_FILE, "", "", PatternType.NORMAL);
+        byte[] content = getContent(LARGE_FILE);
+        artifact.setSha1(DigestUtils.sha1Hex(content));
+        artifact.setMd5(DigestUtils.md5Hex(content));
+        artifact.setSize((long) content.length);
+        try (ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+            DependenciesDownloaderHelper helper = new DependenciesDownloaderHelper(artifactoryManager, workspace.getPath(), new NullLog());
+            helper.setConcurrentDownloadChunkSize(chunkSize);
+            helper.setConcurrentDownloadChunkRetries(chunkRetries);
+            List<Dependency> dependencies = helper.downloadDependencies(Collections.singleton(artifact));
+            assertEquals(dependencies.get(0).getSha1(), DigestUtils.sha1Hex(content));
+        }
+    }
+
+    public void testDownloadCache() throws IOException {
+        File cacheDir = new File(workspace, "cache");
+        DownloadableArtifact artifact = createDownloadableArtifact();
+        artifact.setSha1(DigestUtils.sha1Hex(CONTENT));
+        artifact.setMd5(DigestUtils.md5Hex(CONTENT));
+        artifact.setSize((long) CONTENT.length);
+        try (ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+            // Download to two different target directories
+            for (String target : new String[]{"first/", "second/"}) {
+                artifact.setTargetDirPath(target);
+                DependenciesDownloaderHelper helper = new DependenciesDownloaderHelper(artifactoryManager, workspace.getPath(), new NullLog());
+                helper.setDownloadCache(new DownloadCache(cacheDir, 1024 * 1024, new NullLog()));
+                List<Dependency> dependencies = helper.downloadDependencies(Collections.singleton(artifact));
+                assertEquals(dependencies.get(0).getSha1(), DigestUtils.sha1Hex(CONTENT));
+                assertEquals(FileUtils.readFileToByteArray(new File(workspace, target + "dir/file.txt")), CONTENT);
+            }
+        }
+        // The second target was populated from the cache
+        assertEquals(getRequests.get(), 1);
+    }
+
+    public void testExplodeWhileDownloading() throws IOException {
+        Set<DownloadableArtifact> artifacts = new LinkedHashSet<>();
+        for (String archive : new String[]{ZIP_FILE, TGZ_FILE}) {
+            DownloadableArtifact artifact = new DownloadableArtifact("repo", "target/", archive, "", "", PatternType.NORMAL);
+            artifact.setExplode(true);
+            artifacts.add(artifact);
+        }
+        try (ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+            DependenciesDownloaderHelper helper = new DependenciesDownloaderHelper(artifactoryManager, workspace.getPath(), new NullLog());
+            List<Dependency> dependencies = helper.downloadDependencies(artifacts);
+            assertEquals(dependencies.get(0).getSha1(), DigestUtils.sha1Hex(ZIP_CONTENT));
+            assertEquals(dependencies.get(1).getSha1(), DigestUtils.sha1Hex(TGZ_CONTENT));
+        }
+        File targetDir = new File(workspace, "target/dir");
+        assertEquals(FileUtils.readFileToString(new File(targetDir, "zip/a.txt"), StandardCharsets.UTF_8), "zip a");
+        assertEquals(FileUtils.readFileToString(new File(targetDir, "zip/b.txt"), StandardCharsets.UTF_8), "zip b");
+        assertEquals(FileUtils.readFileToString(new File(targetDir, "tgz/a.txt"), StandardCharsets.UTF_8), "tgz a");
+        // Neither the archives nor the extraction directories are left
+        assertEquals(targetDir.list().length, 2);
+        assertEquals(getRequests.get(), 2);
+    }
+
+    public void testExplodeArchivesWithSameDestination() throws IOException {
+        Set<DownloadableArtifact> artifacts = new LinkedHashSet<>();
+        for (String archive : new String[]{ZIP_FILE, OTHER_ZIP_FILE}) {
+            DownloadableArtifact artifact = new DownloadableArtifact("repo", "target/", archive, "", "", PatternType.NORMAL);
+            // Both archives are downloaded to target/archive.zip, one after the other
+            artifact.setRelativeDirPath("archive.zip");
+            artifact.setExplode(true);
+            artifacts.add(artifact);
+        }
+        try (ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+            DependenciesDownloaderHelper helper = new DependenciesDownloaderHelper(artifactoryManager, workspace.getPath(), new NullLog());
+            helper.setDownloadThreads(4);
+            assertEquals(helper.downloadDependencies(artifacts).size(), 2);
+        }
+        File targetDir = new File(workspace, "target");
+        assertEquals(FileUtils.readFileToString(new File(targetDir, "zip/a.txt"), StandardCharsets.UTF_8), "zip a");
+        assertEquals(FileUtils.readFileToString(new File(targetDir, "other/a.txt"), StandardCharsets.UTF_8), "other a");
+        // Neither the archive nor the extraction directories are left
+        assertEquals(targetDir.list().length, 2);
+    }
+
+    public void testExplodeWithWrongChecksum() {
+        for (String archive : new String[]{TGZ_FILE, ZIP_FILE}) {
+            DownloadableArtifact artifact = new DownloadableArtifact("repo", "target/", archive, "", "", PatternType.NORMAL);
+            artifact.setExplode(true);
+            artifact.setSha1(DigestUtils.sha1Hex("other"));
+            artifact.setMd5(DigestUtils.md5Hex(getContent(archive)));
+            artifact.setSize((long) getContent(archive).length);
+            assertThrows(IOException.class, () -> {
+                try (ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+                    new DependenciesDownloaderHelper(artifactoryManager, workspace.getPath(), new NullLog()).downloadDependencies(Collections.singleton(artifact));
+                }
+            });
+        }
+        // Nothing is extracted from an invalid archive. The streamed archive isn't written to the disk at all.
+        assertEquals(new File(workspace, "target/dir").list(), new String[]{"archive.zip"});
+    }
+
+    public void testDownloadBySpecInPages() throws IOException {
+        Spec spec = new SpecsHelper(new NullLog()).getSpecFromString(
+                "{\"files\": [{\"pattern\": \"repo/paged/*\", \"target\": \"target/\"}]}", new SearchBasedSpecValidator());
+        try (ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+            DependenciesDownloaderHelper helper = new DependenciesDownloaderHelper(artifactoryManager, workspace.getPath(), new NullLog());
+            helper.setSearchPageSize(2);
+            List<Dependency> dependencies = helper.downloadDependencies(spec);
+
+            // The dependencies are in the order of the search results
+            assertEquals(dependencies.size(), SEARCH_RESULTS);
+            for (int i = 0; i < SEARCH_RESULTS; i++) {
+                byte[] content = getContent("paged/file" + i + ".txt");
+                assertEquals(dependencies.get(i).getSha1(), DigestUtils.sha1Hex(content));
+                assertEquals(FileUtils.readFileToByteArray(new File(workspace, "target/paged/file" + i + ".txt")), content);
+            }
+        }
+        // 3 pages of sorted results, without properties
+        assertEquals(aqlQueries.size(), 3);
+        for (String aql : aqlQueries) {
+            assertTrue(aql.contains(".sort({\"$asc\":[\"repo\",\"path\",\"name\"]})"), aql);
+            assertFalse(aql.contains("\"property\""), aql);
+        }
+        assertTrue(aqlQueries.get(2).endsWith(".offset(4).limit(2)"), aqlQueries.get(2));
+        // The metadata of the search results was used
+        assertEquals(headRequests.get(), 0);
+        assertEquals(getRequests.get(), SEARCH_RESULTS);
+    }
+
+    public void testDownloadByPatternWhileSearching() throws IOException, InterruptedException {
+        try (ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+            DependenciesDownloader downloader = new DependenciesDownloaderImpl(artifactoryManager, workspace.getPath(), new NullLog());
+            AntPatternsDependenciesHelper helper = new AntPatternsDependenciesHelper(downloader, new NullLog());
+            List<Dependency> dependencies = helper.retrievePublishedDependencies("repo:paged/*=>target");
+
+            // The dependencies are in the order of the search results
+            assertEquals(dependencies.size(), SEARCH_RESULTS);
+            for (int i = 0; i < SEARCH_RESULTS; i++) {
+                byte[] content = getContent("paged/file" + i + ".txt");
+                assertEquals(dependencies.get(i).getSha1(), DigestUtils.sha1Hex(content));
+                // The path of the pattern isn't kept in the target
+                assertEquals(FileUtils.readFileToByteArray(new File(workspace, "target/file" + i + ".txt")), content);
+            }
+        }
+    }
+
+    public void testDownloadByOverlappingPatterns() throws IOException, InterruptedException {
+        try (ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+            DependenciesDownloader downloader = new DependenciesDownloaderImpl(artifactoryManager, workspace.getPath(), new NullLog());
+            AntPatternsDependenciesHelper helper = new AntPatternsDependenciesHelper(downloader, new NullLog());
+            List<Dependency> dependencies = helper.retrievePublishedDependencies("repo:paged/*=>target\nrepo:paged/*=>target");
+
+            // The artifacts found by both patterns are downloaded once
+            assertEquals(dependencies.size(), SEARCH_RESULTS);
+            assertEquals(getRequests.get(), SEARCH_RESULTS);
+            for (int i = 0; i < SEARCH_RESULTS; i++) {
+                assertEquals(FileUtils.readFileToByteArray(new File(workspace, "target/file" + i + ".txt")),
+                        getContent("paged/file" + i + ".txt"));
+            }
+        }
+    }
+
+    public void testDownloadSearchFailure() {
+        DependenciesDownloaderHelper helper = new DependenciesDownloaderHelper(
+                new DependenciesDownloaderImpl(null, workspace.getPath(), new NullLog()), new NullLog());
+        IOException e = expectThrows(IOException.class, () -> helper.downloadDependencies(consumer -> {
+            throw new IOException("search failed");
+        }));
+        assertEquals(e.getMessage(), "search failed");
+    }
+
+    public void testGetArtifactMetaData() {
+        DownloadableArtifact artifact = createDownloadableArtifact();
+        artifact.setSha1("sha1");
+        artifact.setMd5("md5");
+        // No size
+        assertNull(DependenciesDownloaderHelper.getArtifactMetaData(artifact));
+
+        artifact.setSize(10L);
+        DependenciesDownloaderHelper.ArtifactMetaData metaData = DependenciesDownloaderHelper.getArtifactMetaData(artifact);
+        assertEquals(metaData.getSha1(), "sha1");
+        assertEquals(metaData.getMd5(), "md5");
+        assertEquals(metaData.getSize(), 10L);
+    }
+
+    private static byte[] getContent(String path) {
+        if (path.equals(LARGE_FILE)) {
+            return LARGE_CONTENT;
+        }
+        if (path.equals(ZIP_FILE)) {
+            return ZIP_CONTENT;
+        }
+        if (path.equals(TGZ_FILE)) {
+            return TGZ_CONTENT;
+        }
+        if (path.equals(OTHER_ZIP_FILE)) {
+            return OTHER_ZIP_CONTENT;
+        }
+        return path.equals("dir/file.txt") ? CONTENT : ("content of " + path).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private DownloadableArtifact createDownloadableArtifact() {
+        return new DownloadableArtifact("repo", "target/", "dir/file.txt", "", "", PatternType.NORMAL);
+    }
+
+    private List<Dependency> download(DownloadableArtifact artifact) throws IOException {
+        try (ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+            DependenciesDownloaderHelper helper = new DependenciesDownloaderHelper(artifactoryManager, workspace.getPath(), new NullLog());
+            List<Dependency> dependencies = helper.downloadDependencies(Collections.singleton(artifact));
+            assertEquals(dependencies.size(), 1);
+            assertEquals(FileUtils.readFileToByteArray(new File(workspace, "target/dir/file.txt")), CONTENT);
+            return dependencies;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.jfrog.build.extractor.clientConfiguration.util;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.jfrog.build.api.util.NullLog;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermission;
+
+import static org.testng.Assert.*;
+
+@Test
+public class DownloadCacheTest {
+    private File workspace;
+    private File cacheDir;
+
+    @BeforeMethod
+    public void createWorkspace() throws IOException {
+        workspace = Files.createTempDirectory("download-cache").toFile();
+        cacheDir = new File(workspace, "cache");
+    }
+
+    @AfterMethod
+    public void deleteWorkspace() throws IOException {
+        FileUtils.deleteDirectory(workspace);
+    }
+
+    public void testPutAndGet() throws IOException {
+        DownloadCache cache = new DownloadCache(cacheDir, 1024, new NullLog());
+        String sha1 = writeAndPut(cache, "file", "content");
+
+        File destination = new File(workspace, "target/dir/file");
+        assertTrue(cache.get(sha1, 7, destination));
+        assertEquals(FileUtils.readFileToString(destination, StandardCharsets.UTF_8), "content");
+
+        // Unexpected size, unknown and invalid checksums
+        assertFalse(cache.get(sha1, 8, new File(workspace, "other")));
+        assertFalse(cache.get(DigestUtils.sha1Hex("other"), -1, new File(workspace, "other")));
+        assertFalse(cache.get("../../file", -1, new File(workspace, "other")));
+    }
+
+    public void testPutCopiesFile() throws IOException {
+        DownloadCache cache = new DownloadCache(cacheDir, 1024, new NullLog());
+        String sha1 = writeAndPut(cache, "file", "content");
+        File entry = getEntry(sha1);
+        if (entry.toPath().getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            assertFalse(Files.getPosixFilePermissions(entry.toPath()).contains(PosixFilePermission.OWNER_WRITE));
+        }
+
+        // Modifying the downloaded file in place doesn't modify the cache
+        FileUtils.writeStringToFile(new File(workspace, "file"), "modified", StandardCharsets.UTF_8);
+        File destination = new File(workspace, "target");
+        assertTrue(cache.get(sha1, 7, destination));
+        assertEquals(FileUtils.readFileToString(destination, StandardCharsets.UTF_8), "content");
+    }
+
+    public void testGetWithoutLinks() throws IOException {
+        DownloadCache cache = new DownloadCache(cacheDir, 1024, new NullLog());
+        cache.setUseLinks(false);
+        String sha1 = writeAndPut(cache, "file", "content");
+
+        File destination = new File(workspace, "target");
+        assertTrue(cache.get(sha1, -1, destination));
+        // Modifying the copy doesn't modify the cache
+        FileUtils.writeStringToFile(destination, "modified", StandardCharsets.UTF_8);
+        File other = new File(workspace, "other");
+        assertTrue(cache.get(sha1, -1, other));
+        assertEquals(FileUtils.readFileToString(other, StandardCharsets.UTF_8), "content");
+    }
+
+    public void testEvictLeastRecentlyUsed() throws IOException {
+        DownloadCache cache = new DownloadCache(cacheDir, 20, new NullLog());
+        String first = writeAndPut(cache, "first", "first content");
+        String second = writeAndPut(cache, "second", "second content");
+        getEntry(first).setLastModified(System.currentTimeMillis() - 10000);
+        long secondLastModified = System.currentTimeMillis() - 20000;
+        getEntry(second).setLastModified(secondLastModified);
+        // Using the second entry makes the first entry the least recently used
+        assertTrue(cache.get(second, -1, new File(workspace, "target")));
+        // The entry and the files linked to it are not modified when used
+        assertEquals(getEntry(second).lastModified() / 1000, secondLastModified / 1000);
+
+        cache.evict();
+        assertFalse(cache.get(first, -1, new File(workspace, "first-target")));
+        assertTrue(cache.get(second, -1, new File(workspace, "second-target")));
+        // The materialized files are kept
+        assertEquals(FileUtils.readFileToString(new File(workspace, "first"), StandardCharsets.UTF_8), "first content");
+    }
+
+    private File getEntry(String sha1) {
+        return new File(cacheDir, "sha1/" + sha1.substring(0, 2) + "/" + sha1);
+    }
+
+    private String writeAndPut(DownloadCache cache, String fileName, String content) throws IOException {
+        File file = new File(workspace, fileName);
+        FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+        String sha1 = DigestUtils.sha1Hex(content);
+        cache.put(sha1, file);
+        return sha1;
+    }
+}
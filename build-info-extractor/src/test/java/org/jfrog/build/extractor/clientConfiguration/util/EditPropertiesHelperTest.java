@@ -0,0 +1,71 @@
+package org.jfrog.build.extractor.clientConfiguration.util;
+
+import org.jfrog.build.api.util.NullLog;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
+import org.jfrog.build.extractor.clientConfiguration.util.spec.Spec;
+import org.jfrog.build.extractor.clientConfiguration.util.spec.SpecsHelper;
+import org.jfrog.build.extractor.clientConfiguration.util.spec.validator.SearchBasedSpecValidator;
+import org.jfrog.build.extractor.util.FakeArtifactory;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class EditPropertiesHelperTest {
+    private static final Pattern AQL_PAGE = Pattern.compile("\\.offset\\((\\d+)\\)\\.limit\\((\\d+)\\)$");
+    private static final int FILES = 5;
+
+    public void testDeleteFilteredPropertyInPages() throws IOException {
+        // The files which still have the property of the spec
+        Set<String> filesWithProperty = new ConcurrentSkipListSet<>();
+        for (int i = 0; i < FILES; i++) {
+            filesWithProperty.add("file" + i + ".txt");
+        }
+        List<String> aqlQueries = new CopyOnWriteArrayList<>();
+        try (FakeArtifactory artifactory = new FakeArtifactory()
+                .handleAql(aql -> {
+                    aqlQueries.add(aql);
+                    List<String> names = new ArrayList<>(filesWithProperty);
+                    int offset = 0;
+                    int limit = names.size();
+                    Matcher page = AQL_PAGE.matcher(aql);
+                    if (page.find()) {
+                        offset = Integer.parseInt(page.group(1));
+                        limit = Integer.parseInt(page.group(2));
+                    }
+                    StringJoiner results = new StringJoiner(",", "{\"results\":[", "]}");
+                    for (int i = offset; i < Math.min(offset + limit, names.size()); i++) {
+                        results.add("{\"repo\":\"repo\",\"path\":\"dir\",\"name\":\"" + names.get(i) + "\",\"type\":\"file\"}");
+                    }
+                    return results.toString();
+                })
+                .handle("api/storage", exchange -> {
+                    String path = exchange.getRequestURI().getPath();
+                    filesWithProperty.remove(path.substring(path.lastIndexOf('/') + 1));
+                    exchange.sendResponseHeaders(204, -1);
+                    exchange.close();
+                });
+             ArtifactoryManager artifactoryManager = artifactory.createArtifactoryManager()) {
+            Spec spec = new SpecsHelper(new NullLog()).getSpecFromString(
+                    "{\"files\": [{\"pattern\": \"repo/dir/*\", \"props\": \"a=b\"}]}", new SearchBasedSpecValidator());
+            EditPropertiesHelper helper = new EditPropertiesHelper(artifactoryManager, new NullLog());
+            helper.setSearchPageSize(2);
+
+            assertTrue(helper.editProperties(spec, EditPropertiesHelper.EditPropertiesActionType.DELETE, "a"));
+        }
+        // No file was skipped, although every deletion removed the file from the search results
+        assertEquals(filesWithProperty.size(), 0, filesWithProperty.toString());
+        assertTrue(aqlQueries.get(0).contains("\"@a\": {\"$match\" : \"b\"}"), aqlQueries.get(0));
+    }
+}
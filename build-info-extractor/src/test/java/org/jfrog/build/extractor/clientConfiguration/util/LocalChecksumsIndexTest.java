@@ -0,0 +1,96 @@
+package org.jfrog.build.extractor.clientConfiguration.util;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.jfrog.build.api.util.NullLog;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+
+import static org.jfrog.build.extractor.clientConfiguration.util.DependenciesDownloaderHelper.MD5_ALGORITHM_NAME;
+import static org.jfrog.build.extractor.clientConfiguration.util.DependenciesDownloaderHelper.SHA1_ALGORITHM_NAME;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class LocalChecksumsIndexTest {
+    private File workspace;
+    private File indexFile;
+    private File file;
+
+    @BeforeMethod
+    public void createWorkspace() throws IOException {
+        workspace = Files.createTempDirectory("checksums-index").toFile();
+        indexFile = new File(workspace, ".jfrog/download-checksums.json");
+        file = new File(workspace, "file");
+        FileUtils.writeStringToFile(file, "content", StandardCharsets.UTF_8);
+    }
+
+    @AfterMethod
+    public void deleteWorkspace() throws IOException {
+        FileUtils.deleteDirectory(workspace);
+    }
+
+    public void testIndexedChecksums() throws IOException {
+        LocalChecksumsIndex index = new LocalChecksumsIndex(indexFile, new NullLog());
+        assertChecksums(index.getChecksums(file), "content");
+        index.save();
+        assertTrue(indexFile.isFile());
+
+        // Replace the content without changing the size and the last modified time, to detect whether it was read
+        replaceContent("CONTENT", false);
+        assertChecksums(new LocalChecksumsIndex(indexFile, new NullLog()).getChecksums(file), "content");
+
+        // The checksums are calculated again in verification mode
+        LocalChecksumsIndex verifyingIndex = new LocalChecksumsIndex(indexFile, new NullLog());
+        verifyingIndex.setVerify(true);
+        assertChecksums(verifyingIndex.getChecksums(file), "CONTENT");
+    }
+
+    public void testModifiedFile() throws IOException {
+        LocalChecksumsIndex index = new LocalChecksumsIndex(indexFile, new NullLog());
+        assertChecksums(index.getChecksums(file), "content");
+        replaceContent("CONTENT", true);
+        assertChecksums(index.getChecksums(file), "CONTENT");
+    }
+
+    public void testDownloadedFile() throws IOException {
+        LocalChecksumsIndex index = new LocalChecksumsIndex(indexFile, new NullLog());
+        index.put(file, index.getChecksums(file));
+        index.save();
+        replaceContent("CONTENT", false);
+        assertChecksums(new LocalChecksumsIndex(indexFile, new NullLog()).getChecksums(file), "content");
+    }
+
+    public void testDeletedFilesRemoved() throws IOException {
+        LocalChecksumsIndex index = new LocalChecksumsIndex(indexFile, new NullLog());
+        index.getChecksums(file);
+        assertTrue(file.delete());
+        index.save();
+        assertFalse(FileUtils.readFileToString(indexFile, StandardCharsets.UTF_8).contains(file.getAbsolutePath()));
+    }
+
+    public void testUnreadableIndex() throws IOException {
+        FileUtils.writeStringToFile(indexFile, "not json", StandardCharsets.UTF_8);
+        assertChecksums(new LocalChecksumsIndex(indexFile, new NullLog()).getChecksums(file), "content");
+    }
+
+    private void replaceContent(String content, boolean touch) throws IOException {
+        FileTime lastModified = Files.getLastModifiedTime(file.toPath());
+        FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file.toPath(), touch ? FileTime.fromMillis(lastModified.toMillis() + 10000) : lastModified);
+    }
+
+    private void assertChecksums(Map<String, String> checksums, String content) {
+        assertEquals(checksums.get(MD5_ALGORITHM_NAME), DigestUtils.md5Hex(content));
+        assertEquals(checksums.get(SHA1_ALGORITHM_NAME), DigestUtils.sha1Hex(content));
+    }
+}
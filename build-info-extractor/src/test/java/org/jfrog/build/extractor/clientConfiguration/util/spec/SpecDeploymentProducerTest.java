@@ -0,0 +1,137 @@
+package org.jfrog.build.extractor.clientConfiguration.util.spec;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringUtils;
+import org.jfrog.build.api.producerConsumer.ProducerConsumerItem;
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.api.util.NullLog;
+import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
+import org.jfrog.build.extractor.clientConfiguration.util.spec.validator.UploadSpecValidator;
+import org.jfrog.build.extractor.producerConsumer.ConsumerRunnableBase;
+import org.jfrog.build.extractor.producerConsumer.ProducerConsumerExecutor;
+import org.jfrog.build.extractor.producerConsumer.ProducerRunnableBase;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+@Test
+public class SpecDeploymentProducerTest {
+    private static final int NUMBER_OF_FILES = 50;
+    private final Log log = new NullLog();
+    private File workspace;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        workspace = Files.createTempDirectory("spec-deployment").toFile();
+        for (int i = 0; i < NUMBER_OF_FILES; i++) {
+            // Every other file is large enough for checksum deploy
+            String content = i % 2 == 0 ? StringUtils.repeat("content" + i, 2048) : "content" + i;
+            FileUtils.writeStringToFile(new File(workspace, "dir" + (i % 5) + "/file" + i + ".txt"), content, StandardCharsets.UTF_8);
+        }
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(workspace);
+    }
+
+    public void testHashingPipeline() throws Exception {
+        Collection<DeployDetails> deployed = runPipeline(null);
+        for (DeployDetails details : deployed) {
+            byte[] content = FileUtils.readFileToByteArray(details.getFile());
+            if (content.length < 10 * 1024) {
+                // Small files are hashed during the upload
+                assertNull(details.getSha1());
+                assertNull(details.getMd5());
+                continue;
+            }
+            assertEquals(details.getSha1(), DigestUtils.sha1Hex(content));
+            assertEquals(details.getMd5(), DigestUtils.md5Hex(content));
+        }
+    }
+
+    public void testHashingPipelineMinChecksumDeploySize() throws Exception {
+        // All files are smaller than the min checksum deploy size, and therefore hashed during the upload
+        for (DeployDetails details : runPipeline(100)) {
+            assertNull(details.getSha1());
+            assertNull(details.getMd5());
+        }
+    }
+
+    private Collection<DeployDetails> runPipeline(Integer minChecksumDeploySizeKb) throws Exception {
+        String uploadSpec = "{\"files\": [{\"pattern\": \"" + workspace.getAbsolutePath().replace("\\", "/") + "/(*).txt\", \"target\": \"repo/{1}.bin\"}]}";
+        Spec spec = new SpecsHelper(log).getSpecFromString(uploadSpec, new UploadSpecValidator());
+
+        // Small queues, to make sure all stages block on each other
+        BlockingQueue<ProducerConsumerItem> hashingQueue = new ArrayBlockingQueue<>(1);
+        SpecDeploymentProducer deploymentProducer = new SpecDeploymentProducer(spec, workspace, null, hashingQueue);
+        ProducerRunnableBase[] producers = new ProducerRunnableBase[]{deploymentProducer,
+                new SpecDeploymentHashingProducer(hashingQueue, null, minChecksumDeploySizeKb),
+                new SpecDeploymentHashingProducer(hashingQueue, null, minChecksumDeploySizeKb)};
+        Map<String, DeployDetails> deployed = new ConcurrentHashMap<>();
+        ConsumerRunnableBase[] consumers = new ConsumerRunnableBase[]{new CollectingConsumer(deployed), new CollectingConsumer(deployed)};
+        new ProducerConsumerExecutor(log, producers, consumers, 2).start();
+
+        assertEquals(deploymentProducer.getDeployedArtifacts().size(), NUMBER_OF_FILES);
+        assertEquals(deployed.size(), NUMBER_OF_FILES);
+        Map<String, DeployDetails> expected = new HashMap<>();
+        for (DeployDetails details : deploymentProducer.getDeployedArtifacts()) {
+            expected.put(details.getArtifactPath(), details);
+        }
+        for (DeployDetails details : deployed.values()) {
+            assertEquals(details.getTargetRepository(), "repo");
+            assertEquals(expected.get(details.getArtifactPath()), details);
+        }
+        return deployed.values();
+    }
+
+    private static class CollectingConsumer extends ConsumerRunnableBase {
+        private final Map<String, DeployDetails> deployed;
+        private ProducerConsumerExecutor executor;
+
+        CollectingConsumer(Map<String, DeployDetails> deployed) {
+            this.deployed = deployed;
+        }
+
+        @Override
+        public void consumerRun() {
+            try {
+                while (true) {
+                    ProducerConsumerItem item = executor.take();
+                    if (item == executor.TERMINATE) {
+                        executor.put(item);
+                        return;
+                    }
+                    DeployDetails details = (DeployDetails) item;
+                    deployed.put(details.getArtifactPath(), details);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void setExecutor(ProducerConsumerExecutor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void setLog(Log log) {
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.jfrog.build.extractor.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.jfrog.build.api.util.NullLog;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local HTTP server standing in for Artifactory in unit tests.
+ * The handlers are registered on paths relative to the Artifactory URL, for example "api/search/aql".
+ */
+public class FakeArtifactory implements AutoCloseable {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final HttpServer server;
+
+    public FakeArtifactory() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        // Serve concurrent requests in parallel, as Artifactory does
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public interface AqlHandler {
+        /**
+         * @return the JSON response to the AQL query
+         */
+        String handle(String aql) throws IOException;
+    }
+
+    public FakeArtifactory handle(String path, HttpHandler handler) {
+        server.createContext("/artifactory/" + path, handler);
+        return this;
+    }
+
+    /**
+     * Respond to every request of the path with the provided content.
+     */
+    public FakeArtifactory respond(String path, String content) {
+        return handle(path, exchange -> respond(exchange, 200, content));
+    }
+
+    public FakeArtifactory handleAql(AqlHandler handler) {
+        return handle("api/search/aql", exchange -> respond(exchange, 200, handler.handle(readBody(exchange))));
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/artifactory";
+    }
+
+    public ArtifactoryManager createArtifactoryManager() {
+        return new ArtifactoryManager(getUrl(), new NullLog());
+    }
+
+    public static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream requestBody = exchange.getRequestBody()) {
+            return IOUtils.toString(requestBody, StandardCharsets.UTF_8);
+        }
+    }
+
+    public static void respond(HttpExchange exchange, int statusCode, String content) throws IOException {
+        byte[] response = content.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(statusCode, response.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(response);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}